@@ -3,8 +3,12 @@ plugins {
     id("org.jetbrains.kotlin.android")
     id("com.google.dagger.hilt.android")
     id("com.google.devtools.ksp")
+    id("androidx.baselineprofile")
 }
 
+// Build types the baselineprofile plugin derives from release for the harness modules.
+val benchmarkBuildTypes = listOf("nonMinifiedRelease", "benchmarkRelease")
+
 android {
     namespace = "com.librarix"
     compileSdk = 34
@@ -24,12 +28,21 @@ android {
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            // R8 in full mode (gradle.properties); app-specific keep rules are in proguard-rules.pro.
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
             )
         }
+        // nonMinifiedRelease and benchmarkRelease are added by the baselineprofile
+        // plugin; sign them with the debug key so the harness can install them.
+        configureEach {
+            if (name in benchmarkBuildTypes) {
+                signingConfig = signingConfigs.getByName("debug")
+            }
+        }
     }
 
     compileOptions {
@@ -43,6 +56,7 @@ android {
 
     buildFeatures {
         compose = true
+        buildConfig = true
     }
 
     composeOptions {
@@ -52,6 +66,20 @@ android {
     packaging {
         resources {
             excludes += "/META-INF/{AL2.0,LGPL2.1}"
+            // mockk-android and its JUnit 5 dependencies each ship these.
+            excludes += "/META-INF/LICENSE.md"
+            excludes += "/META-INF/LICENSE-notice.md"
+        }
+    }
+
+    sourceSets {
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
+        // Library seeding hook for the benchmark journeys; never part of release.
+        benchmarkBuildTypes.forEach { buildType ->
+            maybeCreate(buildType).apply {
+                java.srcDir("src/benchmark/java")
+                manifest.srcFile("src/benchmark/AndroidManifest.xml")
+            }
         }
     }
 
@@ -62,6 +90,16 @@ android {
     }
 }
 
+ksp {
+    arg("room.schemaLocation", "$projectDir/schemas")
+}
+
+baselineProfile {
+    // Regenerate explicitly with :app:generateBaselineProfile; release builds
+    // use the checked-in profile under src/main/generated/baselineProfiles.
+    automaticGenerationDuringBuild = false
+}
+
 dependencies {
     // Core Android
     implementation("androidx.core:core-ktx:1.12.0")
@@ -87,17 +125,26 @@ dependencies {
     implementation("com.google.dagger:hilt-android:2.50")
     ksp("com.google.dagger:hilt-compiler:2.50")
     implementation("androidx.hilt:hilt-navigation-compose:1.1.0")
+    implementation("androidx.hilt:hilt-work:1.1.0")
+    ksp("androidx.hilt:hilt-compiler:1.1.0")
+
+    // WorkManager
+    implementation("androidx.work:work-runtime-ktx:2.9.0")
 
     // Room Database
     implementation("androidx.room:room-runtime:2.6.1")
     implementation("androidx.room:room-ktx:2.6.1")
+    implementation("androidx.room:room-paging:2.6.1")
     ksp("androidx.room:room-compiler:2.6.1")
 
+    // Paging
+    implementation("androidx.paging:paging-runtime-ktx:3.2.1")
+    implementation("androidx.paging:paging-compose:3.2.1")
+
     // Retrofit & Networking
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-moshi:2.9.0")
     implementation("com.squareup.moshi:moshi:1.15.0")
-    implementation("com.squareup.moshi:moshi-kotlin:1.15.0")
     ksp("com.squareup.moshi:moshi-kotlin-codegen:1.15.0")
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
     implementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
@@ -112,6 +159,10 @@ dependencies {
     // DataStore
     implementation("androidx.datastore:datastore-preferences:1.0.0")
 
+    // Baseline profile: installed on first run by profileinstaller, generated by :baselineprofile
+    implementation("androidx.profileinstaller:profileinstaller:1.3.1")
+    baselineProfile(project(":baselineprofile"))
+
     // Supabase - TODO: add back when credentials are configured
     // implementation(platform("io.github.jan-tennert.supabase:bom:VERSION"))
     // implementation("io.github.jan-tennert.supabase:auth-kt")
@@ -123,9 +174,13 @@ dependencies {
     testImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-test:1.7.3")
     testImplementation("io.mockk:mockk:1.13.9")
     testImplementation("app.cash.turbine:turbine:1.0.0")
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
 
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
+    androidTestImplementation("androidx.room:room-testing:2.6.1")
+    androidTestImplementation("androidx.work:work-testing:2.9.0")
+    androidTestImplementation("io.mockk:mockk-android:1.13.9")
     androidTestImplementation(platform("androidx.compose:compose-bom:2024.01.00"))
     androidTestImplementation("androidx.compose.ui:ui-test-junit4")
 
@@ -0,0 +1,42 @@
+# R8 rules for release builds (full mode, see gradle.properties).
+#
+# Room, Hilt, WorkManager, OkHttp, Coil and Moshi ship their own consumer
+# rules, and moshi-kotlin-codegen writes a rule file for every
+# @JsonClass(generateAdapter = true) type. The rules below cover what those
+# miss for this app.
+
+# Keep line numbers in crash reports; mapping.txt restores the names.
+-keepattributes SourceFile,LineNumberTable
+-renamesourcefileattribute SourceFile
+
+# --- Retrofit (OpenLibraryApi, BookBrainApi) ---
+# Retrofit 2.9 predates full mode. It reads the generic signatures of the
+# service methods and suspend functions' Continuation parameter reflectively,
+# so those must survive optimization.
+-keepattributes Signature, InnerClasses, EnclosingMethod
+-keepattributes RuntimeVisibleAnnotations, RuntimeVisibleParameterAnnotations, AnnotationDefault
+-if interface * { @retrofit2.http.* <methods>; }
+-keep,allowobfuscation interface <1>
+-keepclassmembers,allowshrinking,allowobfuscation interface * {
+    @retrofit2.http.* <methods>;
+}
+-keep,allowobfuscation,allowshrinking class kotlin.coroutines.Continuation
+-keep,allowobfuscation,allowshrinking interface retrofit2.Call
+-keep,allowobfuscation,allowshrinking class retrofit2.Response
+-dontwarn retrofit2.KotlinExtensions
+-dontwarn retrofit2.KotlinExtensions$*
+
+# --- Moshi ---
+# TextValueAdapter is matched to @TextValue fields by reading the annotations
+# on its @FromJson/@ToJson methods at runtime.
+-keep @com.squareup.moshi.JsonQualifier @interface com.librarix.**
+-keepclassmembers class com.librarix.data.remote.TextValueAdapter {
+    @com.squareup.moshi.FromJson <methods>;
+    @com.squareup.moshi.ToJson <methods>;
+}
+
+# --- WorkManager ---
+# Worker class names are stored in WorkManager's database and looked up by
+# HiltWorkerFactory under their source names; renaming them between releases
+# would orphan work enqueued by the previous version.
+-keepnames class * extends androidx.work.ListenableWorker
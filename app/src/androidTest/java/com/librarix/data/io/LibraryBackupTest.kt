@@ -0,0 +1,253 @@
+package com.librarix.data.io
+
+import android.content.Context
+import android.net.Uri
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.librarix.data.di.NetworkModule
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.PendingChangeEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
+import com.librarix.data.sync.BookChange
+import com.librarix.data.sync.SyncBackend
+import com.librarix.data.sync.SyncEngine
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import okhttp3.OkHttpClient
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.File
+import java.io.IOException
+import java.time.ZoneId
+
+/**
+ * Export → restore round trips through a real file, from one in-memory
+ * database into another, plus what a restore queues for sync and how it
+ * rejects files from a newer format version.
+ */
+@RunWith(AndroidJUnit4::class)
+class LibraryBackupTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private lateinit var source: LibrarixDatabase
+    private lateinit var target: LibrarixDatabase
+    private lateinit var file: File
+
+    @Before
+    fun setUp() {
+        source = Room.inMemoryDatabaseBuilder(context, LibrarixDatabase::class.java).build()
+        target = Room.inMemoryDatabaseBuilder(context, LibrarixDatabase::class.java).build()
+        file = File(context.cacheDir, "library-backup-test.json")
+    }
+
+    @After
+    fun tearDown() {
+        source.close()
+        target.close()
+        file.delete()
+    }
+
+    @Test
+    fun largeLibraryRoundTrips() = runBlocking {
+        seed(source, books = LARGE_LIBRARY)
+
+        var start = SystemClock.elapsedRealtime()
+        val exported = backupFor(source).export(Uri.fromFile(file))
+        Log.i(TAG, "Exported $LARGE_LIBRARY books in ${SystemClock.elapsedRealtime() - start} ms, ${file.length()} bytes")
+
+        start = SystemClock.elapsedRealtime()
+        val restored = backupFor(target).restore(Uri.fromFile(file))
+        Log.i(TAG, "Restored $LARGE_LIBRARY books in ${SystemClock.elapsedRealtime() - start} ms")
+
+        assertEquals(BackupSummary(LARGE_LIBRARY, LARGE_LIBRARY / 10, LARGE_LIBRARY / 5, 2), exported)
+        assertEquals(exported, restored)
+        assertEquals(allBooks(source), allBooks(target))
+        assertEquals(allNotes(source), allNotes(target))
+        assertEquals(allSessions(source), allSessions(target))
+        assertEquals(source.backupDao().goals(), target.backupDao().goals())
+        assertEquals(source.backupDao().collections(), target.backupDao().collections())
+        assertEquals(allMembers(source), allMembers(target))
+
+        // Day totals are rebuilt from the sessions, and every book is offered to sync.
+        source.readingStatsDao().rebuildDays(ZoneId.systemDefault())
+        assertEquals(
+            source.readingStatsDao().getDays().first().toSet(),
+            target.readingStatsDao().getDays().first().toSet()
+        )
+        assertEquals(LARGE_LIBRARY, target.syncDao().getPendingCount().first())
+    }
+
+    @Test
+    fun restoreReplacesExistingLibrary() = runBlocking {
+        seed(source, books = 10)
+        seed(target, books = 25)
+
+        backupFor(source).export(Uri.fromFile(file))
+        backupFor(target).restore(Uri.fromFile(file))
+
+        assertEquals(allBooks(source), allBooks(target))
+        assertEquals(allMembers(source), allMembers(target))
+    }
+
+    @Test
+    fun restoreQueuesDeletesForRemovedBooks() = runBlocking {
+        seed(source, books = 10)
+        seed(target, books = 25)
+        // Deleted before the restore and not in the file: must stay queued.
+        target.syncDao().enqueue(pending("gone", PendingChangeEntity.OP_DELETE, version = 4))
+
+        backupFor(source).export(Uri.fromFile(file))
+        backupFor(target).restore(Uri.fromFile(file))
+
+        val syncDao = target.syncDao()
+        assertEquals(26, syncDao.getPendingCount().first())
+        val kept = syncDao.getPendingFor(PendingChangeEntity.TYPE_BOOK, "book-3")!!
+        assertEquals(PendingChangeEntity.OP_UPSERT, kept.op)
+        assertEquals(book(3).version, kept.version)
+        val removed = syncDao.getPendingFor(PendingChangeEntity.TYPE_BOOK, "book-17")!!
+        assertEquals(PendingChangeEntity.OP_DELETE, removed.op)
+        assertEquals(book(17).version + 1, removed.version)
+        assertEquals(PendingChangeEntity.OP_DELETE, syncDao.getPendingFor(PendingChangeEntity.TYPE_BOOK, "gone")!!.op)
+    }
+
+    @Test
+    fun newerVersionIsRejectedAndLibraryKept() = runBlocking {
+        seed(target, books = 5)
+        val before = allBooks(target)
+        file.writeText("""{"format":"librarix-backup","version":99,"books":[]}""")
+
+        try {
+            backupFor(target).restore(Uri.fromFile(file))
+            fail("Expected a newer-version backup to be rejected")
+        } catch (_: IOException) {
+        }
+        assertEquals(before, allBooks(target))
+    }
+
+    private fun backupFor(db: LibrarixDatabase) = LibraryBackup(
+        context = context,
+        database = db,
+        backupDao = db.backupDao(),
+        readingStatsDao = db.readingStatsDao(),
+        syncDao = db.syncDao(),
+        syncEngine = SyncEngine(
+            context = context,
+            database = db,
+            bookDao = db.bookDao(),
+            noteDao = db.noteDao(),
+            collectionDao = db.collectionDao(),
+            syncDao = db.syncDao(),
+            coverStore = CoverStore(context, db.bookDao(), OkHttpClient()),
+            backend = object : SyncBackend {
+                override suspend fun pushBooks(changes: List<BookChange>) = Unit
+                override suspend fun pullBooks(afterSeq: Long, limit: Int) = emptyList<BookChange>()
+            }
+        ),
+        coverStore = CoverStore(context, db.bookDao(), OkHttpClient()),
+        moshi = NetworkModule.provideMoshi()
+    )
+
+    private fun pending(bookId: String, op: String, version: Int) = PendingChangeEntity(
+        entityType = PendingChangeEntity.TYPE_BOOK,
+        entityId = bookId,
+        op = op,
+        changedAt = 1_000L,
+        version = version
+    )
+
+    private suspend fun seed(db: LibrarixDatabase, books: Int) {
+        val dao = db.backupDao()
+        (0 until books).chunked(SEED_BATCH).forEach { ids ->
+            dao.upsertBooks(ids.map { book(it) })
+            dao.upsertNotes(ids.filter { it % 10 == 0 }.map { note(it) })
+            dao.insertSessions(ids.filter { it % 5 == 0 }.map { session(it) })
+        }
+        dao.insertGoals(listOf(ReadingGoalEntity(2023, 20), ReadingGoalEntity(2024, 30)))
+        dao.insertCollections(
+            listOf(
+                CollectionEntity("c1", null, "Favourites", null, "private", null, 1L),
+                CollectionEntity("c2", "u1", "To lend", "Shelf by the door", "public", null, 2L)
+            )
+        )
+        dao.insertMembers(
+            (0 until books step 7).map { CollectionMemberEntity(if (it % 2 == 0) "c1" else "c2", "book-$it", it.toLong()) }
+        )
+    }
+
+    private suspend fun allBooks(db: LibrarixDatabase) = pages { last: BookEntity? ->
+        db.backupDao().booksAfter(last?.id ?: "", PAGE)
+    }
+
+    private suspend fun allNotes(db: LibrarixDatabase) = pages { last: BookNoteEntity? ->
+        db.backupDao().notesAfter(last?.id ?: "", PAGE)
+    }
+
+    private suspend fun allSessions(db: LibrarixDatabase) = pages { last: ReadingSessionEntity? ->
+        db.backupDao().sessionsAfter(last?.id ?: "", PAGE)
+    }
+
+    private suspend fun allMembers(db: LibrarixDatabase) = pages { last: CollectionMemberEntity? ->
+        db.backupDao().membersAfter(last?.collectionId ?: "", last?.bookId ?: "", PAGE)
+    }
+
+    private suspend fun <T> pages(next: suspend (last: T?) -> List<T>): List<T> {
+        val all = ArrayList<T>()
+        while (true) {
+            val page = next(all.lastOrNull())
+            if (page.isEmpty()) return all
+            all += page
+        }
+    }
+
+    private fun book(i: Int) = BookEntity(
+        id = "book-$i",
+        title = "Title $i éè — 书",
+        author = "Author ${i % 500}",
+        description = if (i % 3 == 0) "Description of book $i,\nwith \"quotes\"" else null,
+        coverURLString = if (i % 2 == 0) "https://covers.openlibrary.org/b/id/$i-L.jpg" else null,
+        pageCount = if (i % 4 == 0) null else 100 + i % 900,
+        currentPage = i % 300,
+        progressFraction = if (i % 6 == 0) (i % 100) / 100.0 else null,
+        status = STATUSES[i % STATUSES.size],
+        genre = if (i % 2 == 0) "Fiction" else null,
+        rating = if (i % 5 == 0) (i % 10) / 2.0 else null,
+        isFavorite = i % 10 == 0,
+        lastProgressDeltaPercent = if (i % 7 == 0) i % 100 else null,
+        lastSessionMinutes = if (i % 7 == 0) 30 else null,
+        lastSessionNotes = null,
+        lastProgressUpdate = i * 60_000L,
+        finishedDate = if (i % 3 == 1) i * 60_000L else null,
+        addedDate = i * 30_000L,
+        openLibraryWorkKey = if (i % 2 == 0) "/works/OL${i}W" else null,
+        isbn = if (i % 3 == 0) (9_780_000_000_000L + i).toString() else null,
+        remoteId = null,
+        enrichedAt = if (i % 4 == 0) i * 1_000L else null,
+        updatedAt = i * 60_000L + 1,
+        version = i % 5
+    )
+
+    private fun note(i: Int) = BookNoteEntity("note-$i", "book-$i", "Note on $i", i % 300, i.toLong(), i + 1L)
+
+    private fun session(i: Int) = ReadingSessionEntity("session-$i", i * 3_600_000L, pagesDelta = i % 40, minutes = i % 60)
+
+    private companion object {
+        const val TAG = "LibraryBackupTest"
+        const val LARGE_LIBRARY = 50_000
+        const val SEED_BATCH = 1_000
+        const val PAGE = 1_000
+        val STATUSES = listOf("READING", "FINISHED", "WANT_TO_READ")
+    }
+}
@@ -0,0 +1,134 @@
+package com.librarix.data.io
+
+import android.content.Context
+import android.net.Uri
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.sync.SyncEngine
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.File
+
+/**
+ * A Goodreads export of a few thousand rows, imported into an in-memory
+ * database: what is written, what is skipped, and what is queued for sync.
+ */
+@RunWith(AndroidJUnit4::class)
+class LibraryCsvImporterTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private val syncEngine = mockk<SyncEngine>(relaxed = true)
+    private lateinit var database: LibrarixDatabase
+    private lateinit var importer: LibraryCsvImporter
+    private lateinit var file: File
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(context, LibrarixDatabase::class.java).build()
+        importer = LibraryCsvImporter(context, database, database.bookDao(), database.syncDao(), syncEngine)
+        file = File(context.cacheDir, "goodreads-import-test.csv")
+        writeExport(file)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+        file.delete()
+    }
+
+    @Test
+    fun importsNewRowsAndSkipsDuplicates() = runBlocking {
+        // The first ALREADY_SAVED ISBNs in the file are in the library before the import.
+        database.bookDao().upsertBooks((0 until ALREADY_SAVED).map { savedBook(it) })
+
+        val result = importer.import(Uri.fromFile(file)).last()
+
+        val imported = UNIQUE_ROWS - ALREADY_SAVED
+        assertEquals(
+            CsvImportProgress(
+                rowsRead = UNIQUE_ROWS + DUPLICATE_ROWS + UNTITLED_ROWS,
+                imported = imported,
+                skipped = ALREADY_SAVED + DUPLICATE_ROWS + UNTITLED_ROWS,
+                isComplete = true
+            ),
+            result
+        )
+        assertEquals(UNIQUE_ROWS, database.bookDao().getAllBooks().first().size)
+        assertEquals(imported, database.syncDao().getPendingCount().first())
+        verify(exactly = 1) { syncEngine.requestSync() }
+    }
+
+    @Test
+    fun reimportingSameFileAddsNothing() = runBlocking {
+        importer.import(Uri.fromFile(file)).last()
+        val result = importer.import(Uri.fromFile(file)).last()
+
+        assertEquals(0, result.imported)
+        assertEquals(UNIQUE_ROWS, database.bookDao().getAllBooks().first().size)
+        assertEquals(UNIQUE_ROWS, database.syncDao().getPendingCount().first())
+        verify(exactly = 1) { syncEngine.requestSync() }
+    }
+
+    // Unique rows, then repeats of earlier ISBNs spread across chunks, then rows with no title.
+    private fun writeExport(file: File) {
+        file.bufferedWriter().use { out ->
+            out.write("Book Id,Title,Author,ISBN,ISBN13,My Rating,Number of Pages,Date Read,Date Added,Bookshelves,Exclusive Shelf\n")
+            for (i in 0 until UNIQUE_ROWS) out.write(row(i, title = "Title $i, \"annotated\""))
+            for (i in 0 until DUPLICATE_ROWS) out.write(row(i * (UNIQUE_ROWS / DUPLICATE_ROWS), title = "Repeat $i"))
+            for (i in 0 until UNTITLED_ROWS) out.write(row(UNIQUE_ROWS + i, title = ""))
+        }
+    }
+
+    private fun row(i: Int, title: String): String {
+        val shelf = SHELVES[i % SHELVES.size]
+        val day = "%02d".format(i % 28 + 1)
+        val dateRead = if (shelf == "read") "2024/03/$day" else ""
+        return "$i,\"${title.replace("\"", "\"\"")}\",Author ${i % 300},\"=\"\"\"\"\",\"=\"\"${isbn(i)}\"\"\"," +
+            "${i % 6},${100 + i % 500},$dateRead,2023/01/$day,${if (i % 10 == 0) "favorites" else ""},$shelf\n"
+    }
+
+    private fun isbn(i: Int) = (9_780_000_000_000L + i).toString()
+
+    private fun savedBook(i: Int) = BookEntity(
+        id = "saved-$i",
+        title = "Saved $i",
+        author = "Author",
+        description = null,
+        coverURLString = null,
+        pageCount = null,
+        currentPage = null,
+        progressFraction = null,
+        status = "WANT_TO_READ",
+        genre = null,
+        rating = null,
+        isFavorite = false,
+        lastProgressDeltaPercent = null,
+        lastSessionMinutes = null,
+        lastSessionNotes = null,
+        lastProgressUpdate = 0L,
+        finishedDate = null,
+        addedDate = 0L,
+        openLibraryWorkKey = null,
+        isbn = isbn(i),
+        remoteId = null
+    )
+
+    private companion object {
+        const val UNIQUE_ROWS = 3_000
+        const val DUPLICATE_ROWS = 200
+        const val UNTITLED_ROWS = 50
+        const val ALREADY_SAVED = 100
+        val SHELVES = listOf("read", "currently-reading", "to-read")
+    }
+}
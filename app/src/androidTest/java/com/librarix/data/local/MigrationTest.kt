@@ -0,0 +1,237 @@
+package com.librarix.data.local
+
+import androidx.room.Room
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.time.ZoneId
+
+/**
+ * Runs every migration against the exported schemas in app/schemas. Each
+ * step is validated on its own, and the whole chain is run from v2 with data
+ * in place, so a dropped or rebuilt table can't lose rows unnoticed.
+ */
+@RunWith(AndroidJUnit4::class)
+class MigrationTest {
+
+    @get:Rule
+    val helper = MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(),
+        LibrarixDatabase::class.java
+    )
+
+    @Test
+    fun everyStepMatchesItsExportedSchema() {
+        for (migration in ALL_MIGRATIONS) {
+            val name = "migration-step-${migration.startVersion}"
+            helper.createDatabase(name, migration.startVersion).close()
+            helper.runMigrationsAndValidate(name, migration.endVersion, true, migration).close()
+        }
+    }
+
+    @Test
+    fun allMigrationsReachCurrentSchema() {
+        helper.createDatabase(TEST_DB, 2).use { db ->
+            insertV2Book(db, id = "b1", title = "Dune", notesJson = null)
+        }
+        helper.runMigrationsAndValidate(TEST_DB, CURRENT_VERSION, true, *ALL_MIGRATIONS).use { db ->
+            db.query("SELECT `title` FROM `books` WHERE `id` = 'b1'").use { cursor ->
+                cursor.moveToFirst()
+                assertEquals("Dune", cursor.getString(0))
+            }
+        }
+    }
+
+    // Room checks the identity hash and every table against the compiled database on
+    // open, so this fails if an exported schema isn't exactly what Room generated.
+    @Test
+    fun migratedDatabaseOpensWithRoom() {
+        helper.createDatabase(TEST_DB, 2).close()
+        val database = Room.databaseBuilder(
+            InstrumentationRegistry.getInstrumentation().targetContext,
+            LibrarixDatabase::class.java,
+            TEST_DB
+        )
+            .addMigrations(*ALL_MIGRATIONS)
+            .build()
+        try {
+            database.openHelper.writableDatabase
+        } finally {
+            database.close()
+        }
+    }
+
+    @Test
+    fun migrate4To5KeepsBooksAndMovesNotes() {
+        helper.createDatabase(TEST_DB, 4).use { db ->
+            insertV2Book(
+                db,
+                id = "b1",
+                title = "Dune",
+                notesJson = """[{"id":"n1","text":"Spice must flow","pageNumber":12,"createdAt":1000,"updatedAt":2000},""" +
+                    """{"id":"n2","text":"Fear is the mind-killer","createdAt":3000}]"""
+            )
+            insertV2Book(db, id = "b2", title = "Emma", notesJson = "not json")
+        }
+
+        helper.runMigrationsAndValidate(TEST_DB, 5, true, MIGRATION_4_5).use { db ->
+            db.query("SELECT `id`, `title`, `author`, `status`, `pageCount`, `isFavorite` FROM `books` ORDER BY `id`").use { cursor ->
+                assertEquals(2, cursor.count)
+                cursor.moveToFirst()
+                assertEquals("b1", cursor.getString(0))
+                assertEquals("Dune", cursor.getString(1))
+                assertEquals("Author b1", cursor.getString(2))
+                assertEquals("reading", cursor.getString(3))
+                assertEquals(412, cursor.getInt(4))
+                assertEquals(1, cursor.getInt(5))
+            }
+
+            db.query("SELECT `id`, `bookId`, `text`, `pageNumber`, `createdAt`, `updatedAt` FROM `book_notes` ORDER BY `id`").use { cursor ->
+                assertEquals(2, cursor.count)
+                cursor.moveToFirst()
+                assertEquals("n1", cursor.getString(0))
+                assertEquals("b1", cursor.getString(1))
+                assertEquals("Spice must flow", cursor.getString(2))
+                assertEquals(12, cursor.getInt(3))
+                assertEquals(1000L, cursor.getLong(4))
+                assertEquals(2000L, cursor.getLong(5))
+                cursor.moveToNext()
+                assertEquals("n2", cursor.getString(0))
+                assertTrue(cursor.isNull(3))
+                assertEquals(3000L, cursor.getLong(5))
+            }
+
+            // Both FTS tables are rebuilt over the migrated rows.
+            assertEquals(listOf("b1"), matchBooks(db, "dune"))
+            db.query("SELECT `book_notes`.`id` FROM `book_notes` JOIN `book_notes_fts` " +
+                "ON `book_notes`.`rowid` = `book_notes_fts`.`docid` WHERE `book_notes_fts` MATCH 'mind*'").use { cursor ->
+                cursor.moveToFirst()
+                assertEquals("n2", cursor.getString(0))
+            }
+        }
+    }
+
+    @Test
+    fun collectionsSurviveLaterMigrations() {
+        helper.createDatabase(TEST_DB, 4).use { db ->
+            insertV2Book(db, id = "b1", title = "Dune", notesJson = """[{"id":"n1","text":"Spice","createdAt":1}]""")
+        }
+        helper.runMigrationsAndValidate(TEST_DB, 10, true, *ALL_MIGRATIONS).use { db ->
+            db.execSQL(
+                "INSERT INTO `collections` (`id`, `userId`, `title`, `description`, `visibility`, `coverURLString`, `createdAt`) " +
+                    "VALUES ('c1', NULL, 'Favourites', NULL, 'private', NULL, 10)"
+            )
+            db.execSQL("INSERT INTO `collection_members` (`collectionId`, `bookId`, `addedAt`) VALUES ('c1', 'b1', 11)")
+        }
+
+        helper.runMigrationsAndValidate(TEST_DB, CURRENT_VERSION, true, *ALL_MIGRATIONS).use { db ->
+            db.query(
+                "SELECT `collections`.`title`, `books`.`title` FROM `collection_members` " +
+                    "JOIN `collections` ON `collections`.`id` = `collection_members`.`collectionId` " +
+                    "JOIN `books` ON `books`.`id` = `collection_members`.`bookId`"
+            ).use { cursor ->
+                assertEquals(1, cursor.count)
+                cursor.moveToFirst()
+                assertEquals("Favourites", cursor.getString(0))
+                assertEquals("Dune", cursor.getString(1))
+            }
+            db.query("SELECT `text` FROM `book_notes` WHERE `bookId` = 'b1'").use { cursor ->
+                cursor.moveToFirst()
+                assertEquals("Spice", cursor.getString(0))
+            }
+            assertEquals(listOf("b1"), matchBooks(db, "dune"))
+        }
+    }
+
+    @Test
+    fun migrate8To9BackfillsReadingDays() {
+        val day = 19_000L
+        val noonUtc = day * 86_400_000L + 12 * 3_600_000L
+        helper.createDatabase(TEST_DB, 8).use { db ->
+            db.execSQL("INSERT INTO `reading_sessions` (`id`, `date`, `pagesDelta`) VALUES ('s1', $noonUtc, 10)")
+            db.execSQL("INSERT INTO `reading_sessions` (`id`, `date`, `pagesDelta`) VALUES ('s2', ${noonUtc + 60_000}, 5)")
+        }
+        helper.runMigrationsAndValidate(TEST_DB, 9, true, MIGRATION_8_9).use { db ->
+            db.query("SELECT SUM(`pages`), COUNT(*), MAX(`epochDay`) FROM `reading_days`").use { cursor ->
+                cursor.moveToFirst()
+                assertEquals(15, cursor.getInt(0))
+                assertEquals(1, cursor.getInt(1))
+                // Same bucket ReadingStatsStore.logSession would have used.
+                assertEquals(epochDayOf(noonUtc, ZoneId.systemDefault()), cursor.getLong(2))
+            }
+        }
+    }
+
+    @Test
+    fun migrate12To13StampsBooksAndQueuesThemForSync() {
+        helper.createDatabase(TEST_DB, 12).use { db ->
+            insertV5Book(db, id = "b1", lastProgressUpdate = 500L, addedDate = 100L)
+            insertV5Book(db, id = "b2", lastProgressUpdate = null, addedDate = 100L)
+            insertV5Book(db, id = "b3", lastProgressUpdate = null, addedDate = null)
+        }
+        helper.runMigrationsAndValidate(TEST_DB, 13, true, MIGRATION_12_13).use { db ->
+            db.query("SELECT `id`, `updatedAt`, `version` FROM `books` ORDER BY `id`").use { cursor ->
+                val stamps = buildList {
+                    while (cursor.moveToNext()) add(Triple(cursor.getString(0), cursor.getLong(1), cursor.getInt(2)))
+                }
+                assertEquals(listOf(Triple("b1", 500L, 0), Triple("b2", 100L, 0), Triple("b3", 0L, 0)), stamps)
+            }
+            db.query("SELECT `entityType`, `entityId`, `op`, `changedAt` FROM `pending_changes` ORDER BY `entityId`").use { cursor ->
+                assertEquals(3, cursor.count)
+                cursor.moveToFirst()
+                assertEquals("book", cursor.getString(0))
+                assertEquals("b1", cursor.getString(1))
+                assertEquals("UPSERT", cursor.getString(2))
+                assertEquals(500L, cursor.getLong(3))
+            }
+        }
+    }
+
+    @Test
+    fun migrate13To14AddsEmptyDiscoverFeed() {
+        helper.createDatabase(TEST_DB, 13).close()
+        helper.runMigrationsAndValidate(TEST_DB, 14, true, MIGRATION_13_14).use { db ->
+            db.query("SELECT COUNT(*) FROM `discover_feed`").use { cursor ->
+                cursor.moveToFirst()
+                assertEquals(0, cursor.getInt(0))
+            }
+        }
+    }
+
+    private fun matchBooks(db: SupportSQLiteDatabase, query: String): List<String> =
+        db.query(
+            "SELECT `books`.`id` FROM `books` JOIN `books_fts` ON `books`.`rowid` = `books_fts`.`docid` " +
+                "WHERE `books_fts` MATCH ?",
+            arrayOf(query)
+        ).use { cursor ->
+            buildList { while (cursor.moveToNext()) add(cursor.getString(0)) }
+        }
+
+    // The v2-v4 books table, which still carries notesJson.
+    private fun insertV2Book(db: SupportSQLiteDatabase, id: String, title: String, notesJson: String?) {
+        db.execSQL(
+            "INSERT INTO `books` (`id`, `title`, `author`, `status`, `pageCount`, `isFavorite`, `notesJson`) " +
+                "VALUES (?, ?, ?, 'reading', 412, 1, ?)",
+            arrayOf(id, title, "Author $id", notesJson)
+        )
+    }
+
+    private fun insertV5Book(db: SupportSQLiteDatabase, id: String, lastProgressUpdate: Long?, addedDate: Long?) {
+        db.execSQL(
+            "INSERT INTO `books` (`id`, `title`, `author`, `status`, `isFavorite`, `lastProgressUpdate`, `addedDate`) " +
+                "VALUES (?, ?, 'Author', 'reading', 0, ?, ?)",
+            arrayOf(id, "Title $id", lastProgressUpdate, addedDate)
+        )
+    }
+
+    private companion object {
+        const val TEST_DB = "migration-test"
+        const val CURRENT_VERSION = 14
+    }
+}
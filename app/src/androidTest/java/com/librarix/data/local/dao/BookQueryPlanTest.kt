@@ -0,0 +1,147 @@
+package com.librarix.data.local.dao
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.BookEntity
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Checks that the Library paging and filter queries in [BookDao] are served
+ * by the composite indexes on `books`, without a temp B-tree sort, and logs
+ * first-page latency at 1k, 10k and 50k books.
+ */
+@RunWith(AndroidJUnit4::class)
+class BookQueryPlanTest {
+
+    private lateinit var database: LibrarixDatabase
+    private lateinit var db: SupportSQLiteDatabase
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(
+            ApplicationProvider.getApplicationContext(),
+            LibrarixDatabase::class.java
+        ).build()
+        db = database.openHelper.writableDatabase
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun allBooksPageUsesLastProgressUpdateIndex() {
+        assertIndexedWithoutSort(
+            paged("SELECT * FROM books ORDER BY lastProgressUpdate DESC"),
+            "index_books_lastProgressUpdate"
+        )
+    }
+
+    @Test
+    fun statusPageUsesStatusIndex() {
+        assertIndexedWithoutSort(
+            paged("SELECT * FROM books WHERE status = 'READING' ORDER BY lastProgressUpdate DESC"),
+            "index_books_status_lastProgressUpdate"
+        )
+    }
+
+    @Test
+    fun favoritesPageUsesFavoriteIndex() {
+        assertIndexedWithoutSort(
+            paged("SELECT * FROM books WHERE isFavorite = 1 ORDER BY lastProgressUpdate DESC"),
+            "index_books_isFavorite_lastProgressUpdate"
+        )
+    }
+
+    @Test
+    fun finishedShelfUsesFinishedDateIndex() {
+        assertIndexedWithoutSort(
+            "SELECT * FROM books WHERE status = 'FINISHED' ORDER BY finishedDate DESC",
+            "index_books_status_finishedDate"
+        )
+        assertIndexedWithoutSort(
+            "SELECT COUNT(*) FROM books WHERE status = 'FINISHED' AND finishedDate >= 0 AND finishedDate < 1",
+            "index_books_status_finishedDate"
+        )
+    }
+
+    @Test
+    fun recentlyAddedUsesAddedDateIndex() {
+        assertIndexedWithoutSort(
+            "SELECT * FROM books ORDER BY addedDate DESC LIMIT 10",
+            "index_books_addedDate"
+        )
+    }
+
+    @Test
+    fun firstPageLatency() = runBlocking {
+        val dao = database.bookDao()
+        var seeded = 0
+        for (size in listOf(1_000, 10_000, 50_000)) {
+            dao.upsertBooks(List(size - seeded) { book(seeded + it) })
+            seeded = size
+
+            val start = SystemClock.elapsedRealtimeNanos()
+            val rows = db.query(paged("SELECT * FROM books WHERE status = 'READING' ORDER BY lastProgressUpdate DESC"))
+                .use { it.count }
+            val micros = (SystemClock.elapsedRealtimeNanos() - start) / 1_000
+            Log.i(TAG, "First status page with $size books: $micros us")
+            assertEquals(PAGE_SIZE, rows)
+        }
+    }
+
+    private fun assertIndexedWithoutSort(sql: String, index: String) {
+        val plan = db.query("EXPLAIN QUERY PLAN $sql").use { cursor ->
+            buildList { while (cursor.moveToNext()) add(cursor.getString(cursor.getColumnIndexOrThrow("detail"))) }
+        }
+        assertTrue("Expected $index in $plan", plan.any { it.contains("INDEX $index") })
+        assertFalse("Unexpected sort in $plan", plan.any { it.contains("TEMP B-TREE") })
+    }
+
+    // The shape Room's paging source runs for each page.
+    private fun paged(sql: String) = "SELECT * FROM ( $sql ) LIMIT $PAGE_SIZE OFFSET 0"
+
+    private fun book(i: Int) = BookEntity(
+        id = "book-$i",
+        title = "Title $i",
+        author = "Author ${i % 500}",
+        description = null,
+        coverURLString = null,
+        pageCount = 300,
+        currentPage = i % 300,
+        progressFraction = null,
+        status = STATUSES[i % STATUSES.size],
+        genre = null,
+        rating = null,
+        isFavorite = i % 10 == 0,
+        lastProgressDeltaPercent = null,
+        lastSessionMinutes = null,
+        lastSessionNotes = null,
+        lastProgressUpdate = i * 60_000L,
+        finishedDate = if (i % 3 == 1) i * 60_000L else null,
+        addedDate = i * 60_000L,
+        openLibraryWorkKey = null,
+        isbn = null,
+        remoteId = null
+    )
+
+    private companion object {
+        const val TAG = "BookQueryPlanTest"
+        // Matches LibraryRepositoryImpl.PAGE_SIZE.
+        const val PAGE_SIZE = 40
+        val STATUSES = listOf("READING", "FINISHED", "WANT_TO_READ")
+    }
+}
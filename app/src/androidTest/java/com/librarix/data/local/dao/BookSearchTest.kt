@@ -0,0 +1,156 @@
+package com.librarix.data.local.dao
+
+import androidx.paging.PagingSource
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.repository.searchTerms
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * [BookDao.searchBooks] against a real FTS index: what matches, in what
+ * order, and how writes keep the index current.
+ */
+@RunWith(AndroidJUnit4::class)
+class BookSearchTest {
+
+    private lateinit var database: LibrarixDatabase
+    private lateinit var bookDao: BookDao
+    private lateinit var noteDao: NoteDao
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(
+            ApplicationProvider.getApplicationContext(),
+            LibrarixDatabase::class.java
+        ).build()
+        bookDao = database.bookDao()
+        noteDao = database.noteDao()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    // --- Matching and ranking ---
+
+    @Test
+    fun matchesTitleAuthorAndNoteText() = runBlocking {
+        bookDao.upsertBooks(listOf(book("b1", title = "Dune", author = "Frank Herbert"), book("b2", title = "Emma", author = "Jane Austen")))
+        noteDao.upsertNote(BookNoteEntity("n1", "b2", "Reminds me of the spice trade", null, 1, 1))
+
+        assertEquals(listOf("b1"), search("dune"))
+        assertEquals(listOf("b1"), search("herbert"))
+        assertEquals(listOf("b1"), search("fra her"))
+        assertEquals(listOf("b2"), search("austen"))
+        assertEquals(listOf("b2"), search("spice"))
+        assertEquals(emptyList<String>(), search("dune austen"))
+    }
+
+    @Test
+    fun titlePrefixRanksAheadOfAuthorThenBodyMatches() = runBlocking {
+        bookDao.upsertBooks(
+            listOf(
+                book("body", title = "Castings", description = "A history of the foundry", lastProgressUpdate = 5),
+                book("author", title = "Other", author = "Foundling Smith", lastProgressUpdate = 4),
+                book("title-old", title = "Foundation", lastProgressUpdate = 1),
+                book("title-new", title = "Foundation and Empire", lastProgressUpdate = 2)
+            )
+        )
+
+        // Within a rank, most recently read first.
+        assertEquals(listOf("title-new", "title-old", "author", "body"), search("found"))
+    }
+
+    @Test
+    fun ftsSyntaxInQueryIsSearchedAsText() = runBlocking {
+        bookDao.upsertBooks(listOf(book("b1", title = "Ender's Game"), book("b2", title = "Game Theory")))
+
+        assertEquals(listOf("b1"), search("\"ender*"))
+        assertEquals(listOf("b1", "b2"), search("-game").sorted())
+        assertEquals(listOf("b1"), search("ender's \"game\""))
+        assertEquals(emptyList<String>(), search("game NOT ender OR theory"))
+    }
+
+    // --- Index upkeep ---
+
+    @Test
+    fun reinsertedBookNoLongerMatchesOldTitle() = runBlocking {
+        bookDao.upsertBook(book("b1", title = "Dune"))
+        bookDao.upsertBook(book("b1", title = "Emma"))
+
+        assertEquals(emptyList<String>(), search("dune"))
+        assertEquals(listOf("b1"), search("emma"))
+    }
+
+    @Test
+    fun restoredBooksReplaceOldTokens() = runBlocking {
+        bookDao.upsertBooks(listOf(book("b1", title = "Dune"), book("b2", title = "Emma")))
+        database.backupDao().upsertBooks(listOf(book("b1", title = "Persuasion"), book("b2", title = "Emma")))
+
+        assertEquals(emptyList<String>(), search("dune"))
+        assertEquals(listOf("b1"), search("persuasion"))
+        assertEquals(listOf("b2"), search("emma"))
+    }
+
+    @Test
+    fun rewrittenNoteNoLongerMatchesOldText() = runBlocking {
+        bookDao.upsertBook(book("b1", title = "Dune"))
+        noteDao.upsertNote(BookNoteEntity("n1", "b1", "Spice must flow", null, 1, 1))
+        noteDao.upsertNote(BookNoteEntity("n1", "b1", "Fear is the mind-killer", null, 1, 2))
+
+        assertEquals(emptyList<String>(), search("spice"))
+        assertEquals(listOf("b1"), search("fear"))
+    }
+
+    // Builds the query the way LibraryRepositoryImpl.getBooks does.
+    private suspend fun search(query: String): List<String> {
+        val terms = searchTerms(query)
+        val result = bookDao.searchBooks(
+            match = terms.joinToString(" ") { "$it*" },
+            prefix = terms.joinToString(" "),
+            status = null,
+            favoritesOnly = false
+        ).load(PagingSource.LoadParams.Refresh(key = null, loadSize = 50, placeholdersEnabled = false))
+        return (result as PagingSource.LoadResult.Page).data.map { it.id }
+    }
+
+    private fun book(
+        id: String,
+        title: String,
+        author: String = "Author",
+        description: String? = null,
+        lastProgressUpdate: Long = 0L
+    ) = BookEntity(
+        id = id,
+        title = title,
+        author = author,
+        description = description,
+        coverURLString = null,
+        pageCount = null,
+        currentPage = null,
+        progressFraction = null,
+        status = "READING",
+        genre = null,
+        rating = null,
+        isFavorite = false,
+        lastProgressDeltaPercent = null,
+        lastSessionMinutes = null,
+        lastSessionNotes = null,
+        lastProgressUpdate = lastProgressUpdate,
+        finishedDate = null,
+        addedDate = 0L,
+        openLibraryWorkKey = null,
+        isbn = null,
+        remoteId = null
+    )
+}
@@ -0,0 +1,171 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.ReadingSessionEntity
+import com.librarix.data.local.epochDayOf
+import com.librarix.data.local.weekStartOf
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.util.Locale
+
+/**
+ * The streak and weekly-pages queries in [ReadingStatsDao], and day totals
+ * built by [ReadingStatsDao.logSession] and [ReadingStatsDao.rebuildDays]
+ * across DST transitions and timezone changes.
+ */
+@RunWith(AndroidJUnit4::class)
+class ReadingStatsDaoTest {
+
+    private lateinit var database: LibrarixDatabase
+    private lateinit var dao: ReadingStatsDao
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(
+            ApplicationProvider.getApplicationContext(),
+            LibrarixDatabase::class.java
+        ).build()
+        dao = database.readingStatsDao()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    // --- Streak ---
+
+    @Test
+    fun streakCountsConsecutiveDaysEndingToday() = runBlocking {
+        logDays(TODAY - 2, TODAY - 1, TODAY)
+        assertEquals(3, dao.getStreak(TODAY).first())
+    }
+
+    @Test
+    fun streakEndsYesterdayWhenNothingLoggedToday() = runBlocking {
+        logDays(TODAY - 3, TODAY - 2, TODAY - 1)
+        assertEquals(3, dao.getStreak(TODAY).first())
+    }
+
+    @Test
+    fun gapBreaksStreak() = runBlocking {
+        assertEquals(0, dao.getStreak(TODAY).first())
+
+        logDays(TODAY - 3, TODAY - 2)
+        assertEquals(0, dao.getStreak(TODAY).first())
+
+        logDays(TODAY)
+        assertEquals(1, dao.getStreak(TODAY).first())
+    }
+
+    @Test
+    fun streakStopsAtFirstGapInLongHistory() = runBlocking {
+        // A year of every other day, then a 30-day streak.
+        logDays(*LongArray(180) { TODAY - 400 + it * 2L })
+        logDays(*LongArray(30) { TODAY - it })
+
+        assertEquals(30, dao.getStreak(TODAY).first())
+        assertEquals(0, dao.getStreak(TODAY + 2).first())
+    }
+
+    @Test
+    fun streakSpansDstTransition() = runBlocking {
+        listOf("2024-03-09T22:00", "2024-03-10T03:30", "2024-03-11T07:00").forEach { log(millis(it, NEW_YORK), NEW_YORK) }
+        val today = epochDayOf(millis("2024-03-11T21:00", NEW_YORK), NEW_YORK)
+
+        assertEquals(3, dao.getStreak(today).first())
+    }
+
+    @Test
+    fun daysLoggedInAnotherZoneKeepTheirOriginalBucket() = runBlocking {
+        // Read on two mornings in Tokyo, then fly to New York. The logged days
+        // stay Tokyo's; "today" is taken in the current zone.
+        listOf("2024-06-05T08:00", "2024-06-06T08:00").forEach { log(millis(it, TOKYO), TOKYO) }
+        val todayInNewYork = epochDayOf(millis("2024-06-06T18:00", NEW_YORK), NEW_YORK)
+
+        assertEquals(2, dao.getStreak(todayInNewYork).first())
+        assertEquals(2, dao.getStreak(todayInNewYork + 1).first())
+        assertEquals(0, dao.getStreak(todayInNewYork + 2).first())
+    }
+
+    // --- Weekly pages ---
+
+    @Test
+    fun pagesBetweenSumsOnlyThatWeek() = runBlocking {
+        val weekStart = LocalDate.parse("2024-06-03").toEpochDay()
+        dao.logSession(session("s0", weekStart - 1, pages = 100), weekStart - 1)
+        dao.logSession(session("s1", weekStart, pages = 10), weekStart)
+        dao.logSession(session("s2", weekStart + 6, pages = 20), weekStart + 6)
+        dao.logSession(session("s3", weekStart + 7, pages = 300), weekStart + 7)
+
+        assertEquals(30, dao.getPagesBetween(weekStart, weekStart + 6).first())
+        assertEquals(0, dao.getPagesBetween(weekStart + 8, weekStart + 14).first())
+    }
+
+    @Test
+    fun pagesInDstWeek() = runBlocking {
+        listOf("2024-03-10T01:00", "2024-03-10T04:00", "2024-03-16T23:30").forEach { log(millis(it, NEW_YORK), NEW_YORK) }
+        val weekStart = weekStartOf(epochDayOf(millis("2024-03-10T12:00", NEW_YORK), NEW_YORK), Locale.US)
+
+        assertEquals(LocalDate.parse("2024-03-10").toEpochDay(), weekStart)
+        assertEquals(30, dao.getPagesBetween(weekStart, weekStart + 6).first())
+    }
+
+    // --- Rebuilds ---
+
+    @Test
+    fun rebuildMatchesLoggedDaysAcrossDst() = runBlocking {
+        listOf("2024-03-09T23:30", "2024-03-10T01:59", "2024-03-10T03:01", "2024-11-03T01:30", "2024-11-03T23:59")
+            .forEach { log(millis(it, NEW_YORK), NEW_YORK) }
+        log(millis("2024-11-03T01:30", NEW_YORK) + 3_600_000L, NEW_YORK)
+        val logged = dao.getDays().first().toSet()
+
+        dao.rebuildDays(NEW_YORK)
+
+        assertEquals(logged, dao.getDays().first().toSet())
+        assertEquals(3, logged.size)
+    }
+
+    @Test
+    fun rebuildMovesDaysToTheNewZone() = runBlocking {
+        log(millis("2024-06-06T08:00", TOKYO), TOKYO)
+        assertEquals(listOf(LocalDate.parse("2024-06-06").toEpochDay()), dao.getDays().first().map { it.epochDay })
+
+        dao.rebuildDays(NEW_YORK)
+
+        assertEquals(listOf(LocalDate.parse("2024-06-05").toEpochDay()), dao.getDays().first().map { it.epochDay })
+    }
+
+    private var sessionCount = 0
+
+    private suspend fun log(date: Long, zone: ZoneId) {
+        dao.logSession(ReadingSessionEntity("s${sessionCount++}", date, pagesDelta = 10, minutes = 5), epochDayOf(date, zone))
+    }
+
+    private suspend fun logDays(vararg epochDays: Long) {
+        epochDays.forEach { day -> dao.logSession(session("s${sessionCount++}", day, pages = 10), day) }
+    }
+
+    private fun session(id: String, epochDay: Long, pages: Int) =
+        ReadingSessionEntity(id, epochDay * 86_400_000L + 43_200_000L, pagesDelta = pages, minutes = 5)
+
+    private fun millis(localDateTime: String, zone: ZoneId): Long =
+        LocalDateTime.parse(localDateTime).atZone(zone).toInstant().toEpochMilli()
+
+    private companion object {
+        val NEW_YORK: ZoneId = ZoneId.of("America/New_York")
+        val TOKYO: ZoneId = ZoneId.of("Asia/Tokyo")
+        val TODAY = LocalDate.parse("2024-06-05").toEpochDay()
+    }
+}
@@ -0,0 +1,339 @@
+package com.librarix.data.sync
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.PendingChangeEntity
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import okhttp3.OkHttpClient
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Runs [SyncEngine] against an in-memory database and [FakeSyncBackend], an
+ * in-process server that applies the same last-writer-wins rule.
+ */
+@RunWith(AndroidJUnit4::class)
+class SyncEngineTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private lateinit var database: LibrarixDatabase
+    private lateinit var backend: FakeSyncBackend
+    private lateinit var engine: SyncEngine
+
+    @Before
+    fun setUp() {
+        clearSyncPrefs()
+        database = Room.inMemoryDatabaseBuilder(context, LibrarixDatabase::class.java).build()
+        backend = FakeSyncBackend()
+        engine = SyncEngine(
+            context = context,
+            database = database,
+            bookDao = database.bookDao(),
+            noteDao = database.noteDao(),
+            collectionDao = database.collectionDao(),
+            syncDao = database.syncDao(),
+            coverStore = CoverStore(context, database.bookDao(), OkHttpClient()),
+            backend = backend
+        )
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+        clearSyncPrefs()
+    }
+
+    // --- Push ---
+
+    @Test
+    fun pushSendsQueuedBooksAndEmptiesOutbox() = runBlocking {
+        saveLocally(book("b1", updatedAt = 1_000, version = 1))
+        saveLocally(book("b2", updatedAt = 1_000, version = 1))
+        database.bookDao().upsertBook(book("unqueued", updatedAt = 1_000, version = 1))
+
+        engine.sync()
+
+        assertEquals(setOf("b1", "b2"), backend.rows.keys)
+        assertEquals("Title b1", backend.rows.getValue("b1").book?.title)
+        assertEquals(0, database.syncDao().getPendingCount().first())
+    }
+
+    @Test
+    fun pushSendsDeletes() = runBlocking {
+        backend.seed(book("b1", updatedAt = 1_000, version = 1))
+        database.syncDao().enqueue(change("b1", PendingChangeEntity.OP_DELETE, changedAt = 2_000, version = 2))
+
+        engine.sync()
+
+        assertNull(backend.rows.getValue("b1").book)
+        assertNull(database.bookDao().getBookById("b1"))
+    }
+
+    @Test
+    fun pushSendsCurrentStateOfEditedBook() = runBlocking {
+        saveLocally(book("b1", updatedAt = 1_000, version = 1))
+        saveLocally(book("b1", updatedAt = 2_000, version = 2).copy(title = "Edited"))
+
+        engine.sync()
+
+        assertEquals(1, backend.pushedChanges)
+        assertEquals("Edited", backend.rows.getValue("b1").book?.title)
+    }
+
+    // --- Pull ---
+
+    @Test
+    fun pullAppliesRemoteBooksInPagesAndResumesFromCursor() = runBlocking {
+        repeat(250) { backend.seed(book("r$it", updatedAt = 1_000L + it, version = 1)) }
+
+        engine.sync()
+
+        assertEquals(250, database.bookDao().getAllBooks().first().size)
+        assertEquals(listOf(0L, 100L, 200L), backend.pullCursors)
+
+        backend.pullCursors.clear()
+        backend.seed(book("late", updatedAt = 5_000, version = 1))
+        engine.sync()
+
+        assertEquals(listOf(250L), backend.pullCursors)
+        assertEquals("Title late", database.bookDao().getBookById("late")?.title)
+    }
+
+    @Test
+    fun pulledUpdateReindexesSearch() = runBlocking {
+        database.bookDao().upsertBook(book("b1", updatedAt = 1_000, version = 1).copy(title = "Dune"))
+        backend.seed(book("b1", updatedAt = 2_000, version = 2).copy(title = "Emma"))
+
+        engine.sync()
+
+        assertEquals(emptyList<String>(), matchBooks("dune"))
+        assertEquals(listOf("b1"), matchBooks("emma"))
+    }
+
+    @Test
+    fun pulledDeleteRemovesNotesAndMemberships() = runBlocking {
+        database.bookDao().upsertBook(book("b1", updatedAt = 1_000, version = 1))
+        database.noteDao().upsertNote(BookNoteEntity("n1", "b1", "Spice", null, 1, 1))
+        database.collectionDao().insertCollection(CollectionEntity("c1", null, "Favourites", null, "private", null, 1))
+        database.collectionDao().insertMember(CollectionMemberEntity("c1", "b1", 1))
+        backend.seedDelete("b1", updatedAt = 2_000, version = 2)
+
+        engine.sync()
+
+        assertNull(database.bookDao().getBookById("b1"))
+        assertTrue(database.noteDao().getNotesForBookOnce("b1").isEmpty())
+        assertEquals(false, database.collectionDao().isMember("c1", "b1"))
+    }
+
+    // --- Conflicts ---
+
+    @Test
+    fun newerLocalEditWinsOverOlderRemote() = runBlocking {
+        backend.seed(book("b1", updatedAt = 1_000, version = 3).copy(title = "Remote"))
+        saveLocally(book("b1", updatedAt = 2_000, version = 1).copy(title = "Local"))
+
+        engine.sync()
+
+        assertEquals("Local", database.bookDao().getBookById("b1")?.title)
+        assertEquals("Local", backend.rows.getValue("b1").book?.title)
+    }
+
+    @Test
+    fun newerRemoteEditWinsOverOlderLocal() = runBlocking {
+        backend.seed(book("b1", updatedAt = 2_000, version = 1).copy(title = "Remote"))
+        saveLocally(book("b1", updatedAt = 1_000, version = 1).copy(title = "Local"))
+
+        engine.sync()
+
+        assertEquals("Remote", database.bookDao().getBookById("b1")?.title)
+        assertEquals("Remote", backend.rows.getValue("b1").book?.title)
+    }
+
+    @Test
+    fun editQueuedDuringPullIsDroppedWhenRemoteIsNewer() = runBlocking {
+        backend.seed(book("b1", updatedAt = 3_000, version = 1).copy(title = "Remote"))
+        saveLocally(book("b1", updatedAt = 1_000, version = 1).copy(title = "Local"))
+        backend.onPull = { saveLocally(book("b1", updatedAt = 2_000, version = 2).copy(title = "Edited mid-sync")) }
+
+        engine.sync()
+
+        assertEquals("Remote", database.bookDao().getBookById("b1")?.title)
+        assertNull(database.syncDao().getPendingFor(PendingChangeEntity.TYPE_BOOK, "b1"))
+    }
+
+    @Test
+    fun editQueuedDuringPullSurvivesOlderRemote() = runBlocking {
+        saveLocally(book("b1", updatedAt = 1_000, version = 1).copy(title = "Local"))
+        backend.onPull = { saveLocally(book("b1", updatedAt = 2_000, version = 2).copy(title = "Edited mid-sync")) }
+
+        engine.sync()
+
+        // The pull sees this device's own first push; the newer queued edit goes out next sync.
+        assertEquals("Edited mid-sync", database.bookDao().getBookById("b1")?.title)
+        assertEquals(1, database.syncDao().getPendingCount().first())
+    }
+
+    @Test
+    fun versionBreaksTimestampTies() = runBlocking {
+        database.bookDao().upsertBook(book("b1", updatedAt = 1_000, version = 1).copy(title = "Local"))
+        backend.seed(book("b1", updatedAt = 1_000, version = 2).copy(title = "Remote"))
+        backend.seed(book("b2", updatedAt = 1_000, version = 1).copy(title = "Remote"))
+        database.bookDao().upsertBook(book("b2", updatedAt = 1_000, version = 2).copy(title = "Local"))
+
+        engine.sync()
+
+        assertEquals("Remote", database.bookDao().getBookById("b1")?.title)
+        assertEquals("Local", database.bookDao().getBookById("b2")?.title)
+    }
+
+    @Test
+    fun localDeleteBeatsOlderRemoteEdit() = runBlocking {
+        database.syncDao().enqueue(change("b1", PendingChangeEntity.OP_DELETE, changedAt = 2_000, version = 2))
+        backend.seed(book("b1", updatedAt = 1_000, version = 1))
+
+        engine.sync()
+
+        assertNull(database.bookDao().getBookById("b1"))
+        assertNull(backend.rows.getValue("b1").book)
+    }
+
+    // --- Enrichment ---
+
+    @Test
+    fun remoteCopyWithGapsIsQueuedForEnrichmentAgain() = runBlocking {
+        val enriched = book("b1", updatedAt = 1_000, version = 1).copy(
+            coverURLString = "https://covers.openlibrary.org/b/id/1-L.jpg",
+            pageCount = 412,
+            description = "Desert planet",
+            enrichedAt = 500
+        )
+        database.bookDao().upsertBook(enriched)
+        backend.seed(enriched.copy(coverURLString = null, pageCount = null, description = null, enrichedAt = null, updatedAt = 2_000))
+
+        engine.sync()
+
+        val pulled = database.bookDao().getBookById("b1")!!
+        assertNull(pulled.coverURLString)
+        assertNull(pulled.enrichedAt)
+        assertEquals(listOf("b1"), database.bookDao().getBooksNeedingEnrichment(10).map { it.id })
+    }
+
+    @Test
+    fun completeRemoteCopyKeepsLocalEnrichmentStamp() = runBlocking {
+        val enriched = book("b1", updatedAt = 1_000, version = 1).copy(
+            coverURLString = "https://covers.openlibrary.org/b/id/1-L.jpg",
+            pageCount = 412,
+            description = "Desert planet",
+            enrichedAt = 500
+        )
+        database.bookDao().upsertBook(enriched)
+        backend.seed(enriched.copy(title = "Dune (annotated)", enrichedAt = null, updatedAt = 2_000))
+
+        engine.sync()
+
+        val pulled = database.bookDao().getBookById("b1")!!
+        assertEquals("Dune (annotated)", pulled.title)
+        assertEquals(500L, pulled.enrichedAt)
+    }
+
+    private suspend fun saveLocally(book: BookEntity) {
+        database.bookDao().upsertBook(book)
+        database.syncDao().enqueue(change(book.id, PendingChangeEntity.OP_UPSERT, book.updatedAt, book.version))
+    }
+
+    private fun change(id: String, op: String, changedAt: Long, version: Int) = PendingChangeEntity(
+        entityType = PendingChangeEntity.TYPE_BOOK,
+        entityId = id,
+        op = op,
+        changedAt = changedAt,
+        version = version
+    )
+
+    private fun matchBooks(query: String): List<String> =
+        database.openHelper.readableDatabase.query(
+            "SELECT `books`.`id` FROM `books` JOIN `books_fts` ON `books`.`rowid` = `books_fts`.`docid` " +
+                "WHERE `books_fts` MATCH ?",
+            arrayOf(query)
+        ).use { cursor ->
+            buildList { while (cursor.moveToNext()) add(cursor.getString(0)) }
+        }
+
+    // SyncEngine keeps its pull cursor in app prefs; each test starts from zero.
+    private fun clearSyncPrefs() {
+        context.getSharedPreferences("librarix_sync", Context.MODE_PRIVATE).edit().clear().commit()
+    }
+
+    private fun book(id: String, updatedAt: Long, version: Int) = BookEntity(
+        id = id,
+        title = "Title $id",
+        author = "Author",
+        description = null,
+        coverURLString = null,
+        pageCount = null,
+        currentPage = null,
+        progressFraction = null,
+        status = "READING",
+        genre = null,
+        rating = null,
+        isFavorite = false,
+        lastProgressDeltaPercent = null,
+        lastSessionMinutes = null,
+        lastSessionNotes = null,
+        lastProgressUpdate = updatedAt,
+        finishedDate = null,
+        addedDate = updatedAt,
+        openLibraryWorkKey = "/works/OL1W",
+        isbn = "9780441013593",
+        remoteId = null,
+        updatedAt = updatedAt,
+        version = version
+    )
+
+    /** In-memory server: keeps the newer write of each row and hands out increasing sequence numbers. */
+    private class FakeSyncBackend : SyncBackend {
+        val rows = LinkedHashMap<String, BookChange>()
+        val pullCursors = ArrayList<Long>()
+        var pushedChanges = 0
+        /** Runs once as the next pull starts, like a user edit landing mid-sync. */
+        var onPull: (suspend () -> Unit)? = null
+        private var seq = 0L
+
+        fun seed(book: BookEntity) = store(BookChange(book.id, book, book.updatedAt, book.version))
+
+        fun seedDelete(id: String, updatedAt: Long, version: Int) = store(BookChange(id, null, updatedAt, version))
+
+        override suspend fun pushBooks(changes: List<BookChange>) {
+            pushedChanges += changes.size
+            changes.forEach { store(it) }
+        }
+
+        override suspend fun pullBooks(afterSeq: Long, limit: Int): List<BookChange> {
+            pullCursors += afterSeq
+            onPull?.also { onPull = null }?.invoke()
+            return rows.values.filter { it.seq > afterSeq }.sortedBy { it.seq }.take(limit)
+        }
+
+        private fun store(change: BookChange) {
+            val current = rows[change.id]
+            if (current == null || change.isNewerThan(current.updatedAt, current.version)) {
+                // enrichedAt is per-device bookkeeping; the server keeps none.
+                val book = change.book?.copy(enrichedAt = null)
+                rows[change.id] = change.copy(book = book, seq = ++seq)
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.librarix.data.sync
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.work.ListenableWorker
+import androidx.work.WorkerFactory
+import androidx.work.WorkerParameters
+import androidx.work.testing.TestListenableWorkerBuilder
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.entity.PendingChangeEntity
+import com.librarix.data.remote.SupabaseAuthManager
+import com.librarix.data.remote.SupabaseDatabase
+import com.librarix.data.remote.User
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import okhttp3.OkHttpClient
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.IOException
+
+@RunWith(AndroidJUnit4::class)
+class SyncWorkerTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private val authManager = mockk<SupabaseAuthManager>()
+    private lateinit var database: LibrarixDatabase
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(context, LibrarixDatabase::class.java).build()
+        every { authManager.getCurrentUser() } returns User(id = "u1", email = "reader@example.com")
+        runBlocking {
+            database.syncDao().enqueue(
+                PendingChangeEntity(
+                    entityType = PendingChangeEntity.TYPE_BOOK,
+                    entityId = "b1",
+                    op = PendingChangeEntity.OP_DELETE,
+                    changedAt = 1_000,
+                    version = 1
+                )
+            )
+        }
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun unconfiguredBackendFailsWithoutCrashingAndKeepsOutbox() = runBlocking {
+        val result = buildWorker(SupabaseDatabase(authManager)).doWork()
+
+        assertEquals(ListenableWorker.Result.failure(), result)
+        assertEquals(1, database.syncDao().getPendingCount().first())
+    }
+
+    @Test
+    fun networkFailureIsRetried() = runBlocking {
+        val offline = object : SyncBackend {
+            override suspend fun pushBooks(changes: List<BookChange>) = throw IOException("offline")
+            override suspend fun pullBooks(afterSeq: Long, limit: Int) = throw IOException("offline")
+        }
+
+        assertEquals(ListenableWorker.Result.retry(), buildWorker(offline).doWork())
+        assertEquals(1, database.syncDao().getPendingCount().first())
+    }
+
+    @Test
+    fun signedOutRunSucceedsWithoutSyncing() = runBlocking {
+        every { authManager.getCurrentUser() } returns null
+
+        assertEquals(ListenableWorker.Result.success(), buildWorker(SupabaseDatabase(authManager)).doWork())
+        assertEquals(1, database.syncDao().getPendingCount().first())
+    }
+
+    private fun buildWorker(backend: SyncBackend): SyncWorker {
+        val engine = SyncEngine(
+            context = context,
+            database = database,
+            bookDao = database.bookDao(),
+            noteDao = database.noteDao(),
+            collectionDao = database.collectionDao(),
+            syncDao = database.syncDao(),
+            coverStore = CoverStore(context, database.bookDao(), OkHttpClient()),
+            backend = backend
+        )
+        return TestListenableWorkerBuilder<SyncWorker>(context)
+            .setWorkerFactory(object : WorkerFactory() {
+                override fun createWorker(
+                    appContext: Context,
+                    workerClassName: String,
+                    workerParameters: WorkerParameters
+                ) = SyncWorker(appContext, workerParameters, engine, authManager)
+            })
+            .build()
+    }
+}
@@ -0,0 +1,107 @@
+package com.librarix.data.work
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.work.Configuration
+import androidx.work.ListenableWorker
+import androidx.work.NetworkType
+import androidx.work.WorkManager
+import androidx.work.WorkerFactory
+import androidx.work.WorkerParameters
+import androidx.work.testing.SynchronousExecutor
+import androidx.work.testing.TestListenableWorkerBuilder
+import androidx.work.testing.WorkManagerTestInitHelper
+import com.librarix.data.local.DiscoverFeedStore
+import io.mockk.Runs
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.just
+import io.mockk.mockk
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+@RunWith(AndroidJUnit4::class)
+class DiscoverPrefetchWorkerTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private val discoverFeedStore = mockk<DiscoverFeedStore>()
+    private val enrichmentPipeline = mockk<BookEnrichmentPipeline>()
+
+    @Before
+    fun setUp() {
+        WorkManagerTestInitHelper.initializeTestWorkManager(
+            context,
+            Configuration.Builder().setExecutor(SynchronousExecutor()).build()
+        )
+        coEvery { discoverFeedStore.refresh(force = true) } returns Result.success(Unit)
+        coEvery { enrichmentPipeline.run() } just Runs
+    }
+
+    // --- Scheduling ---
+
+    @Test
+    fun scheduledOnlyWhileChargingOnUnmeteredNetwork() {
+        DiscoverPrefetchWorker.schedule(context)
+
+        val info = WorkManager.getInstance(context).getWorkInfosForUniqueWork(WORK_NAME).get().single()
+        assertEquals(NetworkType.UNMETERED, info.constraints.requiredNetworkType)
+        assertTrue(info.constraints.requiresCharging())
+        assertEquals(TimeUnit.HOURS.toMillis(12), info.periodicityInfo?.repeatIntervalMillis)
+    }
+
+    @Test
+    fun reschedulingKeepsExistingWork() {
+        DiscoverPrefetchWorker.schedule(context)
+        val first = WorkManager.getInstance(context).getWorkInfosForUniqueWork(WORK_NAME).get().single()
+
+        DiscoverPrefetchWorker.schedule(context)
+
+        val infos = WorkManager.getInstance(context).getWorkInfosForUniqueWork(WORK_NAME).get()
+        assertEquals(listOf(first.id), infos.map { it.id })
+    }
+
+    // --- doWork ---
+
+    @Test
+    fun succeedsWhenDiscoverAndEnrichmentSucceed() = runBlocking {
+        assertEquals(ListenableWorker.Result.success(), buildWorker().doWork())
+    }
+
+    @Test
+    fun retriesWhenDiscoverRefreshFails() = runBlocking {
+        coEvery { discoverFeedStore.refresh(force = true) } returns Result.failure(IOException("offline"))
+
+        assertEquals(ListenableWorker.Result.retry(), buildWorker().doWork())
+        // A failed Discover refresh doesn't stop the enrichment drain.
+        coVerify(exactly = 1) { enrichmentPipeline.run() }
+    }
+
+    @Test
+    fun retriesWhenEnrichmentFails() = runBlocking {
+        coEvery { enrichmentPipeline.run() } throws IOException("batch kept failing")
+
+        assertEquals(ListenableWorker.Result.retry(), buildWorker().doWork())
+    }
+
+    private fun buildWorker(): DiscoverPrefetchWorker =
+        TestListenableWorkerBuilder<DiscoverPrefetchWorker>(context)
+            .setWorkerFactory(object : WorkerFactory() {
+                override fun createWorker(
+                    appContext: Context,
+                    workerClassName: String,
+                    workerParameters: WorkerParameters
+                ) = DiscoverPrefetchWorker(appContext, workerParameters, discoverFeedStore, enrichmentPipeline)
+            })
+            .build()
+
+    private companion object {
+        const val WORK_NAME = "discover_prefetch"
+    }
+}
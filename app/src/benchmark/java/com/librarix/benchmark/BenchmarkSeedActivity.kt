@@ -0,0 +1,100 @@
+package com.librarix.benchmark
+
+import android.os.Bundle
+import androidx.activity.ComponentActivity
+import androidx.activity.compose.setContent
+import androidx.compose.material3.Text
+import androidx.compose.runtime.mutableStateOf
+import androidx.lifecycle.lifecycleScope
+import androidx.room.withTransaction
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.domain.model.BookStatus
+import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.launch
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * Fills the library with [EXTRA_COUNT] deterministic books so scrolling and
+ * detail journeys run against a realistic dataset. Re-running is a no-op for
+ * ids that already exist. Shows "Seeded N books" once done, which the
+ * harness waits for. Only built into the benchmark build types.
+ */
+@AndroidEntryPoint
+class BenchmarkSeedActivity : ComponentActivity() {
+
+    @Inject
+    lateinit var database: LibrarixDatabase
+
+    @Inject
+    lateinit var bookDao: BookDao
+
+    private val status = mutableStateOf("Seeding…")
+
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        setContent { Text(status.value) }
+
+        val count = intent.getIntExtra(EXTRA_COUNT, DEFAULT_COUNT)
+        lifecycleScope.launch {
+            seed(count)
+            status.value = "Seeded $count books"
+        }
+    }
+
+    private suspend fun seed(count: Int) {
+        val now = System.currentTimeMillis()
+        (0 until count).chunked(CHUNK_SIZE).forEach { chunk ->
+            database.withTransaction {
+                bookDao.insertBooksIfAbsent(chunk.map { book(it, now) })
+            }
+        }
+    }
+
+    // Covers stay null so runs don't depend on the network; every row is pre-enriched.
+    private fun book(index: Int, now: Long): BookEntity {
+        val status = STATUSES[index % STATUSES.size]
+        val pageCount = 150 + index % 450
+        val updatedAt = now - TimeUnit.HOURS.toMillis(index.toLong())
+        return BookEntity(
+            id = "benchmark-$index",
+            title = "Benchmark Book ${index + 1}",
+            author = AUTHORS[index % AUTHORS.size],
+            description = null,
+            coverURLString = null,
+            pageCount = pageCount,
+            currentPage = if (status == BookStatus.READING) pageCount / 2 else null,
+            progressFraction = if (status == BookStatus.READING) 0.5 else null,
+            status = status.name,
+            genre = null,
+            rating = if (status == BookStatus.FINISHED) (index % 5 + 1).toDouble() else null,
+            isFavorite = index % 11 == 0,
+            lastProgressDeltaPercent = null,
+            lastSessionMinutes = null,
+            lastSessionNotes = null,
+            lastProgressUpdate = updatedAt,
+            finishedDate = if (status == BookStatus.FINISHED) updatedAt else null,
+            addedDate = updatedAt,
+            openLibraryWorkKey = null,
+            isbn = null,
+            remoteId = null,
+            enrichedAt = now,
+            updatedAt = updatedAt,
+            version = 1
+        )
+    }
+
+    companion object {
+        const val EXTRA_COUNT = "count"
+        private const val DEFAULT_COUNT = 5_000
+        private const val CHUNK_SIZE = 500
+
+        private val STATUSES = listOf(BookStatus.WANT_TO_READ, BookStatus.READING, BookStatus.FINISHED)
+        private val AUTHORS = listOf(
+            "Ursula K. Le Guin", "Octavia E. Butler", "Terry Pratchett", "Kazuo Ishiguro",
+            "N. K. Jemisin", "Italo Calvino", "Toni Morrison", "Haruki Murakami"
+        )
+    }
+}
@@ -1,11 +1,44 @@
 package com.librarix
 
 import android.app.Application
+import androidx.hilt.work.HiltWorkerFactory
+import androidx.work.Configuration
+import coil.ImageLoader
+import coil.ImageLoaderFactory
+import com.librarix.data.local.UserCollectionsStore
+import com.librarix.data.sync.SyncWorker
+import com.librarix.data.work.BookEnrichmentWorker
+import com.librarix.data.work.CoverDownloadWorker
+import com.librarix.data.work.DiscoverPrefetchWorker
+import dagger.Lazy
 import dagger.hilt.android.HiltAndroidApp
+import javax.inject.Inject
 
 @HiltAndroidApp
-class LibrarixApp : Application() {
+class LibrarixApp : Application(), Configuration.Provider, ImageLoaderFactory {
+    @Inject
+    lateinit var workerFactory: HiltWorkerFactory
+
+    @Inject
+    lateinit var imageLoader: Lazy<ImageLoader>
+
+    @Inject
+    lateinit var userCollectionsStore: Lazy<UserCollectionsStore>
+
+    override val workManagerConfiguration: Configuration
+        get() = Configuration.Builder()
+            .setWorkerFactory(workerFactory)
+            .build()
+
+    // Every AsyncImage goes through Coil's singleton; hand it the Hilt-configured loader.
+    override fun newImageLoader(): ImageLoader = imageLoader.get()
+
     override fun onCreate() {
         super.onCreate()
+        userCollectionsStore.get().importLegacyCollections()
+        BookEnrichmentWorker.enqueue(this)
+        CoverDownloadWorker.enqueue(this)
+        SyncWorker.schedulePeriodic(this)
+        DiscoverPrefetchWorker.schedule(this)
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,16 @@ package com.librarix.data.di
 
 import android.content.Context
 import androidx.room.Room
+import com.librarix.data.local.ALL_MIGRATIONS
 import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.dao.BackupDao
 import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.dao.CachedResponseDao
+import com.librarix.data.local.dao.CollectionDao
+import com.librarix.data.local.dao.DiscoverFeedDao
+import com.librarix.data.local.dao.NoteDao
+import com.librarix.data.local.dao.ReadingStatsDao
+import com.librarix.data.local.dao.SyncDao
 import dagger.Module
 import dagger.Provides
 import dagger.hilt.InstallIn
@@ -24,7 +32,10 @@ object DatabaseModule {
             context,
             LibrarixDatabase::class.java,
             "librarix_database"
-        ).fallbackToDestructiveMigration().build()
+        )
+            .addMigrations(*ALL_MIGRATIONS)
+            .fallbackToDestructiveMigrationFrom(1)
+            .build()
     }
 
     @Provides
@@ -32,4 +43,46 @@ object DatabaseModule {
     fun provideBookDao(database: LibrarixDatabase): BookDao {
         return database.bookDao()
     }
-}
\ No newline at end of file
+
+    @Provides
+    @Singleton
+    fun provideNoteDao(database: LibrarixDatabase): NoteDao {
+        return database.noteDao()
+    }
+
+    @Provides
+    @Singleton
+    fun provideReadingStatsDao(database: LibrarixDatabase): ReadingStatsDao {
+        return database.readingStatsDao()
+    }
+
+    @Provides
+    @Singleton
+    fun provideCollectionDao(database: LibrarixDatabase): CollectionDao {
+        return database.collectionDao()
+    }
+
+    @Provides
+    @Singleton
+    fun provideCachedResponseDao(database: LibrarixDatabase): CachedResponseDao {
+        return database.cachedResponseDao()
+    }
+
+    @Provides
+    @Singleton
+    fun provideBackupDao(database: LibrarixDatabase): BackupDao {
+        return database.backupDao()
+    }
+
+    @Provides
+    @Singleton
+    fun provideSyncDao(database: LibrarixDatabase): SyncDao {
+        return database.syncDao()
+    }
+
+    @Provides
+    @Singleton
+    fun provideDiscoverFeedDao(database: LibrarixDatabase): DiscoverFeedDao {
+        return database.discoverFeedDao()
+    }
+}
@@ -0,0 +1,61 @@
+package com.librarix.data.di
+
+import android.content.Context
+import coil.ImageLoader
+import coil.disk.DiskCache
+import coil.memory.MemoryCache
+import com.librarix.data.image.BookCoverInterceptor
+import com.librarix.data.image.CoverSizeInterceptor
+import com.librarix.data.local.CoverStore
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.android.qualifiers.ApplicationContext
+import dagger.hilt.components.SingletonComponent
+import okhttp3.OkHttpClient
+import javax.inject.Singleton
+
+@Module
+@InstallIn(SingletonComponent::class)
+object ImageModule {
+
+    private const val IMAGE_CACHE_DIR = "image_cache"
+    private const val IMAGE_DISK_CACHE_BYTES = 100L * 1024 * 1024
+    private const val IMAGE_MEMORY_CACHE_PERCENT = 0.20
+
+    @Provides
+    @Singleton
+    fun provideImageLoader(
+        @ApplicationContext context: Context,
+        okHttpClient: OkHttpClient,
+        coverStore: CoverStore
+    ): ImageLoader {
+        // Share the API client's connection pool and dispatcher, but keep images
+        // out of its HTTP cache; Coil's disk cache below holds them instead.
+        val imageClient = okHttpClient.newBuilder()
+            .cache(null)
+            .build()
+
+        return ImageLoader.Builder(context)
+            .okHttpClient(imageClient)
+            .memoryCache {
+                MemoryCache.Builder(context)
+                    .maxSizePercent(IMAGE_MEMORY_CACHE_PERCENT)
+                    .build()
+            }
+            .diskCache {
+                DiskCache.Builder()
+                    .directory(context.cacheDir.resolve(IMAGE_CACHE_DIR))
+                    .maxSizeBytes(IMAGE_DISK_CACHE_BYTES)
+                    .build()
+            }
+            // Cover URLs are keyed by cover id / ISBN and never change content.
+            .respectCacheHeaders(false)
+            // Saved books resolve to their stored cover first; only remote URLs are resized.
+            .components {
+                add(BookCoverInterceptor(coverStore))
+                add(CoverSizeInterceptor())
+            }
+            .build()
+    }
+}
@@ -1,16 +1,26 @@
 package com.librarix.data.di
 
+import android.content.Context
+import com.librarix.BuildConfig
 import com.librarix.data.remote.BookBrainApi
+import com.librarix.data.remote.HostTimeoutInterceptor
+import com.librarix.data.remote.HostTimeouts
+import com.librarix.data.remote.OfflineCacheInterceptor
 import com.librarix.data.remote.OpenLibraryApi
+import com.librarix.data.remote.TextValueAdapter
 import com.squareup.moshi.Moshi
 import dagger.Module
 import dagger.Provides
 import dagger.hilt.InstallIn
+import dagger.hilt.android.qualifiers.ApplicationContext
 import dagger.hilt.components.SingletonComponent
+import okhttp3.Cache
+import okhttp3.ConnectionPool
 import okhttp3.OkHttpClient
 import okhttp3.logging.HttpLoggingInterceptor
 import retrofit2.Retrofit
 import retrofit2.converter.moshi.MoshiConverterFactory
+import java.io.File
 import java.util.concurrent.TimeUnit
 import javax.inject.Named
 import javax.inject.Singleton
@@ -22,25 +32,51 @@ object NetworkModule {
     private const val OPEN_LIBRARY_BASE_URL = "https://openlibrary.org/"
     private const val BOOKBRAIN_BASE_URL = "https://bookbrain-api.ryantrumble1997.workers.dev/"
 
+    private const val HTTP_CACHE_DIR = "http_cache"
+    private const val HTTP_CACHE_BYTES = 20L * 1024 * 1024
+
+    // Both backends are a handful of hosts; keep a few warm connections around
+    // so Discover and detail screens reuse them (HTTP/2 multiplexes on top).
+    private const val MAX_IDLE_CONNECTIONS = 8
+    private const val KEEP_ALIVE_MINUTES = 5L
+
+    private val HOST_TIMEOUTS = mapOf(
+        "openlibrary.org" to HostTimeouts(connectMillis = 10_000, readMillis = 20_000),
+        "bookbrain-api.ryantrumble1997.workers.dev" to HostTimeouts(connectMillis = 5_000, readMillis = 10_000)
+    )
+
     @Provides
     @Singleton
-    fun provideOkHttpClient(): OkHttpClient {
-        val loggingInterceptor = HttpLoggingInterceptor().apply {
-            level = HttpLoggingInterceptor.Level.BODY
-        }
-
-        return OkHttpClient.Builder()
-            .addInterceptor(loggingInterceptor)
-            .connectTimeout(30, TimeUnit.SECONDS)
+    fun provideOkHttpClient(
+        @ApplicationContext context: Context
+    ): OkHttpClient {
+        val builder = OkHttpClient.Builder()
+            .cache(Cache(File(context.cacheDir, HTTP_CACHE_DIR), HTTP_CACHE_BYTES))
+            .connectionPool(ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .addInterceptor(OfflineCacheInterceptor(context))
+            .addInterceptor(HostTimeoutInterceptor(HOST_TIMEOUTS))
+            .connectTimeout(15, TimeUnit.SECONDS)
             .readTimeout(30, TimeUnit.SECONDS)
             .writeTimeout(30, TimeUnit.SECONDS)
-            .build()
+
+        // BODY logging buffers whole responses; keep it out of release builds.
+        if (BuildConfig.DEBUG) {
+            builder.addInterceptor(
+                HttpLoggingInterceptor().apply {
+                    level = HttpLoggingInterceptor.Level.BODY
+                }
+            )
+        }
+
+        return builder.build()
     }
 
     @Provides
     @Singleton
     fun provideMoshi(): Moshi {
-        return Moshi.Builder().build()
+        return Moshi.Builder()
+            .add(TextValueAdapter)
+            .build()
     }
 
     @Provides
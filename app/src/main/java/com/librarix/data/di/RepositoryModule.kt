@@ -1,6 +1,8 @@
 package com.librarix.data.di
 
+import com.librarix.data.remote.SupabaseDatabase
 import com.librarix.data.repository.LibraryRepositoryImpl
+import com.librarix.data.sync.SyncBackend
 import com.librarix.presentation.viewmodel.LibraryRepository
 import dagger.Binds
 import dagger.Module
@@ -17,4 +19,10 @@ abstract class RepositoryModule {
     abstract fun bindLibraryRepository(
         libraryRepositoryImpl: LibraryRepositoryImpl
     ): LibraryRepository
-}
\ No newline at end of file
+
+    @Binds
+    @Singleton
+    abstract fun bindSyncBackend(
+        supabaseDatabase: SupabaseDatabase
+    ): SyncBackend
+}
@@ -0,0 +1,10 @@
+package com.librarix.data.image
+
+/**
+ * Image model for a saved book's cover. [BookCoverInterceptor] serves it from
+ * the offline cover store when a local copy exists and falls back to [url].
+ */
+data class BookCover(
+    val bookId: String,
+    val url: String?
+)
@@ -0,0 +1,28 @@
+package com.librarix.data.image
+
+import coil.intercept.Interceptor
+import coil.request.ImageResult
+import coil.size.Dimension
+import com.librarix.data.local.CoverStore
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+
+/** Resolves [BookCover] models to a stored file, or to the remote URL when there is none. */
+class BookCoverInterceptor(
+    private val coverStore: CoverStore
+) : Interceptor {
+
+    override suspend fun intercept(chain: Interceptor.Chain): ImageResult {
+        val request = chain.request
+        val cover = request.data as? BookCover ?: return chain.proceed(request)
+        val width = (chain.size.width as? Dimension.Pixels)?.px
+        val local = cover.url?.let { url ->
+            withContext(Dispatchers.IO) { coverStore.find(cover.bookId, url, width) }
+        }
+        val resolved = request.newBuilder()
+            .data(local ?: cover.url)
+            .apply { if (local != null) allowRgb565(true) }
+            .build()
+        return chain.proceed(resolved)
+    }
+}
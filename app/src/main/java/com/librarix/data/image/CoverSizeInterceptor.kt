@@ -0,0 +1,51 @@
+package com.librarix.data.image
+
+import coil.intercept.Interceptor
+import coil.request.ImageResult
+import coil.size.Dimension
+
+/**
+ * Rewrites Open Library cover URLs to the smallest `-S/-M/-L` variant that
+ * covers the target width, so grid thumbnails don't download full-size
+ * JPEGs. Small and medium variants are also decoded as RGB_565; covers are
+ * opaque, so nothing is lost but half the bitmap memory.
+ */
+class CoverSizeInterceptor : Interceptor {
+
+    override suspend fun intercept(chain: Interceptor.Chain): ImageResult {
+        val request = chain.request
+        val url = request.data as? String ?: return chain.proceed(request)
+        val width = (chain.size.width as? Dimension.Pixels)?.px ?: return chain.proceed(request)
+        if (!COVER_URL.matches(url)) return chain.proceed(request)
+
+        val sized = request.newBuilder()
+            .data(sizedUrl(url, width))
+            .allowRgb565(variantFor(width) != VARIANT_LARGE)
+            .build()
+        return chain.proceed(sized)
+    }
+
+    companion object {
+        private val COVER_URL = Regex("""(https?://covers\.openlibrary\.org/[ab]/\w+/[^/?]+)-[SML]\.jpg(\?.*)?""")
+
+        private const val VARIANT_LARGE = "L"
+
+        // Open Library serves roughly 45px (S) and 180px (M) wide covers; allow
+        // a little upscaling before stepping up to the next variant.
+        private const val MAX_SMALL_WIDTH_PX = 60
+        private const val MAX_MEDIUM_WIDTH_PX = 240
+
+        /** [url] switched to the variant for [widthPx]; other URLs are returned as is. */
+        fun sizedUrl(url: String, widthPx: Int): String {
+            val match = COVER_URL.matchEntire(url) ?: return url
+            val (base, query) = match.destructured
+            return "$base-${variantFor(widthPx)}.jpg$query"
+        }
+
+        fun variantFor(widthPx: Int): String = when {
+            widthPx <= MAX_SMALL_WIDTH_PX -> "S"
+            widthPx <= MAX_MEDIUM_WIDTH_PX -> "M"
+            else -> VARIANT_LARGE
+        }
+    }
+}
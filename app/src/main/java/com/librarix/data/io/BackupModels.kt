@@ -0,0 +1,168 @@
+package com.librarix.data.io
+
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
+
+// The backup file format, kept apart from the Room entities so a schema change
+// can't silently change what is written. Field names are pinned with @Json;
+// adding or changing one means bumping LibraryBackup.VERSION.
+
+// --- Books ---
+
+@JsonClass(generateAdapter = true)
+data class BackupBook(
+    @Json(name = "id") val id: String,
+    @Json(name = "title") val title: String,
+    @Json(name = "author") val author: String,
+    @Json(name = "description") val description: String?,
+    @Json(name = "coverURLString") val coverURLString: String?,
+    @Json(name = "pageCount") val pageCount: Int?,
+    @Json(name = "currentPage") val currentPage: Int?,
+    @Json(name = "progressFraction") val progressFraction: Double?,
+    @Json(name = "status") val status: String,
+    @Json(name = "genre") val genre: String?,
+    @Json(name = "rating") val rating: Double?,
+    @Json(name = "isFavorite") val isFavorite: Boolean,
+    @Json(name = "lastProgressDeltaPercent") val lastProgressDeltaPercent: Int?,
+    @Json(name = "lastSessionMinutes") val lastSessionMinutes: Int?,
+    @Json(name = "lastSessionNotes") val lastSessionNotes: String?,
+    @Json(name = "lastProgressUpdate") val lastProgressUpdate: Long?,
+    @Json(name = "finishedDate") val finishedDate: Long?,
+    @Json(name = "addedDate") val addedDate: Long?,
+    @Json(name = "openLibraryWorkKey") val openLibraryWorkKey: String?,
+    @Json(name = "isbn") val isbn: String?,
+    @Json(name = "remoteId") val remoteId: String?,
+    @Json(name = "enrichedAt") val enrichedAt: Long?,
+    @Json(name = "updatedAt") val updatedAt: Long,
+    @Json(name = "version") val version: Int
+)
+
+internal fun BookEntity.toBackup() = BackupBook(
+    id = id,
+    title = title,
+    author = author,
+    description = description,
+    coverURLString = coverURLString,
+    pageCount = pageCount,
+    currentPage = currentPage,
+    progressFraction = progressFraction,
+    status = status,
+    genre = genre,
+    rating = rating,
+    isFavorite = isFavorite,
+    lastProgressDeltaPercent = lastProgressDeltaPercent,
+    lastSessionMinutes = lastSessionMinutes,
+    lastSessionNotes = lastSessionNotes,
+    lastProgressUpdate = lastProgressUpdate,
+    finishedDate = finishedDate,
+    addedDate = addedDate,
+    openLibraryWorkKey = openLibraryWorkKey,
+    isbn = isbn,
+    remoteId = remoteId,
+    enrichedAt = enrichedAt,
+    updatedAt = updatedAt,
+    version = version
+)
+
+internal fun BackupBook.toEntity() = BookEntity(
+    id = id,
+    title = title,
+    author = author,
+    description = description,
+    coverURLString = coverURLString,
+    pageCount = pageCount,
+    currentPage = currentPage,
+    progressFraction = progressFraction,
+    status = status,
+    genre = genre,
+    rating = rating,
+    isFavorite = isFavorite,
+    lastProgressDeltaPercent = lastProgressDeltaPercent,
+    lastSessionMinutes = lastSessionMinutes,
+    lastSessionNotes = lastSessionNotes,
+    lastProgressUpdate = lastProgressUpdate,
+    finishedDate = finishedDate,
+    addedDate = addedDate,
+    openLibraryWorkKey = openLibraryWorkKey,
+    isbn = isbn,
+    remoteId = remoteId,
+    enrichedAt = enrichedAt,
+    updatedAt = updatedAt,
+    version = version
+)
+
+// --- Notes ---
+
+@JsonClass(generateAdapter = true)
+data class BackupNote(
+    @Json(name = "id") val id: String,
+    @Json(name = "bookId") val bookId: String,
+    @Json(name = "text") val text: String,
+    @Json(name = "pageNumber") val pageNumber: Int?,
+    @Json(name = "createdAt") val createdAt: Long,
+    @Json(name = "updatedAt") val updatedAt: Long
+)
+
+internal fun BookNoteEntity.toBackup() = BackupNote(id, bookId, text, pageNumber, createdAt, updatedAt)
+
+internal fun BackupNote.toEntity() = BookNoteEntity(id, bookId, text, pageNumber, createdAt, updatedAt)
+
+// --- Reading sessions and goals ---
+
+@JsonClass(generateAdapter = true)
+data class BackupSession(
+    @Json(name = "id") val id: String,
+    @Json(name = "date") val date: Long,
+    @Json(name = "pagesDelta") val pagesDelta: Int,
+    @Json(name = "minutes") val minutes: Int
+)
+
+internal fun ReadingSessionEntity.toBackup() = BackupSession(id, date, pagesDelta, minutes)
+
+internal fun BackupSession.toEntity() = ReadingSessionEntity(id, date, pagesDelta, minutes)
+
+@JsonClass(generateAdapter = true)
+data class BackupGoal(
+    @Json(name = "year") val year: Int,
+    @Json(name = "goal") val goal: Int
+)
+
+internal fun ReadingGoalEntity.toBackup() = BackupGoal(year, goal)
+
+internal fun BackupGoal.toEntity() = ReadingGoalEntity(year, goal)
+
+// --- Collections ---
+
+@JsonClass(generateAdapter = true)
+data class BackupCollection(
+    @Json(name = "id") val id: String,
+    @Json(name = "userId") val userId: String?,
+    @Json(name = "title") val title: String,
+    @Json(name = "description") val description: String?,
+    @Json(name = "visibility") val visibility: String,
+    @Json(name = "coverURLString") val coverURLString: String?,
+    @Json(name = "createdAt") val createdAt: Long
+)
+
+internal fun CollectionEntity.toBackup() =
+    BackupCollection(id, userId, title, description, visibility, coverURLString, createdAt)
+
+internal fun BackupCollection.toEntity() =
+    CollectionEntity(id, userId, title, description, visibility, coverURLString, createdAt)
+
+@JsonClass(generateAdapter = true)
+data class BackupCollectionMember(
+    @Json(name = "collectionId") val collectionId: String,
+    @Json(name = "bookId") val bookId: String,
+    @Json(name = "addedAt") val addedAt: Long
+)
+
+internal fun CollectionMemberEntity.toBackup() = BackupCollectionMember(collectionId, bookId, addedAt)
+
+internal fun BackupCollectionMember.toEntity() = CollectionMemberEntity(collectionId, bookId, addedAt)
@@ -0,0 +1,93 @@
+package com.librarix.data.io
+
+import java.io.Reader
+
+/**
+ * Minimal RFC 4180 reader that yields one record at a time, so only the
+ * current row is held in memory. Quoted fields may contain commas, doubled
+ * quotes and line breaks. A leading byte order mark is skipped. Fields longer
+ * than [maxFieldChars] are truncated (Goodreads reviews can be arbitrarily
+ * long and are not imported anyway).
+ */
+internal class CsvReader(
+    private val reader: Reader,
+    private val maxFieldChars: Int = 8_192
+) {
+    private val field = StringBuilder()
+    private var pending = NONE
+    private var atStart = true
+
+    /** Returns the next record, or null at end of input. */
+    fun readRecord(): List<String>? {
+        val record = ArrayList<String>()
+        field.setLength(0)
+        var inQuotes = false
+        var sawAny = false
+
+        while (true) {
+            val c = next()
+            if (c == NONE) {
+                if (!sawAny) return null
+                record += field.toString()
+                return record
+            }
+            sawAny = true
+            val ch = c.toChar()
+            if (inQuotes) {
+                if (ch == '"') {
+                    val following = next()
+                    if (following == '"'.code) {
+                        append('"')
+                    } else {
+                        inQuotes = false
+                        pending = following
+                    }
+                } else {
+                    append(ch)
+                }
+                continue
+            }
+            when (ch) {
+                '"' -> inQuotes = true
+                ',' -> {
+                    record += field.toString()
+                    field.setLength(0)
+                }
+                '\r' -> {
+                    val following = next()
+                    if (following != '\n'.code) pending = following
+                    record += field.toString()
+                    return record
+                }
+                '\n' -> {
+                    record += field.toString()
+                    return record
+                }
+                else -> append(ch)
+            }
+        }
+    }
+
+    private fun next(): Int {
+        if (pending != NONE) {
+            return pending.also { pending = NONE }
+        }
+        val c = reader.read()
+        if (atStart) {
+            atStart = false
+            // Exports saved by Excel start with a UTF-8 BOM, which would otherwise
+            // end up in the first header name.
+            if (c == BOM) return reader.read()
+        }
+        return c
+    }
+
+    private fun append(ch: Char) {
+        if (field.length < maxFieldChars) field.append(ch)
+    }
+
+    private companion object {
+        const val NONE = -1
+        const val BOM = 0xFEFF
+    }
+}
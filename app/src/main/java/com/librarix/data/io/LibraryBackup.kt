@@ -0,0 +1,249 @@
+package com.librarix.data.io
+
+import android.content.Context
+import android.net.Uri
+import androidx.room.withTransaction
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.dao.BackupDao
+import com.librarix.data.local.dao.ReadingStatsDao
+import com.librarix.data.local.dao.SyncDao
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
+import com.librarix.data.sync.SyncEngine
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonReader
+import com.squareup.moshi.JsonWriter
+import com.squareup.moshi.Moshi
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import okio.buffer
+import okio.sink
+import okio.source
+import java.io.IOException
+import java.time.ZoneId
+import javax.inject.Inject
+import javax.inject.Singleton
+
+data class BackupSummary(
+    val books: Int,
+    val notes: Int,
+    val sessions: Int,
+    val collections: Int
+)
+
+/**
+ * Whole-library backup as a single JSON document:
+ *
+ * ```
+ * { "format": "librarix-backup", "version": 1, "exportedAt": ...,
+ *   "books": [...], "notes": [...], "readingSessions": [...],
+ *   "readingGoals": [...], "collections": [...], "collectionMembers": [...] }
+ * ```
+ *
+ * Both directions stream: export reads Room a page at a time into a
+ * [JsonWriter], and restore feeds [JsonReader] elements straight into batched
+ * inserts. Restore replaces the current library inside one transaction, so a
+ * bad file leaves it untouched. Reading-day totals are rebuilt, not stored.
+ * Rows are written as the DTOs in BackupModels.kt, not as Room entities.
+ *
+ * For sync, a restore is an edit like any other: restored books are queued
+ * as upserts, and books it removed are queued as deletes so the next pull
+ * doesn't bring them back.
+ */
+@Singleton
+class LibraryBackup @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val database: LibrarixDatabase,
+    private val backupDao: BackupDao,
+    private val readingStatsDao: ReadingStatsDao,
+    private val syncDao: SyncDao,
+    private val syncEngine: SyncEngine,
+    private val coverStore: CoverStore,
+    moshi: Moshi
+) {
+    private val bookAdapter = moshi.adapter(BackupBook::class.java)
+    private val noteAdapter = moshi.adapter(BackupNote::class.java)
+    private val sessionAdapter = moshi.adapter(BackupSession::class.java)
+    private val goalAdapter = moshi.adapter(BackupGoal::class.java)
+    private val collectionAdapter = moshi.adapter(BackupCollection::class.java)
+    private val memberAdapter = moshi.adapter(BackupCollectionMember::class.java)
+
+    suspend fun export(uri: Uri): BackupSummary = withContext(Dispatchers.IO) {
+        val output = context.contentResolver.openOutputStream(uri, "wt")
+            ?: throw IOException("Couldn't open $uri")
+        JsonWriter.of(output.sink().buffer()).use { writer ->
+            writer.beginObject()
+            writer.name(KEY_FORMAT).value(FORMAT)
+            writer.name(KEY_VERSION).value(VERSION)
+            writer.name(KEY_EXPORTED_AT).value(System.currentTimeMillis())
+
+            val books = writer.writePages(KEY_BOOKS, bookAdapter, BookEntity::toBackup) { last ->
+                backupDao.booksAfter(last?.id ?: "", PAGE_SIZE)
+            }
+            val notes = writer.writePages(KEY_NOTES, noteAdapter, BookNoteEntity::toBackup) { last ->
+                backupDao.notesAfter(last?.id ?: "", PAGE_SIZE)
+            }
+            val sessions = writer.writePages(KEY_SESSIONS, sessionAdapter, ReadingSessionEntity::toBackup) { last ->
+                backupDao.sessionsAfter(last?.id ?: "", PAGE_SIZE)
+            }
+            writer.writePages(KEY_GOALS, goalAdapter, ReadingGoalEntity::toBackup) { last ->
+                if (last == null) backupDao.goals() else emptyList()
+            }
+            val collections = writer.writePages(KEY_COLLECTIONS, collectionAdapter, CollectionEntity::toBackup) { last ->
+                if (last == null) backupDao.collections() else emptyList()
+            }
+            writer.writePages(KEY_MEMBERS, memberAdapter, CollectionMemberEntity::toBackup) { last ->
+                backupDao.membersAfter(last?.collectionId ?: "", last?.bookId ?: "", PAGE_SIZE)
+            }
+
+            writer.endObject()
+            BackupSummary(books, notes, sessions, collections)
+        }
+    }
+
+    suspend fun restore(uri: Uri): BackupSummary = withContext(Dispatchers.IO) {
+        val input = context.contentResolver.openInputStream(uri)
+            ?: throw IOException("Couldn't open $uri")
+        val summary = JsonReader.of(input.source().buffer()).use { reader ->
+            database.withTransaction { restore(reader) }
+        }
+        syncEngine.requestSync()
+        coverStore.requestSync()
+        summary
+    }
+
+    private suspend fun restore(reader: JsonReader): BackupSummary {
+        var format: String? = null
+        var version: Int? = null
+        var cleared = false
+        var books = 0
+        var notes = 0
+        var sessions = 0
+        var collections = 0
+
+        // The header precedes the data arrays, so the file is validated before anything is deleted.
+        suspend fun <D, E> readArray(
+            adapter: JsonAdapter<D>,
+            toEntity: (D) -> E,
+            insert: suspend (List<E>) -> Unit
+        ): Int {
+            if (format != FORMAT) throw IOException("Not a Librarix backup")
+            val fileVersion = version ?: throw IOException("Backup has no version")
+            if (fileVersion > VERSION) throw IOException("Backup was made by a newer version of Librarix")
+            if (!cleared) {
+                // Books the file also holds are re-queued as upserts below.
+                syncDao.enqueueDeleteAllBooks(System.currentTimeMillis())
+                clearLibrary()
+                cleared = true
+            }
+            return reader.readPages(adapter, toEntity, insert)
+        }
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.selectName(KEYS)) {
+                0 -> format = reader.nextString()
+                1 -> version = reader.nextInt()
+                2 -> reader.skipValue()
+                3 -> books = readArray(bookAdapter, BackupBook::toEntity) { backupDao.upsertBooks(it) }
+                4 -> notes = readArray(noteAdapter, BackupNote::toEntity) { backupDao.upsertNotes(it) }
+                5 -> sessions = readArray(sessionAdapter, BackupSession::toEntity) { backupDao.insertSessions(it) }
+                6 -> readArray(goalAdapter, BackupGoal::toEntity) { backupDao.insertGoals(it) }
+                7 -> collections = readArray(collectionAdapter, BackupCollection::toEntity) { backupDao.insertCollections(it) }
+                8 -> readArray(memberAdapter, BackupCollectionMember::toEntity) { backupDao.insertMembers(it) }
+                else -> {
+                    reader.skipName()
+                    reader.skipValue()
+                }
+            }
+        }
+        reader.endObject()
+
+        if (!cleared) throw IOException("Backup contains no library data")
+        readingStatsDao.rebuildDays(ZoneId.systemDefault())
+        // Offer every restored book to sync; last-writer-wins keeps newer server copies.
+        syncDao.enqueueAllBooks()
+        return BackupSummary(books, notes, sessions, collections)
+    }
+
+    private suspend fun clearLibrary() {
+        backupDao.clearMembers()
+        backupDao.clearCollections()
+        backupDao.clearNotes()
+        backupDao.clearBooks()
+        backupDao.clearDays()
+        backupDao.clearSessions()
+        backupDao.clearGoals()
+    }
+
+    private suspend fun <E, D> JsonWriter.writePages(
+        name: String,
+        adapter: JsonAdapter<D>,
+        toBackup: (E) -> D,
+        nextPage: suspend (last: E?) -> List<E>
+    ): Int {
+        name(name).beginArray()
+        var count = 0
+        var last: E? = null
+        while (true) {
+            val page = nextPage(last)
+            page.forEach { adapter.toJson(this, toBackup(it)) }
+            count += page.size
+            if (page.isEmpty()) break
+            last = page.last()
+        }
+        endArray()
+        return count
+    }
+
+    private suspend fun <D, E> JsonReader.readPages(
+        adapter: JsonAdapter<D>,
+        toEntity: (D) -> E,
+        insert: suspend (List<E>) -> Unit
+    ): Int {
+        val batch = ArrayList<E>(PAGE_SIZE)
+        var count = 0
+        beginArray()
+        while (hasNext()) {
+            batch += toEntity(adapter.fromJson(this) ?: continue)
+            if (batch.size == PAGE_SIZE) {
+                insert(batch)
+                count += batch.size
+                batch.clear()
+            }
+        }
+        endArray()
+        if (batch.isNotEmpty()) {
+            insert(batch)
+            count += batch.size
+        }
+        return count
+    }
+
+    private companion object {
+        const val FORMAT = "librarix-backup"
+        const val VERSION = 1
+        const val PAGE_SIZE = 500
+
+        const val KEY_FORMAT = "format"
+        const val KEY_VERSION = "version"
+        const val KEY_EXPORTED_AT = "exportedAt"
+        const val KEY_BOOKS = "books"
+        const val KEY_NOTES = "notes"
+        const val KEY_SESSIONS = "readingSessions"
+        const val KEY_GOALS = "readingGoals"
+        const val KEY_COLLECTIONS = "collections"
+        const val KEY_MEMBERS = "collectionMembers"
+
+        val KEYS: JsonReader.Options = JsonReader.Options.of(
+            KEY_FORMAT, KEY_VERSION, KEY_EXPORTED_AT, KEY_BOOKS, KEY_NOTES,
+            KEY_SESSIONS, KEY_GOALS, KEY_COLLECTIONS, KEY_MEMBERS
+        )
+    }
+}
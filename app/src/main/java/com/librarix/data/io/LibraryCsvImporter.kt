@@ -0,0 +1,193 @@
+package com.librarix.data.io
+
+import android.content.Context
+import android.net.Uri
+import androidx.room.withTransaction
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.dao.SyncDao
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.PendingChangeEntity
+import com.librarix.data.repository.toEntity
+import com.librarix.data.sync.SyncEngine
+import com.librarix.data.work.BookEnrichmentWorker
+import com.librarix.domain.model.BookStatus
+import com.librarix.domain.model.SavedBook
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import java.io.IOException
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+import java.util.UUID
+import javax.inject.Inject
+import javax.inject.Singleton
+
+data class CsvImportProgress(
+    val rowsRead: Int,
+    val imported: Int,
+    val skipped: Int,
+    val isComplete: Boolean = false
+)
+
+/**
+ * Imports a Goodreads or StoryGraph CSV export. Rows are streamed and written
+ * in chunks of [CHUNK_SIZE], one transaction each, so memory stays flat
+ * regardless of file size. Books already in the library (same ISBN, or the
+ * same import id from an earlier run) are skipped. Covers and other metadata
+ * are left to [BookEnrichmentWorker]; it and one sync run are queued once the
+ * import ends.
+ */
+@Singleton
+class LibraryCsvImporter @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val database: LibrarixDatabase,
+    private val bookDao: BookDao,
+    private val syncDao: SyncDao,
+    private val syncEngine: SyncEngine
+) {
+    fun import(uri: Uri): Flow<CsvImportProgress> = flow {
+        val input = context.contentResolver.openInputStream(uri)
+            ?: throw IOException("Couldn't open $uri")
+
+        input.bufferedReader().use { reader ->
+            val csv = CsvReader(reader)
+            val header = csv.readRecord() ?: throw IllegalArgumentException("The file is empty")
+            val columns = CsvColumns(header)
+
+            var rowsRead = 0
+            var imported = 0
+            var skipped = 0
+            val chunk = ArrayList<BookEntity>(CHUNK_SIZE)
+
+            suspend fun flush() {
+                if (chunk.isEmpty()) return
+                val inserted = insertChunk(chunk)
+                imported += inserted
+                skipped += chunk.size - inserted
+                chunk.clear()
+                emit(CsvImportProgress(rowsRead, imported, skipped))
+            }
+
+            while (true) {
+                val record = csv.readRecord() ?: break
+                rowsRead++
+                val book = columns.toBook(record)
+                if (book == null) {
+                    skipped++
+                    continue
+                }
+                chunk += book.toEntity().copy(updatedAt = System.currentTimeMillis(), version = 1)
+                if (chunk.size == CHUNK_SIZE) flush()
+            }
+            flush()
+
+            if (imported > 0) {
+                syncEngine.requestSync()
+                BookEnrichmentWorker.enqueue(context, afterCurrent = true)
+            }
+            emit(CsvImportProgress(rowsRead, imported, skipped, isComplete = true))
+        }
+    }.flowOn(Dispatchers.IO)
+
+    private suspend fun insertChunk(books: List<BookEntity>): Int = database.withTransaction {
+        val isbns = books.mapNotNull { it.isbn }
+        val existing = if (isbns.isEmpty()) emptySet() else bookDao.getExistingIsbns(isbns).toSet()
+        val fresh = books.filter { it.isbn == null || it.isbn !in existing }
+        if (fresh.isEmpty()) return@withTransaction 0
+        val inserted = fresh.zip(bookDao.insertBooksIfAbsent(fresh))
+            .filter { (_, rowId) -> rowId != -1L }
+            .map { (book, _) -> book }
+        syncDao.enqueueAll(
+            inserted.map {
+                PendingChangeEntity(
+                    entityType = PendingChangeEntity.TYPE_BOOK,
+                    entityId = it.id,
+                    op = PendingChangeEntity.OP_UPSERT,
+                    changedAt = it.updatedAt,
+                    version = it.version
+                )
+            }
+        )
+        inserted.size
+    }
+
+    /** Resolves the columns of either export format from its header row. */
+    private class CsvColumns(header: List<String>) {
+        private val index = header.withIndex().associate { (i, name) -> name.trim().lowercase() to i }
+
+        private val title = column("title")
+        private val author = column("author", "authors")
+        private val isbn13 = column("isbn13")
+        private val isbn = column("isbn", "isbn/uid")
+        private val rating = column("my rating", "star rating")
+        private val pages = column("number of pages")
+        private val dateRead = column("date read", "last date read")
+        private val dateAdded = column("date added")
+        private val shelf = column("exclusive shelf", "read status")
+        private val bookshelves = column("bookshelves")
+
+        init {
+            require(title != null && author != null) { "Not a Goodreads or StoryGraph export" }
+        }
+
+        private fun column(vararg names: String): Int? = names.firstNotNullOfOrNull { index[it] }
+
+        private fun List<String>.at(column: Int?): String? =
+            column?.let { getOrNull(it) }?.trim()?.takeIf { it.isNotEmpty() }
+
+        fun toBook(record: List<String>): SavedBook? {
+            val title = record.at(title) ?: return null
+            val author = record.at(author) ?: return null
+            val isbn = normalizeIsbn(record.at(isbn13)) ?: normalizeIsbn(record.at(isbn))
+            val pageCount = record.at(pages)?.toIntOrNull()?.takeIf { it > 0 }
+            val status = when (record.at(shelf)?.lowercase()) {
+                "read" -> BookStatus.FINISHED
+                "currently-reading" -> BookStatus.READING
+                else -> BookStatus.WANT_TO_READ
+            }
+            val finishedDate = if (status == BookStatus.FINISHED) parseDate(record.at(dateRead)) else null
+            val addedDate = parseDate(record.at(dateAdded)) ?: System.currentTimeMillis()
+            val identity = (isbn ?: "$title|$author").lowercase()
+
+            return SavedBook(
+                id = UUID.nameUUIDFromBytes("csv:$identity".toByteArray()).toString(),
+                title = title,
+                author = author,
+                pageCount = pageCount,
+                currentPage = if (status == BookStatus.FINISHED) pageCount else null,
+                progressFraction = if (status == BookStatus.FINISHED) 1.0 else null,
+                status = status,
+                rating = record.at(rating)?.toDoubleOrNull()?.takeIf { it > 0 },
+                isFavorite = record.at(bookshelves)?.split(',')?.any { it.trim() == "favorites" } == true,
+                lastProgressUpdate = finishedDate ?: addedDate,
+                finishedDate = finishedDate,
+                addedDate = addedDate,
+                isbn = isbn
+            )
+        }
+
+        // Goodreads wraps ISBNs as ="0123456789"; StoryGraph may put a non-ISBN id here.
+        private fun normalizeIsbn(raw: String?): String? {
+            val digits = raw?.filter { it.isDigit() || it == 'X' || it == 'x' }?.uppercase() ?: return null
+            return digits.takeIf { it.length == 10 || it.length == 13 }
+        }
+
+        private fun parseDate(raw: String?): Long? {
+            val text = raw?.take(10)?.replace('-', '/') ?: return null
+            return try {
+                LocalDate.parse(text, DATE_FORMAT).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            } catch (_: Exception) {
+                null
+            }
+        }
+    }
+
+    private companion object {
+        const val CHUNK_SIZE = 200
+        val DATE_FORMAT: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd")
+    }
+}
@@ -0,0 +1,201 @@
+package com.librarix.data.local
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import com.librarix.data.image.CoverSizeInterceptor
+import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.entity.BookCoverSource
+import com.librarix.data.work.CoverDownloadWorker
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withContext
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okio.ByteString.Companion.encodeUtf8
+import java.io.File
+import java.io.IOException
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Offline copies of saved books' covers in `filesDir/covers`: one thumbnail
+ * per book, plus a detail-size image while the store is within
+ * [MAX_STORE_BYTES]. Files are named after the book id and a hash of the
+ * cover URL, so a changed cover is fetched again and the stale file dropped.
+ * [sync] reconciles the directory with the library; it runs from
+ * [CoverDownloadWorker].
+ */
+@Singleton
+class CoverStore @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val bookDao: BookDao,
+    okHttpClient: OkHttpClient
+) {
+    private val dir = File(context.filesDir, COVERS_DIR)
+
+    // The images are stored here, so there is no point also keeping them in the HTTP cache.
+    private val client = okHttpClient.newBuilder()
+        .cache(null)
+        .build()
+
+    /** Schedules a background pass to download new covers and drop stale ones. */
+    fun requestSync() {
+        CoverDownloadWorker.enqueue(context, afterCurrent = true)
+    }
+
+    /**
+     * The stored image best suited to [widthPx], or null if neither size is
+     * stored. Large targets only take the detail image; an upscaled thumbnail
+     * would look worse than the remote cover. Does disk I/O.
+     */
+    fun find(bookId: String, url: String, widthPx: Int?): File? {
+        val key = urlKey(url)
+        val thumbnail = file(bookId, key, ImageSize.THUMBNAIL)
+        val detail = file(bookId, key, ImageSize.DETAIL)
+        val candidates = if (widthPx != null && widthPx <= THUMBNAIL_MAX_TARGET_PX) {
+            listOf(thumbnail, detail)
+        } else {
+            listOf(detail)
+        }
+        return candidates.firstOrNull { it.exists() }
+    }
+
+    fun delete(bookId: String) {
+        dir.listFiles { file -> file.name.startsWith("${bookId}_") }?.forEach { it.delete() }
+    }
+
+    /**
+     * Downloads missing thumbnails for every book, then detail images in
+     * recency order until the byte budget is reached, and deletes files that
+     * no longer belong to a saved cover. Throws once the pass completes if
+     * any download failed, so the worker can retry.
+     */
+    suspend fun sync() = withContext(Dispatchers.IO) {
+        if (!dir.exists() && !dir.mkdirs()) throw IOException("Couldn't create $dir")
+        val sources = bookDao.getCoverSources()
+
+        val wanted = sources.flatMap { source ->
+            val key = urlKey(source.coverURLString)
+            listOf(fileName(source.bookId, key, ImageSize.THUMBNAIL), fileName(source.bookId, key, ImageSize.DETAIL))
+        }.toSet()
+        dir.listFiles()?.forEach { if (it.name !in wanted) it.delete() }
+
+        val failures = downloadAll(sources, ImageSize.THUMBNAIL).count { it == null }
+
+        val details = sources.map { file(it.bookId, urlKey(it.coverURLString), ImageSize.DETAIL) }
+        var usedBytes = dir.listFiles()?.sumOf { it.length() } ?: 0L
+        // Over budget: shed detail images from the least recently touched books first.
+        for (detail in details.asReversed()) {
+            if (usedBytes <= MAX_STORE_BYTES) break
+            if (detail.exists()) {
+                usedBytes -= detail.length()
+                detail.delete()
+            }
+        }
+
+        var detailFailures = 0
+        for ((source, detail) in sources.zip(details)) {
+            if (usedBytes >= MAX_STORE_BYTES) break
+            if (detail.exists()) continue
+            val bytes = download(source, ImageSize.DETAIL)
+            if (bytes == null) detailFailures++ else usedBytes += bytes
+        }
+
+        if (failures + detailFailures > 0) {
+            throw IOException("${failures + detailFailures} covers couldn't be downloaded")
+        }
+    }
+
+    private suspend fun downloadAll(sources: List<BookCoverSource>, size: ImageSize): List<Long?> = coroutineScope {
+        val permits = Semaphore(MAX_CONCURRENT_DOWNLOADS)
+        sources.map { source ->
+            async { permits.withPermit { download(source, size) } }
+        }.awaitAll()
+    }
+
+    /** Returns the stored file's size, or null if the download failed. */
+    private fun download(source: BookCoverSource, size: ImageSize): Long? {
+        val target = file(source.bookId, urlKey(source.coverURLString), size)
+        if (target.exists()) return target.length()
+        return try {
+            store(source.coverURLString, size, target)
+        } catch (e: CancellationException) {
+            throw e
+        } catch (_: Exception) {
+            null
+        }
+    }
+
+    private fun store(url: String, size: ImageSize, target: File): Long {
+        val request = Request.Builder()
+            .url(CoverSizeInterceptor.sizedUrl(url, size.widthPx))
+            .build()
+        val bytes = client.newCall(request).execute().use { response ->
+            if (!response.isSuccessful) throw IOException("HTTP ${response.code} for $url")
+            response.body?.bytes() ?: throw IOException("Empty body for $url")
+        }
+        val bitmap = decodeScaled(bytes, size.widthPx) ?: throw IOException("Couldn't decode $url")
+
+        // Write to a temp file and rename, so a killed pass never leaves a truncated image behind.
+        val temp = File(dir, "${target.name}.tmp")
+        try {
+            temp.outputStream().use { bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, it) }
+        } finally {
+            bitmap.recycle()
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete()
+            throw IOException("Couldn't write $target")
+        }
+        return target.length()
+    }
+
+    private fun decodeScaled(bytes: ByteArray, widthPx: Int): Bitmap? {
+        val bounds = BitmapFactory.Options().apply { inJustDecodeBounds = true }
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.size, bounds)
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null
+
+        var sampleSize = 1
+        while (bounds.outWidth / (sampleSize * 2) >= widthPx) sampleSize *= 2
+        val options = BitmapFactory.Options().apply {
+            inSampleSize = sampleSize
+            inPreferredConfig = Bitmap.Config.RGB_565
+        }
+        val decoded = BitmapFactory.decodeByteArray(bytes, 0, bytes.size, options) ?: return null
+        if (decoded.width <= widthPx) return decoded
+
+        val height = decoded.height * widthPx / decoded.width
+        val scaled = Bitmap.createScaledBitmap(decoded, widthPx, height, true)
+        if (scaled !== decoded) decoded.recycle()
+        return scaled
+    }
+
+    private fun file(bookId: String, key: String, size: ImageSize) = File(dir, fileName(bookId, key, size))
+
+    private fun fileName(bookId: String, key: String, size: ImageSize) = "${bookId}_${key}_${size.suffix}.jpg"
+
+    private fun urlKey(url: String): String = url.encodeUtf8().sha1().hex().take(URL_KEY_LENGTH)
+
+    private enum class ImageSize(val suffix: String, val widthPx: Int) {
+        THUMBNAIL("thumb", 360),
+        DETAIL("detail", 800)
+    }
+
+    private companion object {
+        const val COVERS_DIR = "covers"
+        const val MAX_STORE_BYTES = 150L * 1024 * 1024
+        const val MAX_CONCURRENT_DOWNLOADS = 4
+        const val JPEG_QUALITY = 85
+        const val URL_KEY_LENGTH = 12
+
+        // Thumbnails are used up to 1.5x their width before a detail image is preferred.
+        val THUMBNAIL_MAX_TARGET_PX = ImageSize.THUMBNAIL.widthPx * 3 / 2
+    }
+}
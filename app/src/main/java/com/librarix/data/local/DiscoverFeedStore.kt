@@ -0,0 +1,154 @@
+package com.librarix.data.local
+
+import com.librarix.data.local.dao.DiscoverFeedDao
+import com.librarix.data.local.entity.DiscoverFeedEntity
+import com.librarix.data.local.entity.DiscoverFeedSection
+import com.librarix.data.remote.BookAPIClient
+import com.librarix.data.remote.CollectionsResponse
+import com.librarix.data.remote.CuratedCollection
+import com.librarix.data.remote.OpenLibraryClient
+import com.librarix.data.remote.OpenLibrarySubjectResponse
+import com.librarix.data.remote.OpenLibrarySubjectWork
+import com.librarix.data.remote.PickOfTheWeekResponse
+import com.librarix.data.remote.TopSellerDoc
+import com.librarix.data.remote.TopSellersResponse
+import com.librarix.data.remote.TrendingBookData
+import com.librarix.data.remote.TrendingResponse
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.Moshi
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+data class DiscoverFeed(
+    val pickOfTheWeek: TrendingBookData? = null,
+    val trending: List<TrendingBookData> = emptyList(),
+    val topSellers: List<TopSellerDoc> = emptyList(),
+    val collections: List<CuratedCollection> = emptyList(),
+    val subjectWorks: List<OpenLibrarySubjectWork> = emptyList()
+)
+
+/**
+ * Discover sections persisted in `discover_feed`. [feed] emits whatever is on
+ * disk straight away; [refresh] fetches sections older than
+ * [MIN_REFRESH_INTERVAL_MILLIS] and only rewrites one when its content changed
+ * (BookBrain's `lastUpdated`, or the payload itself where there is none).
+ */
+@Singleton
+class DiscoverFeedStore @Inject constructor(
+    private val dao: DiscoverFeedDao,
+    private val bookAPIClient: BookAPIClient,
+    private val openLibraryClient: OpenLibraryClient,
+    moshi: Moshi
+) {
+    private val pickAdapter = moshi.adapter(PickOfTheWeekResponse::class.java)
+    private val trendingAdapter = moshi.adapter(TrendingResponse::class.java)
+    private val topSellersAdapter = moshi.adapter(TopSellersResponse::class.java)
+    private val collectionsAdapter = moshi.adapter(CollectionsResponse::class.java)
+    private val subjectAdapter = moshi.adapter(OpenLibrarySubjectResponse::class.java)
+
+    val feed: Flow<DiscoverFeed> = dao.getSections()
+        .distinctUntilChanged()
+        .map { sections -> decode(sections) }
+        .flowOn(Dispatchers.Default)
+
+    /** Refreshes every section; fails if any section could not be fetched. */
+    suspend fun refresh(force: Boolean = false): Result<Unit> = coroutineScope {
+        val results = listOf(
+            async {
+                refreshSection(SECTION_PICK, pickAdapter, force, { it.lastUpdated }) {
+                    bookAPIClient.getPickOfTheWeek().getOrThrow()
+                }
+            },
+            async {
+                refreshSection(SECTION_TRENDING, trendingAdapter, force, { it.lastUpdated }) {
+                    bookAPIClient.getTrending().getOrThrow()
+                }
+            },
+            async {
+                refreshSection(SECTION_TOP_SELLERS, topSellersAdapter, force, { it.lastUpdated }) {
+                    bookAPIClient.getTopSellers().getOrThrow()
+                }
+            },
+            async {
+                refreshSection(SECTION_COLLECTIONS, collectionsAdapter, force, { it.lastUpdated }) {
+                    bookAPIClient.getCollections().getOrThrow()
+                }
+            },
+            async {
+                refreshSection(SECTION_SUBJECT, subjectAdapter, force, { null }) {
+                    openLibraryClient.fetchSubjectWorks(DISCOVER_SUBJECT, DISCOVER_SUBJECT_LIMIT).getOrThrow()
+                }
+            }
+        ).awaitAll()
+        results.firstOrNull { it.isFailure } ?: Result.success(Unit)
+    }
+
+    private suspend fun <T : Any> refreshSection(
+        section: String,
+        adapter: JsonAdapter<T>,
+        force: Boolean,
+        version: (T) -> String?,
+        fetch: suspend () -> T
+    ): Result<Unit> {
+        val now = System.currentTimeMillis()
+        val cached = dao.getSection(section)
+        if (!force && cached != null && now - cached.fetchedAt < MIN_REFRESH_INTERVAL_MILLIS) {
+            return Result.success(Unit)
+        }
+        val response = try {
+            fetch()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            return Result.failure(e)
+        }
+
+        val payload = adapter.toJson(response)
+        val lastUpdated = version(response)
+        val unchanged = cached != null &&
+            if (lastUpdated != null) lastUpdated == cached.lastUpdated else payload == cached.payload
+        if (unchanged) {
+            dao.markFetched(section, now)
+        } else {
+            dao.upsert(DiscoverFeedEntity(section, payload, lastUpdated, now))
+        }
+        return Result.success(Unit)
+    }
+
+    private fun decode(sections: List<DiscoverFeedSection>): DiscoverFeed {
+        val bySection = sections.associate { it.section to it.payload }
+        fun <T> read(section: String, adapter: JsonAdapter<T>): T? =
+            bySection[section]?.let { runCatching { adapter.fromJson(it) }.getOrNull() }
+
+        return DiscoverFeed(
+            pickOfTheWeek = read(SECTION_PICK, pickAdapter)?.book,
+            trending = read(SECTION_TRENDING, trendingAdapter)?.books.orEmpty(),
+            topSellers = read(SECTION_TOP_SELLERS, topSellersAdapter)?.docs.orEmpty(),
+            collections = read(SECTION_COLLECTIONS, collectionsAdapter)?.collections.orEmpty(),
+            subjectWorks = read(SECTION_SUBJECT, subjectAdapter)?.works.orEmpty()
+        )
+    }
+
+    companion object {
+        const val DISCOVER_SUBJECT = "fiction"
+        const val DISCOVER_SUBJECT_LIMIT = 18
+
+        private const val SECTION_PICK = "pick_of_the_week"
+        private const val SECTION_TRENDING = "trending"
+        private const val SECTION_TOP_SELLERS = "top_sellers"
+        private const val SECTION_COLLECTIONS = "collections"
+        private const val SECTION_SUBJECT = "subject:$DISCOVER_SUBJECT"
+
+        private val MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(6)
+    }
+}
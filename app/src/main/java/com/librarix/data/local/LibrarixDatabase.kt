@@ -2,14 +2,52 @@ package com.librarix.data.local
 
 import androidx.room.Database
 import androidx.room.RoomDatabase
+import com.librarix.data.local.dao.BackupDao
 import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.dao.CachedResponseDao
+import com.librarix.data.local.dao.CollectionDao
+import com.librarix.data.local.dao.DiscoverFeedDao
+import com.librarix.data.local.dao.NoteDao
+import com.librarix.data.local.dao.ReadingStatsDao
+import com.librarix.data.local.dao.SyncDao
 import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookFtsEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.BookNoteFtsEntity
+import com.librarix.data.local.entity.CachedResponseEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.DiscoverFeedEntity
+import com.librarix.data.local.entity.PendingChangeEntity
+import com.librarix.data.local.entity.ReadingDayEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
 
 @Database(
-    entities = [BookEntity::class],
-    version = 2,
-    exportSchema = false
+    entities = [
+        BookEntity::class,
+        BookFtsEntity::class,
+        BookNoteEntity::class,
+        BookNoteFtsEntity::class,
+        ReadingSessionEntity::class,
+        ReadingGoalEntity::class,
+        ReadingDayEntity::class,
+        CollectionEntity::class,
+        CollectionMemberEntity::class,
+        CachedResponseEntity::class,
+        PendingChangeEntity::class,
+        DiscoverFeedEntity::class
+    ],
+    version = 14,
+    exportSchema = true
 )
 abstract class LibrarixDatabase : RoomDatabase() {
     abstract fun bookDao(): BookDao
+    abstract fun noteDao(): NoteDao
+    abstract fun readingStatsDao(): ReadingStatsDao
+    abstract fun collectionDao(): CollectionDao
+    abstract fun cachedResponseDao(): CachedResponseDao
+    abstract fun backupDao(): BackupDao
+    abstract fun syncDao(): SyncDao
+    abstract fun discoverFeedDao(): DiscoverFeedDao
 }
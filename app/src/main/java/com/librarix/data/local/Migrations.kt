@@ -0,0 +1,285 @@
+package com.librarix.data.local
+
+import android.content.ContentValues
+import android.database.sqlite.SQLiteDatabase
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+import org.json.JSONArray
+import java.time.ZoneId
+
+// v3: full-text shadow table over books, kept in sync by Room's content triggers.
+val MIGRATION_2_3 = object : Migration(2, 3) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE VIRTUAL TABLE IF NOT EXISTS `books_fts` USING FTS4(" +
+                "`title` TEXT NOT NULL, `author` TEXT NOT NULL, `isbn` TEXT, `description` TEXT, `notesJson` TEXT, " +
+                "tokenize=unicode61, content=`books`)"
+        )
+        createFtsContentTriggers(db, "books_fts", "books", listOf("title", "author", "isbn", "description", "notesJson"))
+        db.execSQL("INSERT INTO `books_fts`(`books_fts`) VALUES ('rebuild')")
+    }
+}
+
+// v4: indexes backing the Library status and favourites filters.
+val MIGRATION_3_4 = object : Migration(3, 4) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_status` ON `books` (`status`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_isFavorite` ON `books` (`isFavorite`)")
+    }
+}
+
+// v5: notes move out of books.notesJson into book_notes, with their own FTS table.
+val MIGRATION_4_5 = object : Migration(4, 5) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `book_notes` (`id` TEXT NOT NULL, `bookId` TEXT NOT NULL, " +
+                "`text` TEXT NOT NULL, `pageNumber` INTEGER, `createdAt` INTEGER NOT NULL, " +
+                "`updatedAt` INTEGER NOT NULL, PRIMARY KEY(`id`))"
+        )
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_book_notes_bookId_createdAt` ON `book_notes` (`bookId`, `createdAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_book_notes_createdAt` ON `book_notes` (`createdAt`)")
+
+        db.query("SELECT `id`, `notesJson` FROM `books` WHERE `notesJson` IS NOT NULL").use { cursor ->
+            while (cursor.moveToNext()) {
+                copyJsonNotes(db, bookId = cursor.getString(0), json = cursor.getString(1))
+            }
+        }
+
+        // SQLite before 3.35 can't drop a column, so rebuild books without notesJson.
+        db.execSQL("DROP TABLE IF EXISTS `books_fts`")
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `books_new` (`id` TEXT NOT NULL, `title` TEXT NOT NULL, " +
+                "`author` TEXT NOT NULL, `description` TEXT, `coverURLString` TEXT, `pageCount` INTEGER, " +
+                "`currentPage` INTEGER, `progressFraction` REAL, `status` TEXT NOT NULL, `genre` TEXT, " +
+                "`rating` REAL, `isFavorite` INTEGER NOT NULL, `lastProgressDeltaPercent` INTEGER, " +
+                "`lastSessionMinutes` INTEGER, `lastSessionNotes` TEXT, `lastProgressUpdate` INTEGER, " +
+                "`finishedDate` INTEGER, `addedDate` INTEGER, `openLibraryWorkKey` TEXT, `isbn` TEXT, " +
+                "`remoteId` TEXT, PRIMARY KEY(`id`))"
+        )
+        val bookColumns = "`id`, `title`, `author`, `description`, `coverURLString`, `pageCount`, " +
+            "`currentPage`, `progressFraction`, `status`, `genre`, `rating`, `isFavorite`, " +
+            "`lastProgressDeltaPercent`, `lastSessionMinutes`, `lastSessionNotes`, `lastProgressUpdate`, " +
+            "`finishedDate`, `addedDate`, `openLibraryWorkKey`, `isbn`, `remoteId`"
+        db.execSQL("INSERT INTO `books_new` ($bookColumns) SELECT $bookColumns FROM `books`")
+        db.execSQL("DROP TABLE `books`")
+        db.execSQL("ALTER TABLE `books_new` RENAME TO `books`")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_status` ON `books` (`status`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_isFavorite` ON `books` (`isFavorite`)")
+
+        db.execSQL(
+            "CREATE VIRTUAL TABLE IF NOT EXISTS `books_fts` USING FTS4(" +
+                "`title` TEXT NOT NULL, `author` TEXT NOT NULL, `isbn` TEXT, `description` TEXT, " +
+                "tokenize=unicode61, content=`books`)"
+        )
+        createFtsContentTriggers(db, "books_fts", "books", listOf("title", "author", "isbn", "description"))
+        db.execSQL("INSERT INTO `books_fts`(`books_fts`) VALUES ('rebuild')")
+
+        db.execSQL(
+            "CREATE VIRTUAL TABLE IF NOT EXISTS `book_notes_fts` USING FTS4(" +
+                "`text` TEXT NOT NULL, tokenize=unicode61, content=`book_notes`)"
+        )
+        createFtsContentTriggers(db, "book_notes_fts", "book_notes", listOf("text"))
+        db.execSQL("INSERT INTO `book_notes_fts`(`book_notes_fts`) VALUES ('rebuild')")
+    }
+}
+
+// v6: composite indexes matching each BookDao filter + sort, replacing the single-column ones.
+val MIGRATION_5_6 = object : Migration(5, 6) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL("DROP INDEX IF EXISTS `index_books_status`")
+        db.execSQL("DROP INDEX IF EXISTS `index_books_isFavorite`")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_lastProgressUpdate` ON `books` (`lastProgressUpdate`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_status_lastProgressUpdate` ON `books` (`status`, `lastProgressUpdate`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_status_finishedDate` ON `books` (`status`, `finishedDate`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_isFavorite_lastProgressUpdate` ON `books` (`isFavorite`, `lastProgressUpdate`)")
+    }
+}
+
+// v7: index for the Home "recently added" shelf.
+val MIGRATION_6_7 = object : Migration(6, 7) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_books_addedDate` ON `books` (`addedDate`)")
+    }
+}
+
+// v8: reading sessions and yearly goals move from SharedPreferences into Room.
+val MIGRATION_7_8 = object : Migration(7, 8) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `reading_sessions` (`id` TEXT NOT NULL, `date` INTEGER NOT NULL, " +
+                "`pagesDelta` INTEGER NOT NULL, PRIMARY KEY(`id`))"
+        )
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_reading_sessions_date` ON `reading_sessions` (`date`)")
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `reading_goals` (`year` INTEGER NOT NULL, `goal` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`year`))"
+        )
+    }
+}
+
+// v9: per-day reading rollup, backfilled from existing sessions in the system zone.
+val MIGRATION_8_9 = object : Migration(8, 9) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL("ALTER TABLE `reading_sessions` ADD COLUMN `minutes` INTEGER NOT NULL DEFAULT 0")
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `reading_days` (`epochDay` INTEGER NOT NULL, `pages` INTEGER NOT NULL, " +
+                "`minutes` INTEGER NOT NULL, PRIMARY KEY(`epochDay`))"
+        )
+        // Bucketed in Kotlin like every later day total, not with SQLite's 'localtime'.
+        val zone = ZoneId.systemDefault()
+        val totals = HashMap<Long, ReadingDay>()
+        db.query("SELECT `date`, `pagesDelta`, `minutes` FROM `reading_sessions`").use { cursor ->
+            while (cursor.moveToNext()) {
+                totals.addSession(cursor.getLong(0), cursor.getInt(1), cursor.getInt(2), zone)
+            }
+        }
+        totals.values.forEach { day ->
+            val values = ContentValues().apply {
+                put("epochDay", day.epochDay)
+                put("pages", day.pages)
+                put("minutes", day.minutes)
+            }
+            db.insert("reading_days", SQLiteDatabase.CONFLICT_REPLACE, values)
+        }
+    }
+}
+
+// v10: user collections and their memberships move from SharedPreferences into Room.
+val MIGRATION_9_10 = object : Migration(9, 10) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `collections` (`id` TEXT NOT NULL, `userId` TEXT, `title` TEXT NOT NULL, " +
+                "`description` TEXT, `visibility` TEXT NOT NULL, `coverURLString` TEXT, " +
+                "`createdAt` INTEGER NOT NULL, PRIMARY KEY(`id`))"
+        )
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `collection_members` (`collectionId` TEXT NOT NULL, `bookId` TEXT NOT NULL, " +
+                "`addedAt` INTEGER NOT NULL, PRIMARY KEY(`collectionId`, `bookId`))"
+        )
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_collection_members_bookId` ON `collection_members` (`bookId`)")
+    }
+}
+
+// v11: persistent tier of the OpenLibrary response cache.
+val MIGRATION_10_11 = object : Migration(10, 11) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `http_cache` (`key` TEXT NOT NULL, `body` TEXT NOT NULL, " +
+                "`storedAt` INTEGER NOT NULL, `sizeBytes` INTEGER NOT NULL, PRIMARY KEY(`key`))"
+        )
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_http_cache_storedAt` ON `http_cache` (`storedAt`)")
+    }
+}
+
+// v12: marks rows the background ISBN enrichment pass has already looked up.
+val MIGRATION_11_12 = object : Migration(11, 12) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL("ALTER TABLE `books` ADD COLUMN `enrichedAt` INTEGER")
+    }
+}
+
+// v13: per-row sync metadata on books plus the pending_changes outbox, seeded
+// with every existing book so the first sync uploads the library once.
+val MIGRATION_12_13 = object : Migration(12, 13) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL("ALTER TABLE `books` ADD COLUMN `updatedAt` INTEGER NOT NULL DEFAULT 0")
+        db.execSQL("ALTER TABLE `books` ADD COLUMN `version` INTEGER NOT NULL DEFAULT 0")
+        db.execSQL("UPDATE `books` SET `updatedAt` = COALESCE(`lastProgressUpdate`, `addedDate`, 0)")
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `pending_changes` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "`entityType` TEXT NOT NULL, `entityId` TEXT NOT NULL, `op` TEXT NOT NULL, " +
+                "`changedAt` INTEGER NOT NULL, `version` INTEGER NOT NULL)"
+        )
+        db.execSQL(
+            "CREATE UNIQUE INDEX IF NOT EXISTS `index_pending_changes_entityType_entityId` " +
+                "ON `pending_changes` (`entityType`, `entityId`)"
+        )
+        db.execSQL(
+            "INSERT INTO `pending_changes` (`entityType`, `entityId`, `op`, `changedAt`, `version`) " +
+                "SELECT 'book', `id`, 'UPSERT', `updatedAt`, `version` FROM `books`"
+        )
+    }
+}
+
+// v14: Discover sections cached for instant cold-start rendering.
+val MIGRATION_13_14 = object : Migration(13, 14) {
+    override fun migrate(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TABLE IF NOT EXISTS `discover_feed` (`section` TEXT NOT NULL, `payload` TEXT NOT NULL, " +
+                "`lastUpdated` TEXT, `fetchedAt` INTEGER NOT NULL, PRIMARY KEY(`section`))"
+        )
+    }
+}
+
+/** Every schema step since v2, in order. Installs older than v2 are recreated. */
+val ALL_MIGRATIONS: Array<Migration> = arrayOf(
+    MIGRATION_2_3,
+    MIGRATION_3_4,
+    MIGRATION_4_5,
+    MIGRATION_5_6,
+    MIGRATION_6_7,
+    MIGRATION_7_8,
+    MIGRATION_8_9,
+    MIGRATION_9_10,
+    MIGRATION_10_11,
+    MIGRATION_11_12,
+    MIGRATION_12_13,
+    MIGRATION_13_14
+)
+
+/**
+ * Recreates the triggers Room generates for an external-content FTS table,
+ * using the same names so Room's own `DROP TRIGGER` calls keep working.
+ */
+internal fun createFtsContentTriggers(
+    db: SupportSQLiteDatabase,
+    ftsTable: String,
+    contentTable: String,
+    columns: List<String>
+) {
+    val columnList = columns.joinToString(", ") { "`$it`" }
+    val newValues = columns.joinToString(", ") { "NEW.`$it`" }
+    val prefix = "room_fts_content_sync_$ftsTable"
+    db.execSQL(
+        "CREATE TRIGGER IF NOT EXISTS ${prefix}_BEFORE_UPDATE BEFORE UPDATE ON `$contentTable` " +
+            "BEGIN DELETE FROM `$ftsTable` WHERE `docid`=OLD.`rowid`; END"
+    )
+    db.execSQL(
+        "CREATE TRIGGER IF NOT EXISTS ${prefix}_BEFORE_DELETE BEFORE DELETE ON `$contentTable` " +
+            "BEGIN DELETE FROM `$ftsTable` WHERE `docid`=OLD.`rowid`; END"
+    )
+    db.execSQL(
+        "CREATE TRIGGER IF NOT EXISTS ${prefix}_AFTER_UPDATE AFTER UPDATE ON `$contentTable` " +
+            "BEGIN INSERT INTO `$ftsTable`(`docid`, $columnList) VALUES (NEW.`rowid`, $newValues); END"
+    )
+    db.execSQL(
+        "CREATE TRIGGER IF NOT EXISTS ${prefix}_AFTER_INSERT AFTER INSERT ON `$contentTable` " +
+            "BEGIN INSERT INTO `$ftsTable`(`docid`, $columnList) VALUES (NEW.`rowid`, $newValues); END"
+    )
+}
+
+// Mirrors the old LibraryRepositoryImpl.parseNotesJson; unreadable blobs are skipped.
+private fun copyJsonNotes(db: SupportSQLiteDatabase, bookId: String, json: String?) {
+    if (json.isNullOrBlank()) return
+    val array = try {
+        JSONArray(json)
+    } catch (_: Exception) {
+        return
+    }
+    val now = System.currentTimeMillis()
+    for (i in 0 until array.length()) {
+        val obj = array.optJSONObject(i) ?: continue
+        val id = obj.optString("id").takeIf { it.isNotEmpty() } ?: continue
+        val text = obj.optString("text", "")
+        val createdAt = obj.optLong("createdAt", now)
+        val values = ContentValues().apply {
+            put("id", id)
+            put("bookId", bookId)
+            put("text", text)
+            if (obj.has("pageNumber") && !obj.isNull("pageNumber")) put("pageNumber", obj.optInt("pageNumber"))
+            put("createdAt", createdAt)
+            put("updatedAt", obj.optLong("updatedAt", createdAt))
+        }
+        db.insert("book_notes", SQLiteDatabase.CONFLICT_REPLACE, values)
+    }
+}
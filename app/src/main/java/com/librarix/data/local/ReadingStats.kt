@@ -0,0 +1,43 @@
+package com.librarix.data.local
+
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.temporal.TemporalAdjusters
+import java.time.temporal.WeekFields
+import java.util.Locale
+
+// Pure day-total math behind ReadingStatsStore, kept free of Android types so
+// :microbenchmark can compile it.
+
+data class ReadingDay(
+    val epochDay: Long,
+    val pages: Int,
+    val minutes: Int
+)
+
+/**
+ * Adds a session logged at [date] to the total of the calendar day it falls on
+ * in [zone]. Every day bucket is computed in Kotlin (never with SQLite's
+ * 'localtime'), so logging, rebuilds and the v9 backfill always agree.
+ */
+internal fun MutableMap<Long, ReadingDay>.addSession(date: Long, pages: Int, minutes: Int, zone: ZoneId) {
+    val epochDay = epochDayOf(date, zone)
+    val day = get(epochDay)
+    put(
+        epochDay,
+        if (day == null) ReadingDay(epochDay, pages, minutes)
+        else day.copy(pages = day.pages + pages, minutes = day.minutes + minutes)
+    )
+}
+
+/** The calendar day [millis] falls on in [zone], as an epoch day. */
+internal fun epochDayOf(millis: Long, zone: ZoneId): Long {
+    return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().toEpochDay()
+}
+
+/** First day of the [locale] week containing [epochDay]. */
+internal fun weekStartOf(epochDay: Long, locale: Locale): Long {
+    val firstDayOfWeek = WeekFields.of(locale).firstDayOfWeek
+    return LocalDate.ofEpochDay(epochDay).with(TemporalAdjusters.previousOrSame(firstDayOfWeek)).toEpochDay()
+}
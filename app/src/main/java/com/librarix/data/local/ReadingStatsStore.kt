@@ -1,13 +1,29 @@
 package com.librarix.data.local
 
 import android.content.Context
+import com.librarix.data.local.dao.ReadingStatsDao
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
 import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.launch
 import org.json.JSONArray
 import org.json.JSONObject
-import java.util.Calendar
+import java.time.Duration
+import java.time.ZoneId
+import java.time.ZonedDateTime
+import java.util.Locale
 import java.util.UUID
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -15,150 +31,122 @@ import javax.inject.Singleton
 data class ReadingSession(
     val id: String = UUID.randomUUID().toString(),
     val date: Long = System.currentTimeMillis(),
-    val pagesDelta: Int
+    val pagesDelta: Int,
+    val minutes: Int = 0
 )
 
+@OptIn(ExperimentalCoroutinesApi::class)
 @Singleton
 class ReadingStatsStore @Inject constructor(
-    @ApplicationContext private val context: Context
+    @ApplicationContext private val context: Context,
+    private val readingStatsDao: ReadingStatsDao
 ) {
-    private val prefs = context.getSharedPreferences("librarix_reading_stats", Context.MODE_PRIVATE)
-
-    private val _sessions = MutableStateFlow<List<ReadingSession>>(emptyList())
-    val sessions: StateFlow<List<ReadingSession>> = _sessions.asStateFlow()
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
 
     private val _yearlyGoals = MutableStateFlow<Map<Int, Int>>(emptyMap())
     val yearlyGoals: StateFlow<Map<Int, Int>> = _yearlyGoals.asStateFlow()
 
     init {
-        load()
+        scope.launch {
+            importLegacyPrefs()
+            launch {
+                readingStatsDao.getGoals().collect { rows ->
+                    _yearlyGoals.value = rows.associate { it.year to it.goal }
+                }
+            }
+        }
     }
 
-    fun logSession(pagesDelta: Int, date: Long = System.currentTimeMillis()) {
+    fun logSession(pagesDelta: Int, minutes: Int = 0, date: Long = System.currentTimeMillis()) {
         if (pagesDelta <= 0) return
-        val session = ReadingSession(date = date, pagesDelta = pagesDelta)
-        val updated = (_sessions.value + session)
-            .sortedByDescending { it.date }
-            .take(2000)
-        _sessions.value = updated
-        save()
+        val session = ReadingSession(date = date, pagesDelta = pagesDelta, minutes = maxOf(0, minutes))
+        val epochDay = epochDayOf(date, ZoneId.systemDefault())
+        scope.launch { readingStatsDao.logSession(session.toEntity(), epochDay) }
     }
 
     fun setGoal(year: Int, goal: Int) {
-        _yearlyGoals.value = _yearlyGoals.value + (year to maxOf(0, goal))
-        save()
+        val clamped = maxOf(0, goal)
+        _yearlyGoals.value = _yearlyGoals.value + (year to clamped)
+        scope.launch { readingStatsDao.upsertGoal(ReadingGoalEntity(year = year, goal = clamped)) }
     }
 
     fun goal(forYear: Int): Int {
         return _yearlyGoals.value[forYear] ?: 30
     }
 
-    fun dayStreak(now: Long = System.currentTimeMillis()): Int {
-        val calendar = Calendar.getInstance()
-        val sessionDays = _sessions.value.map { session ->
-            calendar.timeInMillis = session.date
-            calendar.set(Calendar.HOUR_OF_DAY, 0)
-            calendar.set(Calendar.MINUTE, 0)
-            calendar.set(Calendar.SECOND, 0)
-            calendar.set(Calendar.MILLISECOND, 0)
-            calendar.timeInMillis
-        }.toSet()
-
-        if (sessionDays.isEmpty()) return 0
-
-        calendar.timeInMillis = now
-        calendar.set(Calendar.HOUR_OF_DAY, 0)
-        calendar.set(Calendar.MINUTE, 0)
-        calendar.set(Calendar.SECOND, 0)
-        calendar.set(Calendar.MILLISECOND, 0)
-        var cursor = calendar.timeInMillis
-
-        // If no session today, allow yesterday anchor
-        if (!sessionDays.contains(cursor)) {
-            calendar.add(Calendar.DAY_OF_YEAR, -1)
-            val yesterday = calendar.timeInMillis
-            if (sessionDays.contains(yesterday)) {
-                cursor = yesterday
-            } else {
-                return 0
-            }
+    // Each session is bucketed by epochDayOf in the system zone when it is
+    // logged. After a timezone change, days already logged keep their buckets and
+    // "today" follows the new zone, so travelling doesn't break or double a
+    // streak. Only a rebuild (legacy import, restore) re-buckets old sessions.
+
+    /** Today's epoch day in the system zone, emitted again at each local midnight. */
+    private val today: Flow<Long> = flow {
+        while (true) {
+            val zone = ZoneId.systemDefault()
+            val now = ZonedDateTime.now(zone)
+            emit(now.toLocalDate().toEpochDay())
+            delay(Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay(zone)).toMillis())
         }
+    }.distinctUntilChanged()
 
-        var streak = 0
-        calendar.timeInMillis = cursor
-        while (sessionDays.contains(calendar.timeInMillis)) {
-            streak++
-            calendar.add(Calendar.DAY_OF_YEAR, -1)
-        }
-        return streak
-    }
+    /** Consecutive days with reading, ending today (or yesterday if nothing has been logged yet today). */
+    val dayStreak: Flow<Int> = today.flatMapLatest { readingStatsDao.getStreak(it) }
 
-    fun pagesThisWeek(now: Long = System.currentTimeMillis()): Int {
-        val calendar = Calendar.getInstance()
-        calendar.timeInMillis = now
-        calendar.set(Calendar.DAY_OF_WEEK, calendar.firstDayOfWeek)
-        calendar.set(Calendar.HOUR_OF_DAY, 0)
-        calendar.set(Calendar.MINUTE, 0)
-        calendar.set(Calendar.SECOND, 0)
-        calendar.set(Calendar.MILLISECOND, 0)
-        val weekStart = calendar.timeInMillis
-        calendar.add(Calendar.WEEK_OF_YEAR, 1)
-        val weekEnd = calendar.timeInMillis
-
-        return _sessions.value
-            .filter { it.date in weekStart until weekEnd }
-            .sumOf { it.pagesDelta }
+    /** Pages read in the current locale week. */
+    val pagesThisWeek: Flow<Int> = today.flatMapLatest { day ->
+        val weekStart = weekStartOf(day, Locale.getDefault())
+        readingStatsDao.getPagesBetween(weekStart, weekStart + 6)
     }
 
-    private fun load() {
+    /**
+     * One-time move of the old SharedPreferences JSON blobs into Room. The prefs
+     * keys are removed afterwards, so this is a no-op on every later launch.
+     */
+    private suspend fun importLegacyPrefs() {
+        val prefs = context.getSharedPreferences(LEGACY_PREFS_NAME, Context.MODE_PRIVATE)
+        if (!prefs.contains(KEY_SESSIONS) && !prefs.contains(KEY_YEARLY_GOALS)) return
+
+        val sessions = mutableListOf<ReadingSessionEntity>()
         try {
-            val sessionsJson = prefs.getString("sessions", null)
-            if (sessionsJson != null) {
-                val array = JSONArray(sessionsJson)
-                val list = mutableListOf<ReadingSession>()
+            prefs.getString(KEY_SESSIONS, null)?.let { json ->
+                val array = JSONArray(json)
                 for (i in 0 until array.length()) {
                     val obj = array.getJSONObject(i)
-                    list.add(ReadingSession(
+                    sessions.add(ReadingSessionEntity(
                         id = obj.optString("id", UUID.randomUUID().toString()),
                         date = obj.getLong("date"),
                         pagesDelta = obj.getInt("pagesDelta")
                     ))
                 }
-                _sessions.value = list
             }
         } catch (_: Exception) {
-            _sessions.value = emptyList()
+            sessions.clear()
         }
 
+        val goals = mutableListOf<ReadingGoalEntity>()
         try {
-            val goalsJson = prefs.getString("yearly_goals", null)
-            if (goalsJson != null) {
-                val obj = JSONObject(goalsJson)
-                val map = mutableMapOf<Int, Int>()
-                obj.keys().forEach { key -> map[key.toInt()] = obj.getInt(key) }
-                _yearlyGoals.value = map
+            prefs.getString(KEY_YEARLY_GOALS, null)?.let { json ->
+                val obj = JSONObject(json)
+                obj.keys().forEach { key -> goals.add(ReadingGoalEntity(year = key.toInt(), goal = obj.getInt(key))) }
             }
         } catch (_: Exception) {
-            _yearlyGoals.value = emptyMap()
+            goals.clear()
         }
-    }
-
-    private fun save() {
-        val sessionsArray = JSONArray()
-        _sessions.value.forEach { s ->
-            sessionsArray.put(JSONObject().apply {
-                put("id", s.id)
-                put("date", s.date)
-                put("pagesDelta", s.pagesDelta)
-            })
-        }
-
-        val goalsObj = JSONObject()
-        _yearlyGoals.value.forEach { (year, goal) -> goalsObj.put(year.toString(), goal) }
 
+        readingStatsDao.importLegacy(sessions, goals, ZoneId.systemDefault())
         prefs.edit()
-            .putString("sessions", sessionsArray.toString())
-            .putString("yearly_goals", goalsObj.toString())
+            .remove(KEY_SESSIONS)
+            .remove(KEY_YEARLY_GOALS)
             .apply()
     }
+
+    private companion object {
+        const val LEGACY_PREFS_NAME = "librarix_reading_stats"
+        const val KEY_SESSIONS = "sessions"
+        const val KEY_YEARLY_GOALS = "yearly_goals"
+    }
+}
+
+private fun ReadingSession.toEntity(): ReadingSessionEntity {
+    return ReadingSessionEntity(id = id, date = date, pagesDelta = pagesDelta, minutes = minutes)
 }
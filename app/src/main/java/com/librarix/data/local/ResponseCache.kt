@@ -0,0 +1,148 @@
+package com.librarix.data.local
+
+import com.librarix.data.local.dao.CachedResponseDao
+import com.librarix.data.local.entity.CachedResponseEntity
+import com.librarix.data.remote.SingleFlight
+import com.squareup.moshi.Moshi
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import okio.utf8Size
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * How long a cached response is served without a network call ([ttlMillis]),
+ * and for how much longer it may still be served while a refresh runs in the
+ * background ([staleMillis]).
+ */
+data class CachePolicy(
+    val ttlMillis: Long,
+    val staleMillis: Long
+) {
+    companion object {
+        val SHORT = CachePolicy(ttlMillis = TimeUnit.MINUTES.toMillis(10), staleMillis = TimeUnit.HOURS.toMillis(1))
+        val MEDIUM = CachePolicy(ttlMillis = TimeUnit.DAYS.toMillis(1), staleMillis = TimeUnit.DAYS.toMillis(3))
+        val LONG = CachePolicy(ttlMillis = TimeUnit.DAYS.toMillis(7), staleMillis = TimeUnit.DAYS.toMillis(30))
+    }
+}
+
+data class ResponseCacheStats(
+    val memoryHits: Long,
+    val diskHits: Long,
+    val staleHits: Long,
+    val misses: Long
+)
+
+/**
+ * Two-tier cache for decoded API responses: an in-memory LRU in front of the
+ * Room `http_cache` table, which survives process death. The disk tier is
+ * bounded by [MAX_DISK_BYTES] and evicts oldest entries first.
+ */
+@Singleton
+class ResponseCache @Inject constructor(
+    private val dao: CachedResponseDao,
+    private val moshi: Moshi
+) {
+    private class Entry(val value: Any, val storedAt: Long)
+
+    private val memory = object : LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry>?): Boolean {
+            return size > MAX_MEMORY_ENTRIES
+        }
+    }
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    // Stale hits for the same key share one background refresh.
+    private val refreshes = SingleFlight()
+
+    private val memoryHits = AtomicLong()
+    private val diskHits = AtomicLong()
+    private val staleHits = AtomicLong()
+    private val misses = AtomicLong()
+
+    /**
+     * Returns the cached value for [key] if it is within [policy], otherwise
+     * calls [fetch] and stores the result. A stale-but-usable value is returned
+     * immediately and refreshed in the background; if [fetch] fails, any older
+     * copy is returned instead of the error.
+     */
+    suspend fun <T : Any> get(
+        key: String,
+        type: Class<T>,
+        policy: CachePolicy,
+        fetch: suspend () -> T
+    ): T {
+        val now = System.currentTimeMillis()
+        val cached = readMemory(key, type)?.also { memoryHits.incrementAndGet() }
+            ?: readDisk(key, type)?.also { diskHits.incrementAndGet() }
+
+        if (cached != null) {
+            val age = now - cached.storedAt
+            @Suppress("UNCHECKED_CAST")
+            val value = cached.value as T
+            if (age <= policy.ttlMillis) return value
+            if (age <= policy.ttlMillis + policy.staleMillis) {
+                staleHits.incrementAndGet()
+                scope.launch { runCatching { refreshes.run(key) { store(key, type, fetch()) } } }
+                return value
+            }
+        }
+
+        misses.incrementAndGet()
+        return try {
+            fetch().also { store(key, type, it) }
+        } catch (e: Exception) {
+            @Suppress("UNCHECKED_CAST")
+            (cached?.value as? T) ?: throw e
+        }
+    }
+
+    fun stats(): ResponseCacheStats = ResponseCacheStats(
+        memoryHits = memoryHits.get(),
+        diskHits = diskHits.get(),
+        staleHits = staleHits.get(),
+        misses = misses.get()
+    )
+
+    suspend fun clear() {
+        synchronized(memory) { memory.clear() }
+        dao.clear()
+    }
+
+    private fun readMemory(key: String, type: Class<*>): Entry? = synchronized(memory) {
+        memory[key]?.takeIf { type.isInstance(it.value) }
+    }
+
+    private suspend fun <T : Any> readDisk(key: String, type: Class<T>): Entry? {
+        val row = dao.get(key) ?: return null
+        val value = try {
+            moshi.adapter(type).fromJson(row.body)
+        } catch (_: Exception) {
+            null
+        } ?: return null
+        return Entry(value, row.storedAt).also { entry ->
+            synchronized(memory) { memory[key] = entry }
+        }
+    }
+
+    private suspend fun <T : Any> store(key: String, type: Class<T>, value: T) {
+        val now = System.currentTimeMillis()
+        synchronized(memory) { memory[key] = Entry(value, now) }
+        val body = moshi.adapter(type).toJson(value)
+        dao.put(CachedResponseEntity(key = key, body = body, storedAt = now, sizeBytes = body.utf8Size().toInt()))
+        while (dao.totalSizeBytes() > MAX_DISK_BYTES) {
+            dao.deleteOldest(EVICTION_BATCH)
+        }
+    }
+
+    private companion object {
+        const val MAX_MEMORY_ENTRIES = 128
+        const val MAX_DISK_BYTES = 8L * 1024 * 1024
+        const val EVICTION_BATCH = 16
+    }
+}
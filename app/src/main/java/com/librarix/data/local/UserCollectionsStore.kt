@@ -1,163 +1,149 @@
 package com.librarix.data.local
 
 import android.content.Context
-import com.librarix.domain.model.CollectionMembership
+import com.librarix.data.local.dao.CollectionDao
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.repository.toDomain
 import com.librarix.domain.model.SavedBook
 import com.librarix.domain.model.UserCollection
 import dagger.hilt.android.qualifiers.ApplicationContext
-import kotlinx.coroutines.flow.MutableStateFlow
-import kotlinx.coroutines.flow.StateFlow
-import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
 import org.json.JSONArray
 import org.json.JSONObject
 import java.util.UUID
 import javax.inject.Inject
 import javax.inject.Singleton
 
+/**
+ * Collections and their memberships, backed by the `collections` and
+ * `collection_members` tables. All reads are reactive Room queries and all
+ * writes are suspend calls, so it is safe to use from any coroutine.
+ */
 @Singleton
 class UserCollectionsStore @Inject constructor(
-    @ApplicationContext private val context: Context
+    @ApplicationContext private val context: Context,
+    private val collectionDao: CollectionDao
 ) {
-    private val prefs = context.getSharedPreferences("librarix_collections", Context.MODE_PRIVATE)
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
 
-    private val _collections = MutableStateFlow<List<UserCollection>>(emptyList())
-    val collections: StateFlow<List<UserCollection>> = _collections.asStateFlow()
+    val collections: Flow<List<UserCollection>> =
+        collectionDao.getCollections().map { rows -> rows.map { it.toDomain() } }
 
-    private val memberships = mutableSetOf<CollectionMembership>()
+    val collectionCountByBookId: Flow<Map<String, Int>> =
+        collectionDao.getCollectionCountsByBook().map { rows -> rows.associate { it.bookId to it.count } }
 
-    private val _collectionCountByBookId = MutableStateFlow<Map<String, Int>>(emptyMap())
-    val collectionCountByBookId: StateFlow<Map<String, Int>> = _collectionCountByBookId.asStateFlow()
-
-    init {
-        loadLocal()
-    }
-
-    fun createCollection(title: String, description: String? = null) {
+    suspend fun createCollection(title: String, description: String? = null) {
         val trimmed = title.trim()
         if (trimmed.isEmpty()) return
-        val collection = UserCollection(
-            id = UUID.randomUUID().toString(),
-            title = trimmed,
-            description = description,
-            createdAt = System.currentTimeMillis()
+        collectionDao.insertCollection(
+            CollectionEntity(
+                id = UUID.randomUUID().toString(),
+                userId = null,
+                title = trimmed,
+                description = description,
+                visibility = "private",
+                coverURLString = null,
+                createdAt = System.currentTimeMillis()
+            )
         )
-        _collections.value = listOf(collection) + _collections.value
-        saveLocal()
     }
 
-    fun deleteCollection(collectionId: String) {
-        _collections.value = _collections.value.filter { it.id != collectionId }
-        memberships.removeAll { it.collectionId == collectionId }
-        saveLocal()
+    suspend fun deleteCollection(collectionId: String) {
+        collectionDao.deleteCollection(collectionId)
     }
 
-    fun contains(bookId: String, collectionId: String): Boolean {
-        return memberships.contains(CollectionMembership(collectionId = collectionId, bookLocalId = bookId))
+    suspend fun contains(bookId: String, collectionId: String): Boolean {
+        return collectionDao.isMember(collectionId = collectionId, bookId = bookId)
     }
 
-    fun toggle(bookId: String, collectionId: String) {
-        val key = CollectionMembership(collectionId = collectionId, bookLocalId = bookId)
-        if (memberships.contains(key)) {
-            memberships.remove(key)
-        } else {
-            memberships.add(key)
-        }
-        updateCollectionCounts(bookId)
-        saveLocal()
+    suspend fun toggle(bookId: String, collectionId: String) {
+        collectionDao.toggleMember(collectionId = collectionId, bookId = bookId, now = System.currentTimeMillis())
     }
 
-    fun collectionCount(bookId: String): Int {
-        return memberships.count { it.bookLocalId == bookId }
+    fun collectionCount(bookId: String): Flow<Int> {
+        return collectionDao.getCollectionCount(bookId)
     }
 
-    fun booksInCollection(collectionId: String, library: List<SavedBook>): List<SavedBook> {
-        val bookIds = memberships
-            .filter { it.collectionId == collectionId }
-            .map { it.bookLocalId }
-            .toSet()
-        return library.filter { bookIds.contains(it.id) }
+    fun booksInCollection(collectionId: String): Flow<List<SavedBook>> {
+        return collectionDao.getBooksInCollection(collectionId).map { rows -> rows.map { it.toDomain() } }
     }
 
-    fun collectionsForBook(bookId: String): List<UserCollection> {
-        val collectionIds = memberships
-            .filter { it.bookLocalId == bookId }
-            .map { it.collectionId }
-            .toSet()
-        return _collections.value.filter { collectionIds.contains(it.id) }
+    fun collectionsForBook(bookId: String): Flow<List<UserCollection>> {
+        return collectionDao.getCollectionsForBook(bookId).map { rows -> rows.map { it.toDomain() } }
     }
 
-    private fun updateCollectionCounts(bookId: String) {
-        val count = memberships.count { it.bookLocalId == bookId }
-        _collectionCountByBookId.value = _collectionCountByBookId.value + (bookId to count)
+    /**
+     * One-time move of the old `collections_cache` JSON blob into Room, started
+     * from [com.librarix.LibrarixApp] so it runs whether or not any screen uses
+     * this store. The prefs key is removed afterwards, so this is a no-op on
+     * every later launch.
+     */
+    fun importLegacyCollections() {
+        scope.launch { importLegacyPrefs() }
     }
 
-    private fun loadLocal() {
+    private suspend fun importLegacyPrefs() {
+        val prefs = context.getSharedPreferences(LEGACY_PREFS_NAME, Context.MODE_PRIVATE)
+        val json = prefs.getString(KEY_COLLECTIONS_CACHE, null) ?: return
+
+        val collections = mutableListOf<CollectionEntity>()
+        val members = mutableListOf<CollectionMemberEntity>()
         try {
-            val json = prefs.getString("collections_cache", null) ?: return
             val obj = JSONObject(json)
+            val now = System.currentTimeMillis()
 
             val collectionsArr = obj.optJSONArray("collections") ?: JSONArray()
-            val collectionsList = mutableListOf<UserCollection>()
             for (i in 0 until collectionsArr.length()) {
                 val c = collectionsArr.getJSONObject(i)
-                collectionsList.add(UserCollection(
+                collections.add(CollectionEntity(
                     id = c.getString("id"),
                     userId = c.optString("userId").takeIf { it.isNotEmpty() },
                     title = c.getString("title"),
                     description = c.optString("description").takeIf { it.isNotEmpty() },
                     visibility = c.optString("visibility", "private"),
                     coverURLString = c.optString("coverURLString").takeIf { it.isNotEmpty() },
-                    createdAt = c.optLong("createdAt", System.currentTimeMillis())
+                    createdAt = c.optLong("createdAt", now)
                 ))
             }
-            _collections.value = collectionsList
 
             val membershipsArr = obj.optJSONArray("memberships") ?: JSONArray()
-            memberships.clear()
             for (i in 0 until membershipsArr.length()) {
                 val m = membershipsArr.getJSONObject(i)
-                memberships.add(CollectionMembership(
+                members.add(CollectionMemberEntity(
                     collectionId = m.getString("collectionId"),
-                    bookLocalId = m.getString("bookLocalId")
+                    bookId = m.getString("bookLocalId"),
+                    addedAt = now
                 ))
             }
         } catch (_: Exception) {
-            _collections.value = emptyList()
-            memberships.clear()
+            collections.clear()
+            members.clear()
         }
-    }
-
-    private fun saveLocal() {
-        try {
-            val collectionsArr = JSONArray()
-            _collections.value.forEach { c ->
-                collectionsArr.put(JSONObject().apply {
-                    put("id", c.id)
-                    c.userId?.let { put("userId", it) }
-                    put("title", c.title)
-                    c.description?.let { put("description", it) }
-                    put("visibility", c.visibility)
-                    c.coverURLString?.let { put("coverURLString", it) }
-                    put("createdAt", c.createdAt)
-                })
-            }
 
-            val membershipsArr = JSONArray()
-            memberships.forEach { m ->
-                membershipsArr.put(JSONObject().apply {
-                    put("collectionId", m.collectionId)
-                    put("bookLocalId", m.bookLocalId)
-                })
-            }
-
-            val cache = JSONObject().apply {
-                put("collections", collectionsArr)
-                put("memberships", membershipsArr)
-            }
+        collectionDao.importLegacy(collections, members)
+        prefs.edit().remove(KEY_COLLECTIONS_CACHE).apply()
+    }
 
-            prefs.edit().putString("collections_cache", cache.toString()).apply()
-        } catch (_: Exception) {
-            // Ignore save failures
-        }
+    private companion object {
+        const val LEGACY_PREFS_NAME = "librarix_collections"
+        const val KEY_COLLECTIONS_CACHE = "collections_cache"
     }
 }
+
+private fun CollectionEntity.toDomain(): UserCollection {
+    return UserCollection(
+        id = id,
+        userId = userId,
+        title = title,
+        description = description,
+        visibility = visibility,
+        coverURLString = coverURLString,
+        createdAt = createdAt
+    )
+}
@@ -0,0 +1,86 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Upsert
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
+
+/**
+ * Keyset-paged reads and bulk writes for library backup and restore. Pages are
+ * ordered by primary key so an export never holds more than one page at a time.
+ */
+@Dao
+interface BackupDao {
+    @Query("SELECT * FROM books WHERE id > :afterId ORDER BY id LIMIT :limit")
+    suspend fun booksAfter(afterId: String, limit: Int): List<BookEntity>
+
+    @Query("SELECT * FROM book_notes WHERE id > :afterId ORDER BY id LIMIT :limit")
+    suspend fun notesAfter(afterId: String, limit: Int): List<BookNoteEntity>
+
+    @Query("SELECT * FROM reading_sessions WHERE id > :afterId ORDER BY id LIMIT :limit")
+    suspend fun sessionsAfter(afterId: String, limit: Int): List<ReadingSessionEntity>
+
+    @Query("SELECT * FROM reading_goals ORDER BY year")
+    suspend fun goals(): List<ReadingGoalEntity>
+
+    @Query("SELECT * FROM collections ORDER BY id")
+    suspend fun collections(): List<CollectionEntity>
+
+    @Query(
+        """
+        SELECT * FROM collection_members
+        WHERE collectionId > :afterCollectionId
+            OR (collectionId = :afterCollectionId AND bookId > :afterBookId)
+        ORDER BY collectionId, bookId
+        LIMIT :limit
+        """
+    )
+    suspend fun membersAfter(afterCollectionId: String, afterBookId: String, limit: Int): List<CollectionMemberEntity>
+
+    // Upsert keeps the FTS tables in step (see BookDao.upsertBook).
+    @Upsert
+    suspend fun upsertBooks(books: List<BookEntity>)
+
+    @Upsert
+    suspend fun upsertNotes(notes: List<BookNoteEntity>)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertSessions(sessions: List<ReadingSessionEntity>)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertGoals(goals: List<ReadingGoalEntity>)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertCollections(collections: List<CollectionEntity>)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertMembers(members: List<CollectionMemberEntity>)
+
+    @Query("DELETE FROM books")
+    suspend fun clearBooks()
+
+    @Query("DELETE FROM book_notes")
+    suspend fun clearNotes()
+
+    @Query("DELETE FROM reading_sessions")
+    suspend fun clearSessions()
+
+    @Query("DELETE FROM reading_days")
+    suspend fun clearDays()
+
+    @Query("DELETE FROM reading_goals")
+    suspend fun clearGoals()
+
+    @Query("DELETE FROM collections")
+    suspend fun clearCollections()
+
+    @Query("DELETE FROM collection_members")
+    suspend fun clearMembers()
+}
@@ -1,11 +1,14 @@
 package com.librarix.data.local.dao
 
+import androidx.paging.PagingSource
 import androidx.room.Dao
 import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
 import androidx.room.Update
+import androidx.room.Upsert
+import com.librarix.data.local.entity.BookCoverSource
 import com.librarix.data.local.entity.BookEntity
 import kotlinx.coroutines.flow.Flow
 
@@ -20,21 +23,77 @@ interface BookDao {
     @Query("SELECT * FROM books WHERE status = 'FINISHED' ORDER BY finishedDate DESC")
     fun getFinishedBooks(): Flow<List<BookEntity>>
 
+    @Query("SELECT * FROM books ORDER BY lastProgressUpdate DESC")
+    fun pagingAllBooks(): PagingSource<Int, BookEntity>
+
+    @Query("SELECT * FROM books WHERE status = :status ORDER BY lastProgressUpdate DESC")
+    fun pagingBooksByStatus(status: String): PagingSource<Int, BookEntity>
+
+    @Query("SELECT * FROM books WHERE isFavorite = 1 ORDER BY lastProgressUpdate DESC")
+    fun pagingFavoriteBooks(): PagingSource<Int, BookEntity>
+
     @Query("SELECT * FROM books WHERE id = :bookId")
     suspend fun getBookById(bookId: String): BookEntity?
 
-    @Query("SELECT * FROM books WHERE title LIKE '%' || :query || '%' OR author LIKE '%' || :query || '%'")
-    fun searchBooks(query: String): Flow<List<BookEntity>>
+    @Query("SELECT * FROM books WHERE id IN (:bookIds)")
+    suspend fun getBooksByIds(bookIds: List<String>): List<BookEntity>
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
-    suspend fun insertBook(book: BookEntity)
+    /**
+     * Full-text search over title, author, ISBN, description and notes.
+     * [match] is an FTS4 MATCH expression (e.g. `tolk* hob*`); rows whose
+     * title or author starts with [prefix] rank ahead of body-only matches.
+     * A null [status] matches every shelf; [favoritesOnly] restricts to favourites.
+     */
+    @Query(
+        """
+        SELECT books.* FROM books
+        WHERE (
+                books.rowid IN (SELECT rowid FROM books_fts WHERE books_fts MATCH :match)
+                OR books.id IN (
+                    SELECT book_notes.bookId FROM book_notes
+                    JOIN book_notes_fts ON book_notes.rowid = book_notes_fts.rowid
+                    WHERE book_notes_fts MATCH :match
+                )
+            )
+            AND (:status IS NULL OR books.status = :status)
+            AND (:favoritesOnly = 0 OR books.isFavorite = 1)
+        ORDER BY
+            CASE
+                WHEN books.title LIKE :prefix || '%' THEN 0
+                WHEN books.author LIKE :prefix || '%' THEN 1
+                ELSE 2
+            END,
+            books.lastProgressUpdate DESC
+        """
+    )
+    fun searchBooks(
+        match: String,
+        prefix: String,
+        status: String?,
+        favoritesOnly: Boolean
+    ): PagingSource<Int, BookEntity>
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
-    suspend fun insertBooks(books: List<BookEntity>)
+    /** Returns the new rowids; -1 marks a row skipped because its id already exists. */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertBooksIfAbsent(books: List<BookEntity>): List<Long>
+
+    @Query("SELECT isbn FROM books WHERE isbn IN (:isbns)")
+    suspend fun getExistingIsbns(isbns: List<String>): List<String>
 
     @Update
     suspend fun updateBook(book: BookEntity)
 
+    /**
+     * Inserts or updates in place. Never use a REPLACE insert on books: it
+     * deletes the old row without firing the books_fts delete trigger
+     * (recursive_triggers is off), leaving stale search tokens behind.
+     */
+    @Upsert
+    suspend fun upsertBook(book: BookEntity)
+
+    @Upsert
+    suspend fun upsertBooks(books: List<BookEntity>)
+
     @Delete
     suspend fun deleteBook(book: BookEntity)
 
@@ -44,6 +103,53 @@ interface BookDao {
     @Query("SELECT COUNT(*) FROM books WHERE status = 'FINISHED'")
     fun getFinishedBooksCount(): Flow<Int>
 
+    @Query("SELECT COUNT(*) FROM books WHERE status = 'FINISHED' AND finishedDate >= :fromMillis AND finishedDate < :untilMillis")
+    fun getFinishedBooksCountBetween(fromMillis: Long, untilMillis: Long): Flow<Int>
+
+    @Query("SELECT * FROM books WHERE status = 'READING' ORDER BY lastProgressUpdate DESC LIMIT 1")
+    fun getLatestReadingBook(): Flow<BookEntity?>
+
+    @Query("SELECT * FROM books ORDER BY addedDate DESC LIMIT :limit")
+    fun getRecentlyAddedBooks(limit: Int): Flow<List<BookEntity>>
+
+    @Query(
+        """
+        SELECT EXISTS(
+            SELECT 1 FROM books
+            WHERE isbn IN (:isbns)
+                OR openLibraryWorkKey = :workKey
+                OR (title = :title COLLATE NOCASE AND author = :author COLLATE NOCASE)
+        )
+        """
+    )
+    fun isBookSaved(isbns: List<String>, workKey: String?, title: String, author: String): Flow<Boolean>
+
     @Query("SELECT SUM(currentPage) FROM books")
     fun getTotalPagesRead(): Flow<Int?>
-}
\ No newline at end of file
+
+    @Query(
+        """
+        SELECT * FROM books
+        WHERE enrichedAt IS NULL
+            AND (isbn IS NOT NULL OR openLibraryWorkKey IS NOT NULL)
+            AND (coverURLString IS NULL OR pageCount IS NULL OR openLibraryWorkKey IS NULL OR description IS NULL)
+        ORDER BY addedDate DESC
+        LIMIT :limit
+        """
+    )
+    suspend fun getBooksNeedingEnrichment(limit: Int): List<BookEntity>
+
+    // Earlier enrichment passes could store an edition key (/books/…) as the work key.
+    @Query("SELECT * FROM books WHERE openLibraryWorkKey IS NOT NULL AND openLibraryWorkKey NOT LIKE '/works/%'")
+    suspend fun getBooksWithInvalidWorkKey(): List<BookEntity>
+
+    // Most recently touched books first, so they keep detail images when the store is over budget.
+    @Query(
+        """
+        SELECT id AS bookId, coverURLString FROM books
+        WHERE coverURLString IS NOT NULL
+        ORDER BY lastProgressUpdate DESC
+        """
+    )
+    suspend fun getCoverSources(): List<BookCoverSource>
+}
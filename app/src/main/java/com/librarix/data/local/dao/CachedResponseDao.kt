@@ -0,0 +1,25 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.librarix.data.local.entity.CachedResponseEntity
+
+@Dao
+interface CachedResponseDao {
+    @Query("SELECT * FROM http_cache WHERE `key` = :key")
+    suspend fun get(key: String): CachedResponseEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun put(entry: CachedResponseEntity)
+
+    @Query("SELECT COALESCE(SUM(sizeBytes), 0) FROM http_cache")
+    suspend fun totalSizeBytes(): Long
+
+    @Query("DELETE FROM http_cache WHERE `key` IN (SELECT `key` FROM http_cache ORDER BY storedAt ASC LIMIT :count)")
+    suspend fun deleteOldest(count: Int)
+
+    @Query("DELETE FROM http_cache")
+    suspend fun clear()
+}
@@ -0,0 +1,92 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import com.librarix.data.local.entity.BookCollectionCount
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+interface CollectionDao {
+    @Query("SELECT * FROM collections ORDER BY createdAt DESC")
+    fun getCollections(): Flow<List<CollectionEntity>>
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertCollection(collection: CollectionEntity)
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertCollections(collections: List<CollectionEntity>)
+
+    @Query("DELETE FROM collections WHERE id = :collectionId")
+    suspend fun deleteCollectionById(collectionId: String)
+
+    @Query("SELECT EXISTS(SELECT 1 FROM collection_members WHERE collectionId = :collectionId AND bookId = :bookId)")
+    suspend fun isMember(collectionId: String, bookId: String): Boolean
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertMember(member: CollectionMemberEntity)
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertMembers(members: List<CollectionMemberEntity>)
+
+    @Query("DELETE FROM collection_members WHERE collectionId = :collectionId AND bookId = :bookId")
+    suspend fun deleteMember(collectionId: String, bookId: String)
+
+    @Query("DELETE FROM collection_members WHERE collectionId = :collectionId")
+    suspend fun deleteMembersOfCollection(collectionId: String)
+
+    @Query("DELETE FROM collection_members WHERE bookId = :bookId")
+    suspend fun deleteMembershipsForBook(bookId: String)
+
+    @Query(
+        """
+        SELECT books.* FROM books
+        JOIN collection_members ON collection_members.bookId = books.id
+        WHERE collection_members.collectionId = :collectionId
+        ORDER BY collection_members.addedAt DESC
+        """
+    )
+    fun getBooksInCollection(collectionId: String): Flow<List<BookEntity>>
+
+    @Query(
+        """
+        SELECT collections.* FROM collections
+        JOIN collection_members ON collection_members.collectionId = collections.id
+        WHERE collection_members.bookId = :bookId
+        ORDER BY collections.createdAt DESC
+        """
+    )
+    fun getCollectionsForBook(bookId: String): Flow<List<CollectionEntity>>
+
+    @Query("SELECT COUNT(*) FROM collection_members WHERE bookId = :bookId")
+    fun getCollectionCount(bookId: String): Flow<Int>
+
+    @Query("SELECT bookId, COUNT(*) AS count FROM collection_members GROUP BY bookId")
+    fun getCollectionCountsByBook(): Flow<List<BookCollectionCount>>
+
+    @Transaction
+    suspend fun deleteCollection(collectionId: String) {
+        deleteMembersOfCollection(collectionId)
+        deleteCollectionById(collectionId)
+    }
+
+    @Transaction
+    suspend fun toggleMember(collectionId: String, bookId: String, now: Long) {
+        if (isMember(collectionId, bookId)) {
+            deleteMember(collectionId, bookId)
+        } else {
+            insertMember(CollectionMemberEntity(collectionId = collectionId, bookId = bookId, addedAt = now))
+        }
+    }
+
+    @Transaction
+    suspend fun importLegacy(collections: List<CollectionEntity>, members: List<CollectionMemberEntity>) {
+        insertCollections(collections)
+        insertMembers(members)
+    }
+}
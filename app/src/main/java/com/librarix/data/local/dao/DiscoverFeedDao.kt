@@ -0,0 +1,24 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.librarix.data.local.entity.DiscoverFeedEntity
+import com.librarix.data.local.entity.DiscoverFeedSection
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+interface DiscoverFeedDao {
+    @Query("SELECT section, payload, lastUpdated FROM discover_feed")
+    fun getSections(): Flow<List<DiscoverFeedSection>>
+
+    @Query("SELECT * FROM discover_feed WHERE section = :section")
+    suspend fun getSection(section: String): DiscoverFeedEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun upsert(section: DiscoverFeedEntity)
+
+    @Query("UPDATE discover_feed SET fetchedAt = :fetchedAt WHERE section = :section")
+    suspend fun markFetched(section: String, fetchedAt: Long)
+}
@@ -0,0 +1,46 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Update
+import androidx.room.Upsert
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.NoteWithBook
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+interface NoteDao {
+    @Query("SELECT * FROM book_notes WHERE bookId = :bookId ORDER BY createdAt DESC")
+    fun getNotesForBook(bookId: String): Flow<List<BookNoteEntity>>
+
+    @Query("SELECT * FROM book_notes WHERE bookId = :bookId ORDER BY createdAt DESC")
+    suspend fun getNotesForBookOnce(bookId: String): List<BookNoteEntity>
+
+    @Query(
+        """
+        SELECT book_notes.id, book_notes.bookId, book_notes.text, book_notes.createdAt,
+            books.title AS bookTitle, books.author AS bookAuthor
+        FROM book_notes
+        JOIN books ON books.id = book_notes.bookId
+        ORDER BY book_notes.createdAt DESC
+        LIMIT :limit
+        """
+    )
+    fun getLatestNotes(limit: Int): Flow<List<NoteWithBook>>
+
+    // Upsert, not REPLACE, so the book_notes_fts triggers see every change (see BookDao.upsertBook).
+    @Upsert
+    suspend fun upsertNote(note: BookNoteEntity)
+
+    @Upsert
+    suspend fun upsertNotes(notes: List<BookNoteEntity>)
+
+    @Update
+    suspend fun updateNote(note: BookNoteEntity)
+
+    @Query("DELETE FROM book_notes WHERE id = :noteId")
+    suspend fun deleteNoteById(noteId: String)
+
+    @Query("DELETE FROM book_notes WHERE bookId = :bookId")
+    suspend fun deleteNotesForBook(bookId: String)
+}
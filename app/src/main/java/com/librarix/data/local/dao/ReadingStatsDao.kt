@@ -0,0 +1,112 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import com.librarix.data.local.ReadingDay
+import com.librarix.data.local.addSession
+import com.librarix.data.local.entity.ReadingDayEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
+import kotlinx.coroutines.flow.Flow
+import java.time.ZoneId
+
+@Dao
+interface ReadingStatsDao {
+    @Query("SELECT * FROM reading_sessions ORDER BY date DESC")
+    fun getSessions(): Flow<List<ReadingSessionEntity>>
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertSession(session: ReadingSessionEntity)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertSessions(sessions: List<ReadingSessionEntity>)
+
+    @Query("SELECT * FROM reading_days")
+    fun getDays(): Flow<List<ReadingDayEntity>>
+
+    /**
+     * Length of the reading streak ending [today], or yesterday if nothing is
+     * logged today. Scans days backwards from there by primary key and stops at
+     * the first one whose predecessor is missing, so it reads O(streak) rows.
+     */
+    @Query(
+        """
+        SELECT IFNULL((
+            SELECT e.epochDay - d.epochDay + 1
+            FROM reading_days e, reading_days d
+            WHERE e.epochDay = (SELECT MAX(epochDay) FROM reading_days WHERE epochDay BETWEEN :today - 1 AND :today)
+                AND d.epochDay <= e.epochDay
+                AND NOT EXISTS (SELECT 1 FROM reading_days p WHERE p.epochDay = d.epochDay - 1)
+            ORDER BY d.epochDay DESC
+            LIMIT 1
+        ), 0)
+        """
+    )
+    fun getStreak(today: Long): Flow<Int>
+
+    /** Pages read from [fromDay] to [toDay] inclusive; a primary-key range, so a week reads at most seven rows. */
+    @Query("SELECT IFNULL(SUM(pages), 0) FROM reading_days WHERE epochDay BETWEEN :fromDay AND :toDay")
+    fun getPagesBetween(fromDay: Long, toDay: Long): Flow<Int>
+
+    @Query("INSERT OR IGNORE INTO reading_days (epochDay, pages, minutes) VALUES (:epochDay, 0, 0)")
+    suspend fun ensureDay(epochDay: Long)
+
+    @Query("UPDATE reading_days SET pages = pages + :pages, minutes = minutes + :minutes WHERE epochDay = :epochDay")
+    suspend fun addToDay(epochDay: Long, pages: Int, minutes: Int)
+
+    @Query("SELECT * FROM reading_sessions WHERE id > :afterId ORDER BY id LIMIT :limit")
+    suspend fun sessionsAfter(afterId: String, limit: Int): List<ReadingSessionEntity>
+
+    @Query("DELETE FROM reading_days")
+    suspend fun clearDays()
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertDays(days: List<ReadingDayEntity>)
+
+    /**
+     * Recomputes every day total from the sessions table, bucketing each session
+     * by its calendar day in [zone]. Sessions logged in another zone move to
+     * [zone]'s calendar, unlike day totals kept up by [logSession].
+     */
+    @Transaction
+    suspend fun rebuildDays(zone: ZoneId) {
+        val totals = HashMap<Long, ReadingDay>()
+        var afterId = ""
+        while (true) {
+            val page = sessionsAfter(afterId, REBUILD_PAGE_SIZE)
+            if (page.isEmpty()) break
+            page.forEach { totals.addSession(it.date, it.pagesDelta, it.minutes, zone) }
+            afterId = page.last().id
+        }
+        clearDays()
+        insertDays(totals.values.map { ReadingDayEntity(it.epochDay, it.pages, it.minutes) })
+    }
+
+    @Query("SELECT * FROM reading_goals")
+    fun getGoals(): Flow<List<ReadingGoalEntity>>
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun upsertGoal(goal: ReadingGoalEntity)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun upsertGoals(goals: List<ReadingGoalEntity>)
+
+    @Transaction
+    suspend fun logSession(session: ReadingSessionEntity, epochDay: Long) {
+        insertSession(session)
+        ensureDay(epochDay)
+        addToDay(epochDay, session.pagesDelta, session.minutes)
+    }
+
+    @Transaction
+    suspend fun importLegacy(sessions: List<ReadingSessionEntity>, goals: List<ReadingGoalEntity>, zone: ZoneId) {
+        insertSessions(sessions)
+        upsertGoals(goals)
+        rebuildDays(zone)
+    }
+}
+
+private const val REBUILD_PAGE_SIZE = 1_000
@@ -0,0 +1,54 @@
+package com.librarix.data.local.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.librarix.data.local.entity.PendingChangeEntity
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+interface SyncDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun enqueue(change: PendingChangeEntity)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun enqueueAll(changes: List<PendingChangeEntity>)
+
+    /** Queues every book for upload, e.g. after a restore replaced the library. */
+    @Query(
+        """
+        INSERT OR REPLACE INTO pending_changes (entityType, entityId, op, changedAt, version)
+        SELECT 'book', id, 'UPSERT', updatedAt, version FROM books
+        """
+    )
+    suspend fun enqueueAllBooks()
+
+    /** Queues a delete for every book, e.g. before a restore replaces the library. */
+    @Query(
+        """
+        INSERT OR REPLACE INTO pending_changes (entityType, entityId, op, changedAt, version)
+        SELECT 'book', id, 'DELETE', :now, version + 1 FROM books
+        """
+    )
+    suspend fun enqueueDeleteAllBooks(now: Long)
+
+    @Query("SELECT * FROM pending_changes ORDER BY id LIMIT :limit")
+    suspend fun getPending(limit: Int): List<PendingChangeEntity>
+
+    @Query("SELECT * FROM pending_changes WHERE entityType = :entityType AND entityId = :entityId")
+    suspend fun getPendingFor(entityType: String, entityId: String): PendingChangeEntity?
+
+    @Query("DELETE FROM pending_changes WHERE entityType = :entityType AND entityId = :entityId")
+    suspend fun removeFor(entityType: String, entityId: String)
+
+    /** Removes pushed rows by outbox id; a change re-queued mid-push has a new id and survives. */
+    @Query("DELETE FROM pending_changes WHERE id IN (:ids)")
+    suspend fun remove(ids: List<Long>)
+
+    @Query("DELETE FROM pending_changes")
+    suspend fun clear()
+
+    @Query("SELECT COUNT(*) FROM pending_changes")
+    fun getPendingCount(): Flow<Int>
+}
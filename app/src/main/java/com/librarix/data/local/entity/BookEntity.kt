@@ -1,9 +1,20 @@
 package com.librarix.data.local.entity
 
+import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 
-@Entity(tableName = "books")
+@Entity(
+    tableName = "books",
+    indices = [
+        Index(value = ["lastProgressUpdate"]),
+        Index(value = ["addedDate"]),
+        Index(value = ["status", "lastProgressUpdate"]),
+        Index(value = ["status", "finishedDate"]),
+        Index(value = ["isFavorite", "lastProgressUpdate"])
+    ]
+)
 data class BookEntity(
     @PrimaryKey
     val id: String,
@@ -27,5 +38,26 @@ data class BookEntity(
     val openLibraryWorkKey: String?,
     val isbn: String?,
     val remoteId: String?,
-    val notesJson: String?
+    // Set once the background enrichment pass has looked this row up, hit or miss.
+    val enrichedAt: Long? = null,
+    // Sync bookkeeping: last local or remote write wins, version breaks timestamp ties.
+    @ColumnInfo(defaultValue = "0")
+    val updatedAt: Long = 0,
+    @ColumnInfo(defaultValue = "0")
+    val version: Int = 0
+)
+
+/** Metadata found for one book by the enrichment pass; null fields were not found. */
+data class BookEnrichment(
+    val bookId: String,
+    val coverURLString: String?,
+    val pageCount: Int?,
+    val workKey: String?,
+    val description: String?
+)
+
+/** A saved book's remote cover, as mirrored by the offline cover store. */
+data class BookCoverSource(
+    val bookId: String,
+    val coverURLString: String
 )
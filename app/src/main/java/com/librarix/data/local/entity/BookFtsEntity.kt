@@ -0,0 +1,18 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+
+/**
+ * Full-text shadow of [BookEntity]. Room keeps it in sync with `books`
+ * through content-sync triggers, so rows are matched by `books.rowid`.
+ */
+@Fts4(contentEntity = BookEntity::class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "books_fts")
+data class BookFtsEntity(
+    val title: String,
+    val author: String,
+    val isbn: String?,
+    val description: String?
+)
@@ -0,0 +1,32 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+@Entity(
+    tableName = "book_notes",
+    indices = [
+        Index(value = ["bookId", "createdAt"]),
+        Index(value = ["createdAt"])
+    ]
+)
+data class BookNoteEntity(
+    @PrimaryKey
+    val id: String,
+    val bookId: String,
+    val text: String,
+    val pageNumber: Int?,
+    val createdAt: Long,
+    val updatedAt: Long
+)
+
+/** A note joined with the title and author of the book it belongs to. */
+data class NoteWithBook(
+    val id: String,
+    val bookId: String,
+    val text: String,
+    val createdAt: Long,
+    val bookTitle: String,
+    val bookAuthor: String
+)
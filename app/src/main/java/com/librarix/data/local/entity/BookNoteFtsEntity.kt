@@ -0,0 +1,12 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+
+/** Full-text shadow of [BookNoteEntity.text], matched by `book_notes.rowid`. */
+@Fts4(contentEntity = BookNoteEntity::class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "book_notes_fts")
+data class BookNoteFtsEntity(
+    val text: String
+)
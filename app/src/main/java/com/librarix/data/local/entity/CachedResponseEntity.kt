@@ -0,0 +1,17 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+@Entity(
+    tableName = "http_cache",
+    indices = [Index(value = ["storedAt"])]
+)
+data class CachedResponseEntity(
+    @PrimaryKey
+    val key: String,
+    val body: String,
+    val storedAt: Long,
+    val sizeBytes: Int
+)
@@ -0,0 +1,37 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+@Entity(tableName = "collections")
+data class CollectionEntity(
+    @PrimaryKey
+    val id: String,
+    val userId: String?,
+    val title: String,
+    val description: String?,
+    val visibility: String,
+    val coverURLString: String?,
+    val createdAt: Long
+)
+
+/**
+ * Book-in-collection join row. The primary key serves lookups by collection;
+ * the bookId index serves the reverse "collections for this book" direction.
+ */
+@Entity(
+    tableName = "collection_members",
+    primaryKeys = ["collectionId", "bookId"],
+    indices = [Index(value = ["bookId"])]
+)
+data class CollectionMemberEntity(
+    val collectionId: String,
+    val bookId: String,
+    val addedAt: Long
+)
+
+data class BookCollectionCount(
+    val bookId: String,
+    val count: Int
+)
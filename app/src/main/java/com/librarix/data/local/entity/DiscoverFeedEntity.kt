@@ -0,0 +1,24 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * One cached Discover section. [payload] is the section's API response as
+ * JSON; [lastUpdated] is the server's own version stamp where it sends one.
+ */
+@Entity(tableName = "discover_feed")
+data class DiscoverFeedEntity(
+    @PrimaryKey
+    val section: String,
+    val payload: String,
+    val lastUpdated: String?,
+    val fetchedAt: Long
+)
+
+/** [DiscoverFeedEntity] without the fetch time, so refresh bookkeeping doesn't re-emit. */
+data class DiscoverFeedSection(
+    val section: String,
+    val payload: String,
+    val lastUpdated: String?
+)
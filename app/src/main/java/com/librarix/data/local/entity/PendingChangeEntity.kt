@@ -0,0 +1,30 @@
+package com.librarix.data.local.entity
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * Sync outbox row. There is at most one per entity: a newer change to the same
+ * row replaces the older one (and gets a new [id]), so the outbox never grows
+ * past the number of changed rows and the pusher always sends current state.
+ */
+@Entity(
+    tableName = "pending_changes",
+    indices = [Index(value = ["entityType", "entityId"], unique = true)]
+)
+data class PendingChangeEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Long = 0,
+    val entityType: String,
+    val entityId: String,
+    val op: String,
+    val changedAt: Long,
+    val version: Int
+) {
+    companion object {
+        const val TYPE_BOOK = "book"
+        const val OP_UPSERT = "UPSERT"
+        const val OP_DELETE = "DELETE"
+    }
+}
@@ -0,0 +1,35 @@
+package com.librarix.data.local.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+@Entity(
+    tableName = "reading_sessions",
+    indices = [Index(value = ["date"])]
+)
+data class ReadingSessionEntity(
+    @PrimaryKey
+    val id: String,
+    val date: Long,
+    val pagesDelta: Int,
+    @ColumnInfo(defaultValue = "0")
+    val minutes: Int = 0
+)
+
+/** Per-day totals keyed by local epoch day, maintained alongside every session insert. */
+@Entity(tableName = "reading_days")
+data class ReadingDayEntity(
+    @PrimaryKey
+    val epochDay: Long,
+    val pages: Int,
+    val minutes: Int
+)
+
+@Entity(tableName = "reading_goals")
+data class ReadingGoalEntity(
+    @PrimaryKey
+    val year: Int,
+    val goal: Int
+)
@@ -1,5 +1,7 @@
 package com.librarix.data.remote
 
+import com.librarix.data.local.CachePolicy
+import com.librarix.data.local.ResponseCache
 import com.squareup.moshi.Json
 import com.squareup.moshi.JsonClass
 import retrofit2.http.GET
@@ -164,11 +166,21 @@ interface BookBrainApi {
 
 @Singleton
 class BookAPIClient @Inject constructor(
-    private val api: BookBrainApi
+    private val api: BookBrainApi,
+    private val cache: ResponseCache
 ) {
+    private val inFlight = SingleFlight()
+
+    private suspend fun <T : Any> cached(
+        key: String,
+        type: Class<T>,
+        policy: CachePolicy,
+        fetch: suspend () -> T
+    ): T = inFlight.run(key) { cache.get(CACHE_PREFIX + key, type, policy, fetch) }
+
     suspend fun getPickOfTheWeek(): Result<PickOfTheWeekResponse> {
         return try {
-            Result.success(api.getPickOfTheWeek())
+            Result.success(inFlight.run("pick-of-the-week") { api.getPickOfTheWeek() })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -176,7 +188,7 @@ class BookAPIClient @Inject constructor(
 
     suspend fun getTrending(): Result<TrendingResponse> {
         return try {
-            Result.success(api.getTrending())
+            Result.success(inFlight.run("trending") { api.getTrending() })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -184,7 +196,7 @@ class BookAPIClient @Inject constructor(
 
     suspend fun getTopSellers(): Result<TopSellersResponse> {
         return try {
-            Result.success(api.getTopSellers())
+            Result.success(inFlight.run("top-sellers") { api.getTopSellers() })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -192,7 +204,7 @@ class BookAPIClient @Inject constructor(
 
     suspend fun getCollections(): Result<CollectionsResponse> {
         return try {
-            Result.success(api.getCollections())
+            Result.success(inFlight.run("collections") { api.getCollections() })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -200,7 +212,7 @@ class BookAPIClient @Inject constructor(
 
     suspend fun getBook(isbn: String): Result<BookAPIData> {
         return try {
-            Result.success(api.getBook(isbn))
+            Result.success(cached("book:$isbn", BookAPIData::class.java, CachePolicy.LONG) { api.getBook(isbn) })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -208,9 +220,13 @@ class BookAPIClient @Inject constructor(
 
     suspend fun getHealth(): Result<APIHealth> {
         return try {
-            Result.success(api.getHealth())
+            Result.success(inFlight.run("health") { api.getHealth() })
         } catch (e: Exception) {
             Result.failure(e)
         }
     }
+
+    private companion object {
+        const val CACHE_PREFIX = "bookbrain:"
+    }
 }
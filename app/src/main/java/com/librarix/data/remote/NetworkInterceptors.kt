@@ -0,0 +1,64 @@
+package com.librarix.data.remote
+
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.NetworkCapabilities
+import okhttp3.CacheControl
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.util.concurrent.TimeUnit
+
+/**
+ * Serves GETs straight from the OkHttp disk cache while the device is offline,
+ * accepting entries up to [maxStaleDays] old. Online requests are untouched, so
+ * the server's own cache headers decide freshness.
+ */
+class OfflineCacheInterceptor(
+    context: Context,
+    private val maxStaleDays: Int = 7
+) : Interceptor {
+    private val connectivity = context.getSystemService(ConnectivityManager::class.java)
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.method != "GET" || isOnline()) return chain.proceed(request)
+        val forced = request.newBuilder()
+            .cacheControl(
+                CacheControl.Builder()
+                    .onlyIfCached()
+                    .maxStale(maxStaleDays, TimeUnit.DAYS)
+                    .build()
+            )
+            .build()
+        return chain.proceed(forced)
+    }
+
+    private fun isOnline(): Boolean {
+        val capabilities = connectivity?.getNetworkCapabilities(connectivity.activeNetwork) ?: return false
+        return capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+    }
+}
+
+data class HostTimeouts(
+    val connectMillis: Int,
+    val readMillis: Int,
+    val writeMillis: Int = readMillis
+)
+
+/**
+ * Applies per-host timeouts on top of the client defaults, e.g. a short read
+ * timeout for the edge-cached BookBrain worker and a longer one for Open Library.
+ */
+class HostTimeoutInterceptor(
+    private val timeouts: Map<String, HostTimeouts>
+) : Interceptor {
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val config = timeouts[request.url.host] ?: return chain.proceed(request)
+        return chain
+            .withConnectTimeout(config.connectMillis, TimeUnit.MILLISECONDS)
+            .withReadTimeout(config.readMillis, TimeUnit.MILLISECONDS)
+            .withWriteTimeout(config.writeMillis, TimeUnit.MILLISECONDS)
+            .proceed(request)
+    }
+}
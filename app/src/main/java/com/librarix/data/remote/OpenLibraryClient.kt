@@ -1,10 +1,13 @@
 package com.librarix.data.remote
 
-import com.squareup.moshi.Json
-import com.squareup.moshi.JsonClass
+import com.librarix.data.local.CachePolicy
+import com.librarix.data.local.ResponseCache
+import com.librarix.data.local.ResponseCacheStats
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import retrofit2.http.GET
 import retrofit2.http.Path
 import retrofit2.http.Query
@@ -35,7 +38,8 @@ interface OpenLibraryApi {
     @GET("search/authors.json")
     suspend fun searchAuthors(
         @Query("q") q: String,
-        @Query("limit") limit: Int = 10
+        @Query("limit") limit: Int = 10,
+        @Query("fields") fields: String = "key,name,top_work,work_count"
     ): OpenLibraryAuthorSearchResponse
 
     @GET("authors/{authorId}.json")
@@ -67,27 +71,28 @@ interface OpenLibraryApi {
 
 @Singleton
 class OpenLibraryClient @Inject constructor(
-    private val api: OpenLibraryApi
+    private val api: OpenLibraryApi,
+    private val cache: ResponseCache
 ) {
-    // Simple LRU cache using LinkedHashMap
-    private val cache = object : LinkedHashMap<String, Any>(64, 0.75f, true) {
-        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Any>?): Boolean {
-            return size > 128
-        }
-    }
+    private val inFlight = SingleFlight()
+    private val isbnPermits = Semaphore(MAX_CONCURRENT_ISBN_REQUESTS)
 
-    @Suppress("UNCHECKED_CAST")
-    private fun <T> getCached(key: String): T? = synchronized(cache) { cache[key] as? T }
+    fun cacheStats(): ResponseCacheStats = cache.stats()
 
-    private fun putCached(key: String, value: Any) = synchronized(cache) { cache[key] = value }
+    // Concurrent callers for the same key share one cache lookup and at most one network call.
+    private suspend fun <T : Any> cached(
+        key: String,
+        type: Class<T>,
+        policy: CachePolicy,
+        fetch: suspend () -> T
+    ): T = inFlight.run(key) { cache.get(key, type, policy, fetch) }
 
     suspend fun searchBooks(query: String, limit: Int = 24): Result<OpenLibrarySearchResponse> {
         val cacheKey = "search:$query:$limit"
-        getCached<OpenLibrarySearchResponse>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.search(q = query, limit = limit)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibrarySearchResponse::class.java, CachePolicy.SHORT) {
+                api.search(q = query, limit = limit)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -105,11 +110,10 @@ class OpenLibraryClient @Inject constructor(
     suspend fun fetchWorkDetails(workKey: String): Result<OpenLibraryWorkDetail> {
         val workId = workKey.removePrefix("/works/")
         val cacheKey = "work:$workId"
-        getCached<OpenLibraryWorkDetail>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.getWork(workId)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibraryWorkDetail::class.java, CachePolicy.LONG) {
+                api.getWork(workId)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -118,11 +122,10 @@ class OpenLibraryClient @Inject constructor(
     suspend fun fetchWorkEditions(workKey: String, limit: Int = 50): Result<OpenLibraryEditionsResponse> {
         val workId = workKey.removePrefix("/works/")
         val cacheKey = "editions:$workId:$limit"
-        getCached<OpenLibraryEditionsResponse>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.getWorkEditions(workId, limit)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibraryEditionsResponse::class.java, CachePolicy.LONG) {
+                api.getWorkEditions(workId, limit)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -130,11 +133,10 @@ class OpenLibraryClient @Inject constructor(
 
     suspend fun searchAuthors(query: String, limit: Int = 10): Result<OpenLibraryAuthorSearchResponse> {
         val cacheKey = "authorSearch:$query:$limit"
-        getCached<OpenLibraryAuthorSearchResponse>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.searchAuthors(query, limit)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibraryAuthorSearchResponse::class.java, CachePolicy.MEDIUM) {
+                api.searchAuthors(query, limit)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -143,11 +145,10 @@ class OpenLibraryClient @Inject constructor(
     suspend fun fetchAuthor(authorKey: String): Result<OpenLibraryAuthor> {
         val authorId = authorKey.removePrefix("/authors/")
         val cacheKey = "author:$authorId"
-        getCached<OpenLibraryAuthor>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.getAuthor(authorId)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibraryAuthor::class.java, CachePolicy.LONG) {
+                api.getAuthor(authorId)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -156,11 +157,10 @@ class OpenLibraryClient @Inject constructor(
     suspend fun fetchAuthorWorks(authorKey: String, limit: Int = 50): Result<OpenLibraryAuthorWorksResponse> {
         val authorId = authorKey.removePrefix("/authors/")
         val cacheKey = "authorWorks:$authorId:$limit"
-        getCached<OpenLibraryAuthorWorksResponse>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.getAuthorWorks(authorId, limit)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibraryAuthorWorksResponse::class.java, CachePolicy.LONG) {
+                api.getAuthorWorks(authorId, limit)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -186,11 +186,10 @@ class OpenLibraryClient @Inject constructor(
 
     suspend fun fetchSubjectWorks(subject: String, limit: Int = 18): Result<OpenLibrarySubjectResponse> {
         val cacheKey = "subject:$subject:$limit"
-        getCached<OpenLibrarySubjectResponse>(cacheKey)?.let { return Result.success(it) }
         return try {
-            val response = api.getSubjectWorks(subject, limit)
-            putCached(cacheKey, response)
-            Result.success(response)
+            Result.success(cached(cacheKey, OpenLibrarySubjectResponse::class.java, CachePolicy.MEDIUM) {
+                api.getSubjectWorks(subject, limit)
+            })
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -203,7 +202,9 @@ class OpenLibraryClient @Inject constructor(
                 isbns.chunked(20).map { chunk ->
                     async {
                         val bibkeys = chunk.joinToString(",") { "ISBN:$it" }
-                        api.getBooksByISBN(bibkeys = bibkeys)
+                        isbnPermits.withPermit {
+                            inFlight.run("isbn:$bibkeys") { api.getBooksByISBN(bibkeys = bibkeys) }
+                        }
                     }
                 }.awaitAll()
             }
@@ -230,225 +231,8 @@ class OpenLibraryClient @Inject constructor(
             Result.failure(e)
         }
     }
-}
-
-// ============================================================
-// Data Models
-// ============================================================
-
-// --- Search ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibrarySearchResponse(
-    @Json(name = "numFound") val numFound: Int?,
-    @Json(name = "docs") val docs: List<OpenLibraryDoc>
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryDoc(
-    @Json(name = "key") val key: String,
-    @Json(name = "title") val title: String?,
-    @Json(name = "author_name") val authorName: List<String>?,
-    @Json(name = "cover_i") val coverI: Int?,
-    @Json(name = "isbn") val isbn: List<String>?,
-    @Json(name = "first_publish_year") val firstPublishYear: Int?,
-    @Json(name = "number_of_pages_median") val numberOfPagesMedian: Int?
-) {
-    val displayTitle: String
-        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
-    val displayAuthor: String
-        get() = authorName?.firstOrNull()?.trim()?.takeIf { it.isNotEmpty() } ?: "Unknown author"
-    val bestISBN: String?
-        get() = isbn?.firstOrNull { it.trim().length == 13 } ?: isbn?.firstOrNull()
-
-    fun coverUrl(size: String = "L"): String? {
-        coverI?.let { return "https://covers.openlibrary.org/b/id/$it-$size.jpg" }
-        bestISBN?.let { return "https://covers.openlibrary.org/b/isbn/$it-$size.jpg" }
-        return null
-    }
-}
-
-// --- Work Detail ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryWorkDetail(
-    @Json(name = "title") val title: String?,
-    @Json(name = "description") val description: Any?,
-    @Json(name = "covers") val covers: List<Int>?,
-    @Json(name = "authors") val authors: List<OpenLibraryWorkAuthorRef>?
-) {
-    val descriptionValue: String?
-        get() {
-            return when (description) {
-                is String -> (description as String).trim().takeIf { it.isNotEmpty() }
-                is Map<*, *> -> ((description as Map<*, *>)["value"] as? String)?.trim()?.takeIf { it.isNotEmpty() }
-                else -> null
-            }
-        }
-}
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryWorkAuthorRef(
-    @Json(name = "author") val author: OpenLibraryKeyRef?
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryKeyRef(
-    @Json(name = "key") val key: String?
-)
-
-// --- Author Search ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryAuthorSearchResponse(
-    @Json(name = "numFound") val numFound: Int?,
-    @Json(name = "docs") val docs: List<OpenLibraryAuthorSearchDoc>
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryAuthorSearchDoc(
-    @Json(name = "key") val key: String?,
-    @Json(name = "name") val name: String?,
-    @Json(name = "top_work") val topWork: String?,
-    @Json(name = "work_count") val workCount: Int?
-)
-
-// --- Author Profile ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryAuthor(
-    @Json(name = "key") val key: String?,
-    @Json(name = "name") val name: String?,
-    @Json(name = "bio") val bio: Any?,
-    @Json(name = "photos") val photos: List<Int>?
-) {
-    val bioValue: String?
-        get() {
-            return when (bio) {
-                is String -> (bio as String).trim().takeIf { it.isNotEmpty() }
-                is Map<*, *> -> ((bio as Map<*, *>)["value"] as? String)?.trim()?.takeIf { it.isNotEmpty() }
-                else -> null
-            }
-        }
-}
-
-// --- Author Works ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryAuthorWorksResponse(
-    @Json(name = "size") val size: Int?,
-    @Json(name = "entries") val entries: List<OpenLibraryAuthorWork>
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryAuthorWork(
-    @Json(name = "key") val key: String,
-    @Json(name = "title") val title: String?,
-    @Json(name = "covers") val covers: List<Int>?,
-    @Json(name = "first_publish_date") val firstPublishDate: String?
-) {
-    val displayTitle: String
-        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
-    val firstPublishYear: String?
-        get() = firstPublishDate?.trim()?.take(4)?.takeIf { it.isNotEmpty() }
-
-    fun coverUrl(size: String = "L"): String? =
-        covers?.firstOrNull()?.let { "https://covers.openlibrary.org/b/id/$it-$size.jpg" }
-}
-
-// --- Subject Works ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibrarySubjectResponse(
-    @Json(name = "name") val name: String?,
-    @Json(name = "work_count") val workCount: Int?,
-    @Json(name = "works") val works: List<OpenLibrarySubjectWork>
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibrarySubjectWork(
-    @Json(name = "key") val key: String,
-    @Json(name = "title") val title: String?,
-    @Json(name = "cover_id") val coverID: Int?,
-    @Json(name = "first_publish_year") val firstPublishYear: Int?,
-    @Json(name = "authors") val authors: List<OpenLibrarySubjectAuthor>?
-) {
-    val displayTitle: String
-        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
-    val displayAuthor: String
-        get() = authors?.firstOrNull()?.name?.trim()?.takeIf { it.isNotEmpty() } ?: "Unknown author"
-
-    fun coverUrl(size: String = "L"): String? =
-        coverID?.let { "https://covers.openlibrary.org/b/id/$it-$size.jpg" }
-}
-
-@JsonClass(generateAdapter = true)
-data class OpenLibrarySubjectAuthor(
-    @Json(name = "name") val name: String,
-    @Json(name = "key") val key: String?
-)
-
-// --- ISBN /api/books ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryISBNBook(
-    @Json(name = "title") val title: String?,
-    @Json(name = "authors") val authors: List<OpenLibraryISBNAuthor>?,
-    @Json(name = "cover") val cover: OpenLibraryISBNCover?,
-    @Json(name = "key") val key: String?,
-    @Json(name = "works") val works: List<OpenLibraryKeyRef>?,
-    @Json(name = "number_of_pages") val numberOfPages: Int?,
-    @Json(name = "publishers") val publishers: List<OpenLibraryISBNPublisher>?
-) {
-    val displayTitle: String
-        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
-    val displayAuthor: String
-        get() = authors?.firstOrNull()?.name?.trim()?.takeIf { it.isNotEmpty() } ?: "Unknown author"
-    val workKey: String?
-        get() = works?.firstOrNull()?.key?.trim()?.takeIf { it.isNotEmpty() }
-            ?: key?.trim()?.takeIf { it.isNotEmpty() }
-    val pageCount: Int?
-        get() = numberOfPages
 
-    fun coverUrl(preferLarge: Boolean = true): String? {
-        if (preferLarge) cover?.large?.let { return it }
-        cover?.medium?.let { return it }
-        cover?.small?.let { return it }
-        return null
+    private companion object {
+        const val MAX_CONCURRENT_ISBN_REQUESTS = 4
     }
 }
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryISBNAuthor(
-    @Json(name = "name") val name: String,
-    @Json(name = "key") val key: String?
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryISBNPublisher(
-    @Json(name = "name") val name: String
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryISBNCover(
-    @Json(name = "small") val small: String?,
-    @Json(name = "medium") val medium: String?,
-    @Json(name = "large") val large: String?
-)
-
-// --- Editions ---
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryEditionsResponse(
-    @Json(name = "size") val size: Int?,
-    @Json(name = "entries") val entries: List<OpenLibraryEdition>
-)
-
-@JsonClass(generateAdapter = true)
-data class OpenLibraryEdition(
-    @Json(name = "key") val key: String,
-    @Json(name = "title") val title: String?,
-    @Json(name = "number_of_pages") val numberOfPages: Int?,
-    @Json(name = "isbn_10") val isbn10: List<String>?,
-    @Json(name = "isbn_13") val isbn13: List<String>?
-)
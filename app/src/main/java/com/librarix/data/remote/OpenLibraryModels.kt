@@ -0,0 +1,210 @@
+package com.librarix.data.remote
+
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
+
+// --- Search ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibrarySearchResponse(
+    @Json(name = "numFound") val numFound: Int?,
+    @Json(name = "docs") val docs: List<OpenLibraryDoc>
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryDoc(
+    @Json(name = "key") val key: String,
+    @Json(name = "title") val title: String?,
+    @Json(name = "author_name") val authorName: List<String>?,
+    @Json(name = "cover_i") val coverI: Int?,
+    @Json(name = "isbn") val isbn: List<String>?,
+    @Json(name = "first_publish_year") val firstPublishYear: Int?,
+    @Json(name = "number_of_pages_median") val numberOfPagesMedian: Int?
+) {
+    val displayTitle: String
+        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
+    val displayAuthor: String
+        get() = authorName?.firstOrNull()?.trim()?.takeIf { it.isNotEmpty() } ?: "Unknown author"
+    val bestISBN: String?
+        get() = isbn?.firstOrNull { it.trim().length == 13 } ?: isbn?.firstOrNull()
+
+    fun coverUrl(size: String = "L"): String? {
+        coverI?.let { return "https://covers.openlibrary.org/b/id/$it-$size.jpg" }
+        bestISBN?.let { return "https://covers.openlibrary.org/b/isbn/$it-$size.jpg" }
+        return null
+    }
+}
+
+// --- Work Detail ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryWorkDetail(
+    @Json(name = "title") val title: String?,
+    @Json(name = "description") @TextValue val description: String?,
+    @Json(name = "covers") val covers: List<Int>?,
+    @Json(name = "authors") val authors: List<OpenLibraryWorkAuthorRef>?
+) {
+    val descriptionValue: String?
+        get() = description?.trim()?.takeIf { it.isNotEmpty() }
+}
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryWorkAuthorRef(
+    @Json(name = "author") val author: OpenLibraryKeyRef?
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryKeyRef(
+    @Json(name = "key") val key: String?
+)
+
+// --- Author Search ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryAuthorSearchResponse(
+    @Json(name = "numFound") val numFound: Int?,
+    @Json(name = "docs") val docs: List<OpenLibraryAuthorSearchDoc>
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryAuthorSearchDoc(
+    @Json(name = "key") val key: String?,
+    @Json(name = "name") val name: String?,
+    @Json(name = "top_work") val topWork: String?,
+    @Json(name = "work_count") val workCount: Int?
+)
+
+// --- Author Profile ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryAuthor(
+    @Json(name = "key") val key: String?,
+    @Json(name = "name") val name: String?,
+    @Json(name = "bio") @TextValue val bio: String?,
+    @Json(name = "photos") val photos: List<Int>?
+) {
+    val bioValue: String?
+        get() = bio?.trim()?.takeIf { it.isNotEmpty() }
+}
+
+// --- Author Works ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryAuthorWorksResponse(
+    @Json(name = "size") val size: Int?,
+    @Json(name = "entries") val entries: List<OpenLibraryAuthorWork>
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryAuthorWork(
+    @Json(name = "key") val key: String,
+    @Json(name = "title") val title: String?,
+    @Json(name = "covers") val covers: List<Int>?,
+    @Json(name = "first_publish_date") val firstPublishDate: String?
+) {
+    val displayTitle: String
+        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
+    val firstPublishYear: String?
+        get() = firstPublishDate?.trim()?.take(4)?.takeIf { it.isNotEmpty() }
+
+    fun coverUrl(size: String = "L"): String? =
+        covers?.firstOrNull()?.let { "https://covers.openlibrary.org/b/id/$it-$size.jpg" }
+}
+
+// --- Subject Works ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibrarySubjectResponse(
+    @Json(name = "name") val name: String?,
+    @Json(name = "work_count") val workCount: Int?,
+    @Json(name = "works") val works: List<OpenLibrarySubjectWork>
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibrarySubjectWork(
+    @Json(name = "key") val key: String,
+    @Json(name = "title") val title: String?,
+    @Json(name = "cover_id") val coverID: Int?,
+    @Json(name = "first_publish_year") val firstPublishYear: Int?,
+    @Json(name = "authors") val authors: List<OpenLibrarySubjectAuthor>?
+) {
+    val displayTitle: String
+        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
+    val displayAuthor: String
+        get() = authors?.firstOrNull()?.name?.trim()?.takeIf { it.isNotEmpty() } ?: "Unknown author"
+
+    fun coverUrl(size: String = "L"): String? =
+        coverID?.let { "https://covers.openlibrary.org/b/id/$it-$size.jpg" }
+}
+
+@JsonClass(generateAdapter = true)
+data class OpenLibrarySubjectAuthor(
+    @Json(name = "name") val name: String,
+    @Json(name = "key") val key: String?
+)
+
+// --- ISBN /api/books ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryISBNBook(
+    @Json(name = "title") val title: String?,
+    @Json(name = "authors") val authors: List<OpenLibraryISBNAuthor>?,
+    @Json(name = "cover") val cover: OpenLibraryISBNCover?,
+    @Json(name = "key") val key: String?,
+    @Json(name = "works") val works: List<OpenLibraryKeyRef>?,
+    @Json(name = "number_of_pages") val numberOfPages: Int?,
+    @Json(name = "publishers") val publishers: List<OpenLibraryISBNPublisher>?
+) {
+    val displayTitle: String
+        get() = title?.trim()?.takeIf { it.isNotEmpty() } ?: "Untitled"
+    val displayAuthor: String
+        get() = authors?.firstOrNull()?.name?.trim()?.takeIf { it.isNotEmpty() } ?: "Unknown author"
+    // [key] is the edition (/books/…); only a /works/ key names the work, so
+    // without a works entry there is no work key rather than a wrong one.
+    val workKey: String?
+        get() = works?.firstNotNullOfOrNull { ref -> ref.key?.trim()?.takeIf { it.startsWith("/works/") } }
+    val pageCount: Int?
+        get() = numberOfPages
+
+    fun coverUrl(preferLarge: Boolean = true): String? {
+        if (preferLarge) cover?.large?.let { return it }
+        cover?.medium?.let { return it }
+        cover?.small?.let { return it }
+        return null
+    }
+}
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryISBNAuthor(
+    @Json(name = "name") val name: String,
+    @Json(name = "key") val key: String?
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryISBNPublisher(
+    @Json(name = "name") val name: String
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryISBNCover(
+    @Json(name = "small") val small: String?,
+    @Json(name = "medium") val medium: String?,
+    @Json(name = "large") val large: String?
+)
+
+// --- Editions ---
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryEditionsResponse(
+    @Json(name = "size") val size: Int?,
+    @Json(name = "entries") val entries: List<OpenLibraryEdition>
+)
+
+@JsonClass(generateAdapter = true)
+data class OpenLibraryEdition(
+    @Json(name = "key") val key: String,
+    @Json(name = "title") val title: String?,
+    @Json(name = "number_of_pages") val numberOfPages: Int?,
+    @Json(name = "isbn_10") val isbn10: List<String>?,
+    @Json(name = "isbn_13") val isbn13: List<String>?
+)
@@ -0,0 +1,38 @@
+package com.librarix.data.remote
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.delay
+import retrofit2.HttpException
+import java.io.IOException
+
+/**
+ * Runs [block], retrying transient failures with exponential backoff. Anything
+ * [isTransient] rejects, such as a 404, is rethrown at once: asking again
+ * would only get the same answer later.
+ */
+suspend fun <T> withRetry(
+    maxAttempts: Int,
+    initialBackoffMillis: Long,
+    block: suspend () -> T
+): T {
+    var backoffMillis = initialBackoffMillis
+    repeat(maxAttempts - 1) {
+        try {
+            return block()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            if (!e.isTransient()) throw e
+            delay(backoffMillis)
+            backoffMillis *= 2
+        }
+    }
+    return block()
+}
+
+/** Network failures, server errors and rate limiting; other HTTP errors are final. */
+fun Throwable.isTransient(): Boolean = when (this) {
+    is HttpException -> code() == 429 || code() >= 500
+    is IOException -> true
+    else -> false
+}
@@ -0,0 +1,36 @@
+package com.librarix.data.remote
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+
+/**
+ * Coalesces concurrent calls that share a key: the first caller starts [run]'s
+ * block, later callers await the same [Deferred] until it completes.
+ *
+ * The shared call runs in its own scope, so one caller being cancelled does
+ * not cancel the request for the others.
+ */
+class SingleFlight {
+    private val inFlight = HashMap<String, Deferred<Any?>>()
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    suspend fun <T> run(key: String, block: suspend () -> T): T {
+        val deferred = synchronized(inFlight) {
+            inFlight[key] ?: scope.async(start = CoroutineStart.LAZY) { block() as Any? }.also { created ->
+                inFlight[key] = created
+                created.invokeOnCompletion {
+                    synchronized(inFlight) {
+                        if (inFlight[key] === created) inFlight.remove(key)
+                    }
+                }
+            }
+        }
+        deferred.start()
+        @Suppress("UNCHECKED_CAST")
+        return deferred.await() as T
+    }
+}
@@ -1,5 +1,8 @@
 package com.librarix.data.remote
 
+import com.librarix.data.sync.BookChange
+import com.librarix.data.sync.SyncBackend
+import com.librarix.data.sync.SyncUnavailableException
 import com.librarix.domain.model.BookNote
 import com.librarix.domain.model.SavedBook
 import com.librarix.domain.model.UserCollection
@@ -15,8 +18,14 @@ import javax.inject.Singleton
 @Singleton
 class SupabaseDatabase @Inject constructor(
     private val supabaseAuthManager: SupabaseAuthManager
-) {
-    suspend fun syncBooks(books: List<SavedBook>) {}
+) : SyncBackend {
+    override suspend fun pushBooks(changes: List<BookChange>) {
+        throw SyncUnavailableException("Supabase not configured")
+    }
+
+    override suspend fun pullBooks(afterSeq: Long, limit: Int): List<BookChange> {
+        throw SyncUnavailableException("Supabase not configured")
+    }
 
     fun observeBooks(): Flow<List<SavedBook>> = flowOf(emptyList())
 
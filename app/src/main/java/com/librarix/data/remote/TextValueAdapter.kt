@@ -0,0 +1,53 @@
+package com.librarix.data.remote
+
+import com.squareup.moshi.FromJson
+import com.squareup.moshi.JsonQualifier
+import com.squareup.moshi.JsonReader
+import com.squareup.moshi.JsonWriter
+import com.squareup.moshi.ToJson
+
+/**
+ * Open Library text fields such as `description` and `bio` arrive either as a
+ * plain string or as `{"type": "/type/text", "value": "..."}`.
+ */
+@Retention(AnnotationRetention.RUNTIME)
+@JsonQualifier
+annotation class TextValue
+
+/** Reads a [TextValue] field as its string contents; writes it back as a plain string. */
+object TextValueAdapter {
+    private val VALUE_NAME = JsonReader.Options.of("value")
+
+    @FromJson
+    @TextValue
+    fun fromJson(reader: JsonReader): String? {
+        return when (reader.peek()) {
+            JsonReader.Token.STRING -> reader.nextString()
+            JsonReader.Token.BEGIN_OBJECT -> {
+                var value: String? = null
+                reader.beginObject()
+                while (reader.hasNext()) {
+                    when {
+                        reader.selectName(VALUE_NAME) == -1 -> {
+                            reader.skipName()
+                            reader.skipValue()
+                        }
+                        reader.peek() == JsonReader.Token.STRING -> value = reader.nextString()
+                        else -> reader.skipValue()
+                    }
+                }
+                reader.endObject()
+                value
+            }
+            else -> {
+                reader.skipValue()
+                null
+            }
+        }
+    }
+
+    @ToJson
+    fun toJson(writer: JsonWriter, @TextValue value: String?) {
+        writer.value(value)
+    }
+}
@@ -0,0 +1,69 @@
+package com.librarix.data.repository
+
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.domain.model.BookStatus
+import com.librarix.domain.model.SavedBook
+
+// Kept free of Android and Room runtime types so :microbenchmark can compile it.
+
+internal fun BookEntity.toDomain(): SavedBook {
+    return SavedBook(
+        id = id,
+        title = title,
+        author = author,
+        description = description,
+        coverURLString = coverURLString,
+        pageCount = pageCount,
+        currentPage = currentPage,
+        progressFraction = progressFraction,
+        status = when (status) {
+            "READING" -> BookStatus.READING
+            "FINISHED" -> BookStatus.FINISHED
+            else -> BookStatus.WANT_TO_READ
+        },
+        genre = genre,
+        rating = rating,
+        isFavorite = isFavorite,
+        lastProgressDeltaPercent = lastProgressDeltaPercent,
+        lastSessionMinutes = lastSessionMinutes,
+        lastSessionNotes = lastSessionNotes,
+        lastProgressUpdate = lastProgressUpdate,
+        finishedDate = finishedDate,
+        addedDate = addedDate,
+        openLibraryWorkKey = openLibraryWorkKey,
+        isbn = isbn,
+        remoteId = remoteId
+    )
+}
+
+internal fun SavedBook.toEntity(): BookEntity {
+    return BookEntity(
+        id = id,
+        title = title,
+        author = author,
+        description = description,
+        coverURLString = coverURLString,
+        pageCount = pageCount,
+        currentPage = currentPage,
+        progressFraction = progressFraction,
+        status = status.toColumn(),
+        genre = genre,
+        rating = rating,
+        isFavorite = isFavorite,
+        lastProgressDeltaPercent = lastProgressDeltaPercent,
+        lastSessionMinutes = lastSessionMinutes,
+        lastSessionNotes = lastSessionNotes,
+        lastProgressUpdate = lastProgressUpdate,
+        finishedDate = finishedDate,
+        addedDate = addedDate,
+        openLibraryWorkKey = openLibraryWorkKey,
+        isbn = isbn,
+        remoteId = remoteId
+    )
+}
+
+internal fun BookStatus.toColumn(): String = when (this) {
+    BookStatus.READING -> "READING"
+    BookStatus.FINISHED -> "FINISHED"
+    BookStatus.WANT_TO_READ -> "WANT_TO_READ"
+}
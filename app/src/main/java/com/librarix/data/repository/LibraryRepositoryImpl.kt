@@ -1,21 +1,41 @@
 package com.librarix.data.repository
 
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.map
+import androidx.room.withTransaction
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
 import com.librarix.data.local.dao.BookDao
-import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.dao.CollectionDao
+import com.librarix.data.local.dao.NoteDao
+import com.librarix.data.local.dao.SyncDao
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.NoteWithBook
+import com.librarix.data.local.entity.PendingChangeEntity
+import com.librarix.data.sync.SyncEngine
 import com.librarix.domain.model.BookNote
 import com.librarix.domain.model.BookStatus
+import com.librarix.domain.model.LibraryFilter
+import com.librarix.domain.model.NoteEntry
 import com.librarix.domain.model.SavedBook
 import com.librarix.presentation.viewmodel.LibraryRepository
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.flow.map
-import org.json.JSONArray
-import org.json.JSONObject
 import javax.inject.Inject
 import javax.inject.Singleton
 
 @Singleton
 class LibraryRepositoryImpl @Inject constructor(
-    private val bookDao: BookDao
+    private val database: LibrarixDatabase,
+    private val bookDao: BookDao,
+    private val noteDao: NoteDao,
+    private val collectionDao: CollectionDao,
+    private val syncDao: SyncDao,
+    private val syncEngine: SyncEngine,
+    private val coverStore: CoverStore
 ) : LibraryRepository {
 
     override fun getAllBooks(): Flow<List<SavedBook>> {
@@ -24,117 +44,181 @@ class LibraryRepositoryImpl @Inject constructor(
         }
     }
 
+    override fun getBooks(filter: LibraryFilter, query: String): Flow<PagingData<SavedBook>> {
+        val terms = searchTerms(query)
+        return Pager(PagingConfig(pageSize = PAGE_SIZE, enablePlaceholders = false)) {
+            if (terms.isEmpty()) {
+                when (filter) {
+                    LibraryFilter.ALL -> bookDao.pagingAllBooks()
+                    LibraryFilter.TBR -> bookDao.pagingBooksByStatus(BookStatus.WANT_TO_READ.toColumn())
+                    LibraryFilter.READING -> bookDao.pagingBooksByStatus(BookStatus.READING.toColumn())
+                    LibraryFilter.FINISHED -> bookDao.pagingBooksByStatus(BookStatus.FINISHED.toColumn())
+                    LibraryFilter.FAVORITES -> bookDao.pagingFavoriteBooks()
+                }
+            } else {
+                bookDao.searchBooks(
+                    match = terms.joinToString(" ") { "$it*" },
+                    prefix = terms.joinToString(" "),
+                    status = filter.status?.toColumn(),
+                    favoritesOnly = filter == LibraryFilter.FAVORITES
+                )
+            }
+        }.flow.map { page -> page.map { it.toDomain() } }
+    }
+
+    override fun searchBooks(query: String): Flow<PagingData<SavedBook>> {
+        if (searchTerms(query).isEmpty()) return flowOf(PagingData.empty())
+        return getBooks(LibraryFilter.ALL, query)
+    }
+
+    override fun getLatestReadingBook(): Flow<SavedBook?> {
+        return bookDao.getLatestReadingBook().map { it?.toDomain() }
+    }
+
+    override fun getFinishedBooks(): Flow<List<SavedBook>> {
+        return bookDao.getFinishedBooks().map { entities -> entities.map { it.toDomain() } }
+    }
+
+    override fun getFinishedBooksCount(fromMillis: Long, untilMillis: Long): Flow<Int> {
+        return bookDao.getFinishedBooksCountBetween(fromMillis, untilMillis)
+    }
+
+    override fun getRecentlyAddedBooks(limit: Int): Flow<List<SavedBook>> {
+        return bookDao.getRecentlyAddedBooks(limit).map { entities -> entities.map { it.toDomain() } }
+    }
+
+    override fun isBookSaved(isbns: List<String>, workKey: String?, title: String, author: String): Flow<Boolean> {
+        return bookDao.isBookSaved(isbns, workKey, title, author)
+    }
+
     override suspend fun updateBook(book: SavedBook) {
-        bookDao.updateBook(book.toEntity())
+        val coverChanged = database.withTransaction {
+            val current = bookDao.getBookById(book.id)
+            val entity = book.toEntity().copy(
+                enrichedAt = current?.enrichedAt,
+                updatedAt = System.currentTimeMillis(),
+                version = (current?.version ?: 0) + 1
+            )
+            bookDao.updateBook(entity)
+            queueChange(entity.id, PendingChangeEntity.OP_UPSERT, entity.updatedAt, entity.version)
+            current?.coverURLString != entity.coverURLString
+        }
+        syncEngine.requestSync()
+        if (coverChanged) coverStore.requestSync()
     }
 
     override suspend fun addBook(book: SavedBook) {
-        bookDao.insertBook(book.toEntity())
+        database.withTransaction {
+            val entity = book.toEntity().copy(updatedAt = System.currentTimeMillis(), version = 1)
+            bookDao.upsertBook(entity)
+            book.notes?.takeIf { it.isNotEmpty() }?.let { notes ->
+                noteDao.upsertNotes(notes.map { it.toEntity(book.id) })
+            }
+            queueChange(entity.id, PendingChangeEntity.OP_UPSERT, entity.updatedAt, entity.version)
+        }
+        syncEngine.requestSync()
+        if (book.coverURLString != null) coverStore.requestSync()
     }
 
     override suspend fun getBookById(bookId: String): SavedBook? {
-        return bookDao.getBookById(bookId)?.toDomain()
+        val book = bookDao.getBookById(bookId)?.toDomain() ?: return null
+        val notes = noteDao.getNotesForBookOnce(bookId).map { it.toDomain() }
+        return book.copy(notes = notes.ifEmpty { null })
     }
 
     override suspend fun deleteBook(bookId: String) {
-        bookDao.deleteBookById(bookId)
+        database.withTransaction {
+            val current = bookDao.getBookById(bookId) ?: return@withTransaction
+            noteDao.deleteNotesForBook(bookId)
+            collectionDao.deleteMembershipsForBook(bookId)
+            bookDao.deleteBookById(bookId)
+            queueChange(bookId, PendingChangeEntity.OP_DELETE, System.currentTimeMillis(), current.version + 1)
+        }
+        coverStore.delete(bookId)
+        syncEngine.requestSync()
+    }
+
+    override fun getNotesForBook(bookId: String): Flow<List<BookNote>> {
+        return noteDao.getNotesForBook(bookId).map { notes -> notes.map { it.toDomain() } }
+    }
+
+    override fun getLatestNotes(limit: Int): Flow<List<NoteEntry>> {
+        return noteDao.getLatestNotes(limit).map { notes -> notes.map { it.toDomain() } }
+    }
+
+    override suspend fun addNote(bookId: String, note: BookNote) {
+        noteDao.upsertNote(note.toEntity(bookId))
+    }
+
+    override suspend fun updateNote(bookId: String, note: BookNote) {
+        noteDao.updateNote(note.toEntity(bookId))
+    }
+
+    override suspend fun deleteNote(noteId: String) {
+        noteDao.deleteNoteById(noteId)
+    }
+
+    private suspend fun queueChange(bookId: String, op: String, changedAt: Long, version: Int) {
+        syncDao.enqueue(
+            PendingChangeEntity(
+                entityType = PendingChangeEntity.TYPE_BOOK,
+                entityId = bookId,
+                op = op,
+                changedAt = changedAt,
+                version = version
+            )
+        )
+    }
+
+    companion object {
+        private const val PAGE_SIZE = 40
     }
 }
 
+private val LibraryFilter.status: BookStatus?
+    get() = when (this) {
+        LibraryFilter.TBR -> BookStatus.WANT_TO_READ
+        LibraryFilter.READING -> BookStatus.READING
+        LibraryFilter.FINISHED -> BookStatus.FINISHED
+        LibraryFilter.ALL, LibraryFilter.FAVORITES -> null
+    }
+
+// Splits free text into FTS-safe tokens; quotes, operators and punctuation are dropped.
+internal fun searchTerms(query: String): List<String> {
+    return query.lowercase()
+        .split(Regex("[^\\p{L}\\p{N}]+"))
+        .filter { it.isNotEmpty() }
+}
+
 // Mapper functions
-private fun BookEntity.toDomain(): SavedBook {
-    return SavedBook(
+private fun BookNoteEntity.toDomain(): BookNote {
+    return BookNote(
         id = id,
-        title = title,
-        author = author,
-        description = description,
-        coverURLString = coverURLString,
-        pageCount = pageCount,
-        currentPage = currentPage,
-        progressFraction = progressFraction,
-        status = when (status) {
-            "READING" -> BookStatus.READING
-            "FINISHED" -> BookStatus.FINISHED
-            else -> BookStatus.WANT_TO_READ
-        },
-        genre = genre,
-        rating = rating,
-        isFavorite = isFavorite,
-        lastProgressDeltaPercent = lastProgressDeltaPercent,
-        lastSessionMinutes = lastSessionMinutes,
-        lastSessionNotes = lastSessionNotes,
-        lastProgressUpdate = lastProgressUpdate,
-        finishedDate = finishedDate,
-        addedDate = addedDate,
-        notes = parseNotesJson(notesJson),
-        openLibraryWorkKey = openLibraryWorkKey,
-        isbn = isbn,
-        remoteId = remoteId
+        text = text,
+        pageNumber = pageNumber,
+        createdAt = createdAt,
+        updatedAt = updatedAt
     )
 }
 
-private fun SavedBook.toEntity(): BookEntity {
-    return BookEntity(
+private fun BookNote.toEntity(bookId: String): BookNoteEntity {
+    return BookNoteEntity(
         id = id,
-        title = title,
-        author = author,
-        description = description,
-        coverURLString = coverURLString,
-        pageCount = pageCount,
-        currentPage = currentPage,
-        progressFraction = progressFraction,
-        status = when (status) {
-            BookStatus.READING -> "READING"
-            BookStatus.FINISHED -> "FINISHED"
-            BookStatus.WANT_TO_READ -> "WANT_TO_READ"
-        },
-        genre = genre,
-        rating = rating,
-        isFavorite = isFavorite,
-        lastProgressDeltaPercent = lastProgressDeltaPercent,
-        lastSessionMinutes = lastSessionMinutes,
-        lastSessionNotes = lastSessionNotes,
-        lastProgressUpdate = lastProgressUpdate,
-        finishedDate = finishedDate,
-        addedDate = addedDate,
-        openLibraryWorkKey = openLibraryWorkKey,
-        isbn = isbn,
-        remoteId = remoteId,
-        notesJson = notesToJson(notes)
+        bookId = bookId,
+        text = text,
+        pageNumber = pageNumber,
+        createdAt = createdAt,
+        updatedAt = updatedAt
     )
 }
 
-private fun parseNotesJson(json: String?): List<BookNote>? {
-    if (json.isNullOrBlank()) return null
-    return try {
-        val array = JSONArray(json)
-        (0 until array.length()).map { i ->
-            val obj = array.getJSONObject(i)
-            BookNote(
-                id = obj.getString("id"),
-                text = obj.getString("text"),
-                pageNumber = if (obj.has("pageNumber") && !obj.isNull("pageNumber")) obj.getInt("pageNumber") else null,
-                createdAt = obj.optLong("createdAt", System.currentTimeMillis()),
-                updatedAt = obj.optLong("updatedAt", obj.optLong("createdAt", System.currentTimeMillis()))
-            )
-        }
-    } catch (e: Exception) {
-        null
-    }
-}
-
-private fun notesToJson(notes: List<BookNote>?): String? {
-    if (notes.isNullOrEmpty()) return null
-    val array = JSONArray()
-    notes.forEach { note ->
-        val obj = JSONObject().apply {
-            put("id", note.id)
-            put("text", note.text)
-            note.pageNumber?.let { put("pageNumber", it) }
-            put("createdAt", note.createdAt)
-            put("updatedAt", note.updatedAt)
-        }
-        array.put(obj)
-    }
-    return array.toString()
+private fun NoteWithBook.toDomain(): NoteEntry {
+    return NoteEntry(
+        id = id,
+        bookId = bookId,
+        createdAt = createdAt,
+        text = text,
+        bookTitle = bookTitle,
+        bookAuthor = bookAuthor
+    )
 }
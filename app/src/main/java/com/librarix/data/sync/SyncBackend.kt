@@ -0,0 +1,35 @@
+package com.librarix.data.sync
+
+import com.librarix.data.local.entity.BookEntity
+
+/**
+ * One book row as exchanged with the sync server. [book] is null for a
+ * deletion. [seq] is the server's change sequence and is only set on pulled
+ * changes; the client pages through pulls with it, so device clocks never
+ * decide what gets fetched.
+ */
+data class BookChange(
+    val id: String,
+    val book: BookEntity?,
+    val updatedAt: Long,
+    val version: Int,
+    val seq: Long = 0
+) {
+    /** Last-writer-wins ordering: later [updatedAt] wins, higher [version] breaks ties. */
+    fun isNewerThan(updatedAt: Long, version: Int): Boolean =
+        this.updatedAt > updatedAt || (this.updatedAt == updatedAt && this.version > version)
+}
+
+/**
+ * Thrown by a [SyncBackend] that cannot sync at all, e.g. one with no server
+ * configured. Unlike a network failure, retrying won't help.
+ */
+class SyncUnavailableException(message: String) : Exception(message)
+
+interface SyncBackend {
+    /** Stores [changes], keeping whichever write of each row is newer by [BookChange.isNewerThan]. */
+    suspend fun pushBooks(changes: List<BookChange>)
+
+    /** Returns up to [limit] changes with a sequence after [afterSeq], oldest first. */
+    suspend fun pullBooks(afterSeq: Long, limit: Int): List<BookChange>
+}
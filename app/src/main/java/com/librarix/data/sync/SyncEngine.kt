@@ -0,0 +1,127 @@
+package com.librarix.data.sync
+
+import android.content.Context
+import androidx.room.withTransaction
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.dao.CollectionDao
+import com.librarix.data.local.dao.NoteDao
+import com.librarix.data.local.dao.SyncDao
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.PendingChangeEntity
+import dagger.hilt.android.qualifiers.ApplicationContext
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Offline-first book sync. Local writes land in Room and queue one outbox row
+ * per changed book; [sync] pushes only those rows, then pulls server changes
+ * after the last seen sequence. Both directions run in batches, and conflicts
+ * resolve last-writer-wins via [BookChange.isNewerThan].
+ */
+@Singleton
+class SyncEngine @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val database: LibrarixDatabase,
+    private val bookDao: BookDao,
+    private val noteDao: NoteDao,
+    private val collectionDao: CollectionDao,
+    private val syncDao: SyncDao,
+    private val coverStore: CoverStore,
+    private val backend: SyncBackend
+) {
+    private val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+
+    /** Schedules a background sync soon; rapid edits collapse into one run. */
+    fun requestSync() {
+        SyncWorker.enqueue(context)
+    }
+
+    suspend fun sync() {
+        push()
+        pull()
+    }
+
+    private suspend fun push() {
+        while (true) {
+            val pending = syncDao.getPending(BATCH_SIZE)
+            if (pending.isEmpty()) return
+
+            val upsertIds = pending.filter { it.op == PendingChangeEntity.OP_UPSERT }.map { it.entityId }
+            val books = if (upsertIds.isEmpty()) emptyMap() else {
+                bookDao.getBooksByIds(upsertIds).associateBy { it.id }
+            }
+            val changes = pending.mapNotNull { change ->
+                when (change.op) {
+                    PendingChangeEntity.OP_DELETE -> BookChange(
+                        id = change.entityId,
+                        book = null,
+                        updatedAt = change.changedAt,
+                        version = change.version
+                    )
+                    // A row deleted since it was queued has its own DELETE entry.
+                    else -> books[change.entityId]?.let { book ->
+                        BookChange(id = book.id, book = book, updatedAt = book.updatedAt, version = book.version)
+                    }
+                }
+            }
+
+            if (changes.isNotEmpty()) backend.pushBooks(changes)
+            syncDao.remove(pending.map { it.id })
+        }
+    }
+
+    private suspend fun pull() {
+        var cursor = prefs.getLong(KEY_LAST_PULLED_SEQ, 0L)
+        var pulledAny = false
+        while (true) {
+            val page = backend.pullBooks(cursor, BATCH_SIZE)
+            if (page.isEmpty()) break
+            database.withTransaction {
+                page.forEach { apply(it) }
+            }
+            pulledAny = true
+            cursor = page.last().seq
+            prefs.edit().putLong(KEY_LAST_PULLED_SEQ, cursor).apply()
+            if (page.size < BATCH_SIZE) break
+        }
+        // Pulled books may bring new covers, and remote deletes leave stale files.
+        if (pulledAny) coverStore.requestSync()
+    }
+
+    private suspend fun apply(remote: BookChange) {
+        val local = bookDao.getBookById(remote.id)
+        val pending = syncDao.getPendingFor(PendingChangeEntity.TYPE_BOOK, remote.id)
+
+        val localStamp = when {
+            local != null -> local.updatedAt to local.version
+            pending != null && pending.op == PendingChangeEntity.OP_DELETE -> pending.changedAt to pending.version
+            else -> null
+        }
+        if (localStamp != null && !remote.isNewerThan(localStamp.first, localStamp.second)) return
+
+        // The remote write wins, so any queued local change for this row is obsolete.
+        if (pending != null) syncDao.removeFor(PendingChangeEntity.TYPE_BOOK, remote.id)
+
+        val book = remote.book
+        if (book == null) {
+            noteDao.deleteNotesForBook(remote.id)
+            collectionDao.deleteMembershipsForBook(remote.id)
+            bookDao.deleteBookById(remote.id)
+        } else {
+            bookDao.upsertBook(book.copy(enrichedAt = local?.enrichedAt?.takeUnless { book.hasEnrichmentGaps() }))
+        }
+    }
+
+    // The remote copy replaces local metadata wholesale; if it lacks fields the
+    // enrichment pass fills, clearing enrichedAt lets that pass look it up again.
+    private fun BookEntity.hasEnrichmentGaps(): Boolean =
+        coverURLString == null || pageCount == null || openLibraryWorkKey == null || description == null
+
+    private companion object {
+        const val PREFS_NAME = "librarix_sync"
+        const val KEY_LAST_PULLED_SEQ = "last_pulled_seq"
+        const val BATCH_SIZE = 100
+    }
+}
@@ -0,0 +1,72 @@
+package com.librarix.data.sync
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.librarix.data.remote.SupabaseAuthManager
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import kotlinx.coroutines.CancellationException
+import java.util.concurrent.TimeUnit
+
+@HiltWorker
+class SyncWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val syncEngine: SyncEngine,
+    private val authManager: SupabaseAuthManager
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        // Signed-out changes stay queued in the outbox until there is an account to sync to.
+        if (authManager.getCurrentUser() == null) return Result.success()
+        return try {
+            syncEngine.sync()
+            Result.success()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (_: SyncUnavailableException) {
+            // Nothing to sync to yet; the outbox keeps the changes for a later run.
+            Result.failure()
+        } catch (_: Exception) {
+            Result.retry()
+        }
+    }
+
+    companion object {
+        private const val WORK_NAME = "library_sync"
+        private const val PERIODIC_WORK_NAME = "library_sync_periodic"
+        private const val DEBOUNCE_SECONDS = 10L
+
+        private val constraints = Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build()
+
+        fun enqueue(context: Context) {
+            val request = OneTimeWorkRequestBuilder<SyncWorker>()
+                .setConstraints(constraints)
+                .setInitialDelay(DEBOUNCE_SECONDS, TimeUnit.SECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request)
+        }
+
+        fun schedulePeriodic(context: Context) {
+            val request = PeriodicWorkRequestBuilder<SyncWorker>(1, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(PERIODIC_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request)
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.librarix.data.work
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.room.withTransaction
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.librarix.data.local.CoverStore
+import com.librarix.data.local.LibrarixDatabase
+import com.librarix.data.local.dao.BookDao
+import com.librarix.data.local.dao.SyncDao
+import com.librarix.data.local.entity.BookEnrichment
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.PendingChangeEntity
+import com.librarix.data.remote.OpenLibraryClient
+import com.librarix.data.remote.withRetry
+import com.librarix.data.sync.SyncEngine
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Fills in cover, page count, work key and description for saved books that
+ * are missing them. Books are looked up in ISBN batches; each batch is written
+ * back in one transaction and stamped `enrichedAt`, so a pass interrupted by
+ * process death picks up where it stopped. Rows that gained metadata are
+ * stamped and queued for sync like any other local edit.
+ */
+@Singleton
+class BookEnrichmentPipeline @Inject constructor(
+    private val database: LibrarixDatabase,
+    private val bookDao: BookDao,
+    private val syncDao: SyncDao,
+    private val syncEngine: SyncEngine,
+    private val client: OpenLibraryClient
+) {
+    private val permits = Semaphore(MAX_CONCURRENT_REQUESTS)
+
+    /** Runs until no candidates remain. Throws if a batch keeps failing after retries. */
+    suspend fun run() {
+        if (clearInvalidWorkKeys()) syncEngine.requestSync()
+        while (true) {
+            val candidates = bookDao.getBooksNeedingEnrichment(BATCH_SIZE)
+            if (candidates.isEmpty()) return
+            val results = enrich(candidates)
+            if (apply(results)) syncEngine.requestSync()
+        }
+    }
+
+    /**
+     * Drops edition keys stored as work keys and re-queues those rows for
+     * enrichment. Returns whether any book changed and was queued for sync.
+     */
+    private suspend fun clearInvalidWorkKeys(): Boolean = database.withTransaction {
+        val books = bookDao.getBooksWithInvalidWorkKey()
+        val now = System.currentTimeMillis()
+        for (book in books) {
+            val cleared = book.copy(openLibraryWorkKey = null, enrichedAt = null, updatedAt = now, version = book.version + 1)
+            bookDao.updateBook(cleared)
+            syncDao.enqueue(
+                PendingChangeEntity(
+                    entityType = PendingChangeEntity.TYPE_BOOK,
+                    entityId = cleared.id,
+                    op = PendingChangeEntity.OP_UPSERT,
+                    changedAt = cleared.updatedAt,
+                    version = cleared.version
+                )
+            )
+        }
+        books.isNotEmpty()
+    }
+
+    /** Writes one batch back; returns whether any book changed and was queued for sync. */
+    private suspend fun apply(results: List<BookEnrichment>): Boolean = database.withTransaction {
+        val now = System.currentTimeMillis()
+        val current = bookDao.getBooksByIds(results.map { it.bookId }).associateBy { it.id }
+        var changed = false
+        for (result in results) {
+            val book = current[result.bookId] ?: continue
+            // Only fills gaps, so edits made while a lookup was in flight are kept.
+            val enriched = book.copy(
+                coverURLString = book.coverURLString ?: result.coverURLString,
+                pageCount = book.pageCount ?: result.pageCount,
+                openLibraryWorkKey = book.openLibraryWorkKey ?: result.workKey,
+                description = book.description ?: result.description,
+                enrichedAt = now
+            )
+            if (enriched.copy(enrichedAt = book.enrichedAt) == book) {
+                // Nothing found; enrichedAt is local-only, so this isn't a syncable edit.
+                bookDao.updateBook(enriched)
+                continue
+            }
+            val stamped = enriched.copy(updatedAt = now, version = book.version + 1)
+            bookDao.updateBook(stamped)
+            syncDao.enqueue(
+                PendingChangeEntity(
+                    entityType = PendingChangeEntity.TYPE_BOOK,
+                    entityId = stamped.id,
+                    op = PendingChangeEntity.OP_UPSERT,
+                    changedAt = stamped.updatedAt,
+                    version = stamped.version
+                )
+            )
+            changed = true
+        }
+        changed
+    }
+
+    private suspend fun enrich(books: List<BookEntity>): List<BookEnrichment> = coroutineScope {
+        val isbns = books.mapNotNull { it.isbn?.normalizedIsbn() }.distinct()
+        val byIsbn = if (isbns.isEmpty()) emptyMap() else {
+            permits.withPermit { withRetry(MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS) { client.fetchBooksByISBN(isbns).getOrThrow() } }
+        }
+
+        books.map { book ->
+            async {
+                val hit = book.isbn?.normalizedIsbn()?.let { byIsbn[it] }
+                val workKey = book.openLibraryWorkKey ?: hit?.workKey
+                val description = if (book.description == null && workKey != null) {
+                    fetchDescription(workKey)
+                } else null
+                BookEnrichment(
+                    bookId = book.id,
+                    coverURLString = hit?.coverUrl(),
+                    pageCount = hit?.pageCount,
+                    workKey = workKey,
+                    description = description
+                )
+            }
+        }.awaitAll()
+    }
+
+    // A missing or broken work record shouldn't hold back the rest of the batch.
+    private suspend fun fetchDescription(workKey: String): String? {
+        return try {
+            permits.withPermit { withRetry(MAX_ATTEMPTS, INITIAL_BACKOFF_MILLIS) { client.fetchWorkDescription(workKey).getOrThrow() } }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (_: Exception) {
+            null
+        }
+    }
+
+    private fun String.normalizedIsbn(): String? =
+        filter { it.isDigit() || it == 'X' || it == 'x' }.uppercase().takeIf { it.isNotEmpty() }
+
+    private companion object {
+        // Matches the chunk size fetchBooksByISBN sends per request.
+        const val BATCH_SIZE = 20
+        const val MAX_CONCURRENT_REQUESTS = 3
+        const val MAX_ATTEMPTS = 3
+        const val INITIAL_BACKOFF_MILLIS = 1_000L
+    }
+}
+
+@HiltWorker
+class BookEnrichmentWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val pipeline: BookEnrichmentPipeline,
+    private val coverStore: CoverStore
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        return try {
+            pipeline.run()
+            coverStore.requestSync()
+            Result.success()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (_: Exception) {
+            if (runAttemptCount < MAX_RUN_ATTEMPTS) Result.retry() else Result.failure()
+        }
+    }
+
+    companion object {
+        private const val WORK_NAME = "book_enrichment"
+        private const val MAX_RUN_ATTEMPTS = 5
+
+        /**
+         * Queues a pass unless one is already pending. With [afterCurrent], a new
+         * pass is chained behind a running one so freshly inserted rows are seen.
+         */
+        fun enqueue(context: Context, afterCurrent: Boolean = false) {
+            val request = OneTimeWorkRequestBuilder<BookEnrichmentWorker>()
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build()
+                )
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(
+                    WORK_NAME,
+                    if (afterCurrent) ExistingWorkPolicy.APPEND_OR_REPLACE else ExistingWorkPolicy.KEEP,
+                    request
+                )
+        }
+    }
+}
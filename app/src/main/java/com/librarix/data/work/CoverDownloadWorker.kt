@@ -0,0 +1,64 @@
+package com.librarix.data.work
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.librarix.data.local.CoverStore
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import kotlinx.coroutines.CancellationException
+import java.util.concurrent.TimeUnit
+
+/** Brings the offline cover store in line with the library. */
+@HiltWorker
+class CoverDownloadWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val coverStore: CoverStore
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        return try {
+            coverStore.sync()
+            Result.success()
+        } catch (e: CancellationException) {
+            throw e
+        } catch (_: Exception) {
+            if (runAttemptCount < MAX_RUN_ATTEMPTS) Result.retry() else Result.failure()
+        }
+    }
+
+    companion object {
+        private const val WORK_NAME = "cover_download"
+        private const val MAX_RUN_ATTEMPTS = 5
+
+        /**
+         * Queues a pass unless one is already pending. With [afterCurrent], a new
+         * pass is chained behind a running one so freshly saved covers are seen.
+         */
+        fun enqueue(context: Context, afterCurrent: Boolean = false) {
+            val request = OneTimeWorkRequestBuilder<CoverDownloadWorker>()
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .setRequiresStorageNotLow(true)
+                        .build()
+                )
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(
+                    WORK_NAME,
+                    if (afterCurrent) ExistingWorkPolicy.APPEND_OR_REPLACE else ExistingWorkPolicy.KEEP,
+                    request
+                )
+        }
+    }
+}
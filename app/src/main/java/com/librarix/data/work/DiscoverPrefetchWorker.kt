@@ -0,0 +1,60 @@
+package com.librarix.data.work
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.librarix.data.local.DiscoverFeedStore
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import kotlinx.coroutines.CancellationException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Opportunistic refresh while the device is charging on an unmetered network:
+ * refreshes every Discover section in [DiscoverFeedStore], so the next launch
+ * renders from disk, and drains any pending library enrichment.
+ */
+@HiltWorker
+class DiscoverPrefetchWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val discoverFeedStore: DiscoverFeedStore,
+    private val enrichmentPipeline: BookEnrichmentPipeline
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        val discover = discoverFeedStore.refresh(force = true)
+        val enrichment = try {
+            enrichmentPipeline.run()
+            true
+        } catch (e: CancellationException) {
+            throw e
+        } catch (_: Exception) {
+            false
+        }
+        return if (discover.isSuccess && enrichment) Result.success() else Result.retry()
+    }
+
+    companion object {
+        private const val WORK_NAME = "discover_prefetch"
+
+        fun schedule(context: Context) {
+            val request = PeriodicWorkRequestBuilder<DiscoverPrefetchWorker>(12, TimeUnit.HOURS)
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.UNMETERED)
+                        .setRequiresCharging(true)
+                        .build()
+                )
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request)
+        }
+    }
+}
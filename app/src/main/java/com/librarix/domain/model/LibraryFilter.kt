@@ -0,0 +1,9 @@
+package com.librarix.domain.model
+
+enum class LibraryFilter(val title: String) {
+    ALL("All"),
+    TBR("TBR"),
+    READING("Reading"),
+    FINISHED("Read"),
+    FAVORITES("Favourites")
+}
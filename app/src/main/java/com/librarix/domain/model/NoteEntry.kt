@@ -2,6 +2,7 @@ package com.librarix.domain.model
 
 data class NoteEntry(
     val id: String,
+    val bookId: String,
     val createdAt: Long,
     val text: String,
     val bookTitle: String,
@@ -0,0 +1,94 @@
+package com.librarix.presentation.ui
+
+import androidx.compose.foundation.lazy.LazyListState
+import androidx.compose.foundation.lazy.grid.LazyGridState
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
+import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.LocalDensity
+import androidx.compose.ui.unit.Dp
+import coil.imageLoader
+import coil.request.ImageRequest
+import coil.size.Size
+import kotlinx.coroutines.flow.distinctUntilChanged
+
+private const val DEFAULT_PREFETCH_AHEAD = 6
+
+/**
+ * Warms the image cache for the next [ahead] covers past the last visible item
+ * of a lazy row or list. [coverWidth]/[coverHeight] should match the on-screen
+ * cover so the prefetch picks the same Open Library variant. [coverAt] returns
+ * the same image model the item passes to `AsyncImage`.
+ */
+@Composable
+fun PrefetchCovers(
+    state: LazyListState,
+    itemCount: Int,
+    coverWidth: Dp,
+    coverHeight: Dp,
+    ahead: Int = DEFAULT_PREFETCH_AHEAD,
+    coverAt: (Int) -> Any?
+) = PrefetchCovers(
+    lastVisibleIndex = { state.layoutInfo.visibleItemsInfo.lastOrNull()?.index ?: -1 },
+    itemCount = itemCount,
+    coverWidth = coverWidth,
+    coverHeight = coverHeight,
+    ahead = ahead,
+    coverAt = coverAt
+)
+
+/** Grid variant of [PrefetchCovers]; [ahead] counts items, not rows. */
+@Composable
+fun PrefetchCovers(
+    state: LazyGridState,
+    itemCount: Int,
+    coverWidth: Dp,
+    coverHeight: Dp,
+    ahead: Int = DEFAULT_PREFETCH_AHEAD,
+    coverAt: (Int) -> Any?
+) = PrefetchCovers(
+    lastVisibleIndex = { state.layoutInfo.visibleItemsInfo.lastOrNull()?.index ?: -1 },
+    itemCount = itemCount,
+    coverWidth = coverWidth,
+    coverHeight = coverHeight,
+    ahead = ahead,
+    coverAt = coverAt
+)
+
+@Composable
+private fun PrefetchCovers(
+    lastVisibleIndex: () -> Int,
+    itemCount: Int,
+    coverWidth: Dp,
+    coverHeight: Dp,
+    ahead: Int,
+    coverAt: (Int) -> Any?
+) {
+    val context = LocalContext.current
+    val size = with(LocalDensity.current) { Size(coverWidth.roundToPx(), coverHeight.roundToPx()) }
+    val currentCoverAt by rememberUpdatedState(coverAt)
+    val currentLastVisibleIndex by rememberUpdatedState(lastVisibleIndex)
+
+    LaunchedEffect(itemCount, size) {
+        val imageLoader = context.imageLoader
+        var prefetchedThrough = -1
+        snapshotFlow { currentLastVisibleIndex() }
+            .distinctUntilChanged()
+            .collect { last ->
+                val end = minOf(last + ahead, itemCount - 1)
+                for (index in maxOf(last + 1, prefetchedThrough + 1)..end) {
+                    val model = currentCoverAt(index) ?: continue
+                    imageLoader.enqueue(
+                        ImageRequest.Builder(context)
+                            .data(model)
+                            .size(size)
+                            .build()
+                    )
+                }
+                prefetchedThrough = maxOf(prefetchedThrough, end)
+            }
+    }
+}
@@ -39,11 +39,14 @@ import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
 import androidx.compose.runtime.setValue
 import androidx.compose.ui.Alignment
+import androidx.compose.ui.ExperimentalComposeUiApi
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.draw.shadow
 import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.graphics.vector.ImageVector
+import androidx.compose.ui.semantics.semantics
+import androidx.compose.ui.semantics.testTagsAsResourceId
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
@@ -105,6 +108,7 @@ enum class AppTab(
     SETTINGS("Settings", Icons.Filled.Settings, Icons.Outlined.Settings)
 }
 
+@OptIn(ExperimentalComposeUiApi::class)
 @Composable
 fun MainScreen() {
     var selectedTab by remember { mutableStateOf(AppTab.HOME) }
@@ -116,10 +120,12 @@ fun MainScreen() {
     var showDiscoverDetail by remember { mutableStateOf(false) }
 
     val homeViewModel: HomeViewModel = hiltViewModel()
-    val homeState by homeViewModel.uiState.collectAsState()
 
     Scaffold(
-        modifier = Modifier.fillMaxSize(),
+        // Exposes testTags to UiAutomator (used by the :macrobenchmark journeys).
+        modifier = Modifier
+            .fillMaxSize()
+            .semantics { testTagsAsResourceId = true },
         bottomBar = {
             if (!showBookDetail && !showProgressSheet && !showAddBook && !showDiscoverDetail) {
                 LibrarixBottomNavBar(
@@ -144,7 +150,6 @@ fun MainScreen() {
                     }
                 )
                 AppTab.LIBRARY -> LibraryScreen(
-                    books = homeState.allBooks,
                     onBookClick = { book ->
                         currentBook = book
                         showBookDetail = true
@@ -202,8 +207,11 @@ fun MainScreen() {
 
         // Book detail overlay
         if (showBookDetail && currentBook != null) {
+            val bookNotes by remember(currentBook!!.id) {
+                homeViewModel.notesForBook(currentBook!!.id)
+            }.collectAsState(initial = emptyList())
             BookDetailScreen(
-                book = currentBook!!,
+                book = currentBook!!.copy(notes = bookNotes),
                 onBackClick = { showBookDetail = false },
                 onUpdateProgress = {
                     showBookDetail = false
@@ -255,11 +263,9 @@ fun MainScreen() {
         // Discover book detail overlay
         if (showDiscoverDetail && discoverBookDetail != null) {
             val detail = discoverBookDetail!!
-            val isSaved = homeState.allBooks.any { saved ->
-                (detail.isbns?.any { isbn -> isbn == saved.isbn } == true) ||
-                    (detail.key == saved.openLibraryWorkKey) ||
-                    (detail.title.equals(saved.title, ignoreCase = true) && detail.author.equals(saved.author, ignoreCase = true))
-            }
+            val isSaved by remember(detail) {
+                homeViewModel.isBookSaved(detail.isbns, detail.key, detail.title, detail.author)
+            }.collectAsState(initial = false)
             DiscoverBookDetailScreen(
                 book = detail,
                 isSaved = isSaved,
@@ -15,6 +15,7 @@ import androidx.compose.foundation.layout.size
 import androidx.compose.foundation.layout.width
 import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.foundation.lazy.LazyRow
+import androidx.compose.foundation.lazy.rememberLazyListState
 import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.foundation.shape.RoundedCornerShape
@@ -44,6 +45,7 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import coil.compose.AsyncImage
+import com.librarix.presentation.ui.PrefetchCovers
 import com.librarix.presentation.ui.theme.LxAuthorBackgroundDark
 import com.librarix.presentation.ui.theme.LxAuthorCardDark
 import com.librarix.presentation.ui.theme.LxAuthorTextSecondary
@@ -255,11 +257,18 @@ fun AuthorDetailScreen(
 
                     Spacer(modifier = Modifier.height(12.dp))
 
+                    val notableWorks = works.take(10)
+                    val rowState = rememberLazyListState()
+                    PrefetchCovers(rowState, notableWorks.size, NotableWorkCoverWidth, NotableWorkCoverHeight) {
+                        notableWorks[it].coverUrl
+                    }
+
                     LazyRow(
+                        state = rowState,
                         contentPadding = PaddingValues(horizontal = 20.dp),
                         horizontalArrangement = Arrangement.spacedBy(12.dp)
                     ) {
-                        items(works.take(10)) { work ->
+                        items(notableWorks) { work ->
                             NotableWorkCard(work = work)
                         }
                     }
@@ -274,11 +283,14 @@ fun AuthorDetailScreen(
     }
 }
 
+private val NotableWorkCoverWidth = 130.dp
+private val NotableWorkCoverHeight = 180.dp
+
 @Composable
 private fun NotableWorkCard(work: AuthorWorksListViewWork) {
     Card(
         modifier = Modifier
-            .width(130.dp)
+            .width(NotableWorkCoverWidth)
             .shadow(10.dp, RoundedCornerShape(16.dp)),
         colors = CardDefaults.cardColors(containerColor = LxAuthorCardDark),
         shape = RoundedCornerShape(16.dp)
@@ -289,7 +301,7 @@ private fun NotableWorkCard(work: AuthorWorksListViewWork) {
                 contentDescription = null,
                 modifier = Modifier
                     .fillMaxWidth()
-                    .height(180.dp)
+                    .height(NotableWorkCoverHeight)
                     .background(LxBorderLight),
                 contentScale = ContentScale.Crop
             )
@@ -63,6 +63,7 @@ import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import coil.compose.AsyncImage
+import com.librarix.data.image.BookCover
 import com.librarix.domain.model.BookNote
 import com.librarix.domain.model.BookStatus
 import com.librarix.domain.model.SavedBook
@@ -249,7 +250,7 @@ private fun HeroSection(
     ) {
         // Blurred backdrop
         AsyncImage(
-            model = book.coverURLString,
+            model = BookCover(book.id, book.coverURLString),
             contentDescription = null,
             modifier = Modifier
                 .fillMaxWidth()
@@ -288,7 +289,7 @@ private fun HeroSection(
             Box {
                 // Cover
                 AsyncImage(
-                    model = book.coverURLString,
+                    model = BookCover(book.id, book.coverURLString),
                     contentDescription = book.title,
                     modifier = Modifier
                         .width(192.dp)
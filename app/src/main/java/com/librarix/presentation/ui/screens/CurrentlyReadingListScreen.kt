@@ -41,6 +41,7 @@ import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import coil.compose.AsyncImage
+import com.librarix.data.image.BookCover
 import com.librarix.domain.model.SavedBook
 import com.librarix.presentation.ui.theme.LocalIsDarkTheme
 import com.librarix.presentation.ui.theme.LxBackgroundDark
@@ -192,7 +193,7 @@ fun ReadingBookRowItem(
         ) {
             // Cover
             AsyncImage(
-                model = book.coverURLString,
+                model = BookCover(book.id, book.coverURLString),
                 contentDescription = book.title,
                 modifier = Modifier
                     .width(52.dp)
@@ -29,6 +29,7 @@ import androidx.compose.foundation.lazy.grid.LazyVerticalGrid
 import androidx.compose.foundation.lazy.grid.items
 import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.lazy.itemsIndexed
+import androidx.compose.foundation.lazy.rememberLazyListState
 import androidx.compose.foundation.pager.HorizontalPager
 import androidx.compose.foundation.pager.rememberPagerState
 import androidx.compose.foundation.rememberScrollState
@@ -66,6 +67,7 @@ import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.graphics.graphicsLayer
 import androidx.compose.ui.layout.ContentScale
 import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
@@ -79,6 +81,7 @@ import com.librarix.data.remote.OpenLibraryDoc
 import com.librarix.data.remote.OpenLibrarySubjectWork
 import com.librarix.data.remote.TrendingBookData
 import com.librarix.domain.model.DiscoverBook
+import com.librarix.presentation.ui.PrefetchCovers
 import com.librarix.presentation.ui.theme.LocalIsDarkTheme
 import com.librarix.presentation.ui.theme.LxAccentGold
 import com.librarix.presentation.ui.theme.LxBackgroundDark
@@ -259,7 +262,8 @@ private fun DiscoverHeader(
             onValueChange = onSearchChanged,
             modifier = Modifier
                 .fillMaxWidth()
-                .clip(RoundedCornerShape(14.dp)),
+                .clip(RoundedCornerShape(14.dp))
+                .testTag("discover_search"),
             placeholder = {
                 Text(
                     "Title, author, or ISBN...",
@@ -579,7 +583,17 @@ private fun TrendingNowSection(
             modifier = Modifier.padding(horizontal = 20.dp)
         )
 
+        val listState = rememberLazyListState()
+        if (trending.isNotEmpty()) {
+            PrefetchCovers(listState, trending.size, TrendingCoverWidth, TrendingCoverHeight) { trending[it].coverURL }
+        } else {
+            PrefetchCovers(listState, trendingWorks.size, TrendingCoverWidth, TrendingCoverHeight) {
+                trendingWorks[it].coverUrl("M")
+            }
+        }
+
         LazyRow(
+            state = listState,
             contentPadding = PaddingValues(horizontal = 20.dp),
             horizontalArrangement = Arrangement.spacedBy(14.dp)
         ) {
@@ -613,6 +627,9 @@ private fun TrendingNowSection(
     }
 }
 
+private val TrendingCoverWidth = 120.dp
+private val TrendingCoverHeight = 180.dp
+
 @Composable
 private fun TrendingCard(
     title: String,
@@ -623,7 +640,7 @@ private fun TrendingCard(
 ) {
     Column(
         modifier = Modifier
-            .width(120.dp)
+            .width(TrendingCoverWidth)
             .clickable(onClick = onClick),
         verticalArrangement = Arrangement.spacedBy(8.dp)
     ) {
@@ -631,8 +648,8 @@ private fun TrendingCard(
             model = coverUrl,
             contentDescription = title,
             modifier = Modifier
-                .width(120.dp)
-                .height(180.dp) // 120 / (2/3) = 180
+                .width(TrendingCoverWidth)
+                .height(TrendingCoverHeight) // 120 / (2/3) = 180
                 .clip(RoundedCornerShape(12.dp))
                 .shadow(
                     elevation = 10.dp,
@@ -1129,7 +1146,9 @@ private fun SearchResultsSection(
         val chunkedResults = results.chunked(2)
         chunkedResults.forEach { rowItems ->
             Row(
-                modifier = Modifier.fillMaxWidth(),
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .testTag("discover_result_row"),
                 horizontalArrangement = Arrangement.spacedBy(14.dp)
             ) {
                 rowItems.forEach { doc ->
@@ -47,6 +47,7 @@ import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
+import androidx.compose.runtime.rememberCoroutineScope
 import androidx.compose.runtime.setValue
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
@@ -63,7 +64,7 @@ import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.hilt.navigation.compose.hiltViewModel
 import coil.compose.AsyncImage
-import com.librarix.domain.model.BookStatus
+import com.librarix.data.image.BookCover
 import com.librarix.domain.model.NoteEntry
 import com.librarix.domain.model.SavedBook
 import com.librarix.presentation.ui.theme.LxAccentGold
@@ -77,6 +78,7 @@ import com.librarix.presentation.ui.theme.LxSurfaceLight
 import com.librarix.presentation.ui.theme.LxTextSecondary
 import com.librarix.presentation.viewmodel.HomeUiState
 import com.librarix.presentation.viewmodel.HomeViewModel
+import kotlinx.coroutines.launch
 import java.text.SimpleDateFormat
 import java.util.Calendar
 import java.util.Date
@@ -94,6 +96,7 @@ fun HomeScreen(
 ) {
     val viewModel = hiltViewModel<HomeViewModel>()
     val uiState by viewModel.uiState.collectAsState()
+    val scope = rememberCoroutineScope()
 
     var showBooksReadSheet by remember { mutableStateOf(false) }
     var showGoalEditSheet by remember { mutableStateOf(false) }
@@ -231,8 +234,9 @@ fun HomeScreen(
                     primaryText = primaryText,
                     secondaryText = secondaryText,
                     accentLink = accentLink,
-                    allBooks = uiState.allBooks,
-                    onBookClick = onBookClick
+                    onNoteClick = { entry ->
+                        scope.launch { viewModel.getBook(entry.bookId)?.let(onBookClick) }
+                    }
                 )
 
                 Spacer(modifier = Modifier.height(100.dp))
@@ -242,8 +246,10 @@ fun HomeScreen(
 
         // Books Read This Year sheet overlay
         if (showBooksReadSheet) {
+            val finishedBooks by viewModel.finishedBooks.collectAsState(initial = emptyList())
             BooksReadThisYearSheet(
                 uiState = uiState,
+                finishedBooks = finishedBooks,
                 isDark = isDark,
                 backgroundColor = backgroundColor,
                 primaryText = primaryText,
@@ -440,7 +446,7 @@ private fun CurrentlyReadingCard(
             // Book cover - fixed size
             if (book.coverURLString != null) {
                 AsyncImage(
-                    model = book.coverURLString,
+                    model = BookCover(book.id, book.coverURLString),
                     contentDescription = book.title,
                     contentScale = ContentScale.Crop,
                     modifier = Modifier
@@ -969,7 +975,7 @@ private fun FreshlyShelvedRow(
             ) {
                 if (book.coverURLString != null) {
                     AsyncImage(
-                        model = book.coverURLString,
+                        model = BookCover(book.id, book.coverURLString),
                         contentDescription = book.title,
                         contentScale = ContentScale.Crop,
                         modifier = Modifier
@@ -1025,8 +1031,7 @@ private fun LatestNotesCard(
     primaryText: Color,
     secondaryText: Color,
     accentLink: Color,
-    allBooks: List<SavedBook>,
-    onBookClick: (SavedBook) -> Unit
+    onNoteClick: (NoteEntry) -> Unit
 ) {
     val bgColor = LxPrimary.copy(alpha = if (isDark) 0.20f else 0.10f)
     val borderStroke = LxPrimary.copy(alpha = if (isDark) 0.30f else 0.20f)
@@ -1057,12 +1062,7 @@ private fun LatestNotesCard(
             } else {
                 notes.forEachIndexed { index, entry ->
                     Column(
-                        modifier = Modifier.clickable {
-                            val book = allBooks.firstOrNull {
-                                it.title == entry.bookTitle && it.author == entry.bookAuthor
-                            }
-                            book?.let { onBookClick(it) }
-                        }
+                        modifier = Modifier.clickable { onNoteClick(entry) }
                     ) {
                         // Note text (italic, serif-like)
                         Text(
@@ -1127,6 +1127,7 @@ private fun LatestNotesCard(
 @Composable
 private fun BooksReadThisYearSheet(
     uiState: HomeUiState,
+    finishedBooks: List<SavedBook>,
     isDark: Boolean,
     backgroundColor: Color,
     primaryText: Color,
@@ -1136,8 +1137,6 @@ private fun BooksReadThisYearSheet(
     onEditGoal: () -> Unit
 ) {
     val currentYear = Calendar.getInstance().get(Calendar.YEAR)
-    val finishedBooks = uiState.allBooks.filter { it.status == BookStatus.FINISHED }
-        .sortedByDescending { it.finishedDate ?: 0L }
     val goalProgress = if (uiState.yearlyGoal == 0) 0f
     else (uiState.finishedBooksThisYear.toFloat() / uiState.yearlyGoal.toFloat()).coerceAtMost(1f)
 
@@ -1287,7 +1286,7 @@ private fun BooksReadThisYearSheet(
                             // Cover
                             if (book.coverURLString != null) {
                                 AsyncImage(
-                                    model = book.coverURLString,
+                                    model = BookCover(book.id, book.coverURLString),
                                     contentDescription = book.title,
                                     contentScale = ContentScale.Crop,
                                     modifier = Modifier
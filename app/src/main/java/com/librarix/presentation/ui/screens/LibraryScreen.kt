@@ -21,8 +21,7 @@ import androidx.compose.foundation.layout.width
 import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.foundation.lazy.grid.GridCells
 import androidx.compose.foundation.lazy.grid.LazyVerticalGrid
-import androidx.compose.foundation.lazy.grid.items
-import androidx.compose.foundation.lazy.items
+import androidx.compose.foundation.lazy.grid.rememberLazyGridState
 import androidx.compose.foundation.rememberScrollState
 import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.foundation.shape.RoundedCornerShape
@@ -31,6 +30,7 @@ import androidx.compose.material.icons.filled.Star
 import androidx.compose.material3.Icon
 import androidx.compose.material3.Text
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
@@ -41,14 +41,23 @@ import androidx.compose.ui.draw.clip
 import androidx.compose.ui.draw.shadow
 import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.layout.ContentScale
+import androidx.compose.ui.platform.LocalConfiguration
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
+import androidx.hilt.navigation.compose.hiltViewModel
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
 import coil.compose.AsyncImage
+import com.librarix.data.image.BookCover
 import com.librarix.domain.model.BookStatus
+import com.librarix.domain.model.LibraryFilter
 import com.librarix.domain.model.SavedBook
+import com.librarix.presentation.ui.PrefetchCovers
 import com.librarix.presentation.ui.theme.LocalIsDarkTheme
 import com.librarix.presentation.ui.theme.LxAccentGold
 import com.librarix.presentation.ui.theme.LxBackgroundDark
@@ -59,14 +68,19 @@ import com.librarix.presentation.ui.theme.LxPrimary
 import com.librarix.presentation.ui.theme.LxSurfaceDark
 import com.librarix.presentation.ui.theme.LxSurfaceLight
 import com.librarix.presentation.ui.theme.LxTextSecondary
+import com.librarix.presentation.viewmodel.LibraryViewModel
 import androidx.compose.foundation.text.BasicTextField
 import androidx.compose.ui.text.TextStyle
 
 @Composable
 fun LibraryScreen(
-    books: List<SavedBook> = emptyList(),
     onBookClick: (SavedBook) -> Unit
 ) {
+    val viewModel = hiltViewModel<LibraryViewModel>()
+    val filteredBooks = viewModel.books.collectAsLazyPagingItems()
+    val searchText by viewModel.searchText.collectAsState()
+    val selectedFilter by viewModel.selectedFilter.collectAsState()
+
     val isDark = LocalIsDarkTheme.current
     val backgroundColor = if (isDark) LxBackgroundDark else LxBackgroundLight
     val surfaceColor = if (isDark) LxSurfaceDark else LxSurfaceLight
@@ -74,29 +88,8 @@ fun LibraryScreen(
     val primaryText = if (isDark) Color.White else Color.Black.copy(alpha = 0.92f)
     val secondaryBg = if (isDark) Color.White.copy(alpha = 0.08f) else Color.Black.copy(alpha = 0.06f)
 
-    var searchText by remember { mutableStateOf("") }
-    var selectedFilter by remember { mutableStateOf(Filter.ALL) }
     var viewMode by remember { mutableStateOf(ViewMode.GRID) }
 
-    val filteredBooks = remember(books, searchText, selectedFilter) {
-        val base = books.filter { book ->
-            when (selectedFilter) {
-                Filter.ALL -> true
-                Filter.READING -> book.status == BookStatus.READING
-                Filter.FINISHED -> book.status == BookStatus.FINISHED
-                Filter.TBR -> book.status == BookStatus.WANT_TO_READ
-                Filter.FAVORITES -> book.isFavorite
-            }
-        }
-        val q = searchText.trim().lowercase()
-        if (q.isEmpty()) base
-        else base.filter {
-            it.title.lowercase().contains(q) ||
-                    it.author.lowercase().contains(q) ||
-                    (it.isbn?.lowercase()?.contains(q) ?: false)
-        }
-    }
-
     Column(
         modifier = Modifier
             .fillMaxSize()
@@ -173,7 +166,7 @@ fun LibraryScreen(
                     }
                     BasicTextField(
                         value = searchText,
-                        onValueChange = { searchText = it },
+                        onValueChange = { viewModel.onSearchTextChanged(it) },
                         singleLine = true,
                         textStyle = TextStyle(
                             fontSize = 15.sp,
@@ -194,7 +187,7 @@ fun LibraryScreen(
                     .padding(bottom = 6.dp),
                 horizontalArrangement = Arrangement.spacedBy(10.dp)
             ) {
-                Filter.entries.forEach { filter ->
+                LibraryFilter.entries.forEach { filter ->
                     val isActive = selectedFilter == filter
                     Box(
                         modifier = Modifier
@@ -203,7 +196,7 @@ fun LibraryScreen(
                                 if (isActive) LxPrimary
                                 else secondaryBg
                             )
-                            .clickable { selectedFilter = filter }
+                            .clickable { viewModel.onFilterSelected(filter) }
                             .padding(horizontal = 18.dp)
                             .height(36.dp),
                         contentAlignment = Alignment.Center
@@ -228,7 +221,7 @@ fun LibraryScreen(
         )
 
         // Content
-        if (filteredBooks.isEmpty()) {
+        if (filteredBooks.itemCount == 0 && filteredBooks.loadState.refresh is LoadState.NotLoading) {
             // Empty state
             Box(
                 modifier = Modifier
@@ -259,7 +252,15 @@ fun LibraryScreen(
         } else {
             when (viewMode) {
                 ViewMode.GRID -> {
+                    val gridState = rememberLazyGridState()
+                    // Two columns inside 16dp side padding with a 16dp gutter; covers are 2:3.
+                    val coverWidth = (LocalConfiguration.current.screenWidthDp.dp - 48.dp) / 2
+                    PrefetchCovers(gridState, filteredBooks.itemCount, coverWidth, coverWidth * 1.5f) {
+                        filteredBooks.peek(it)?.let { book -> BookCover(book.id, book.coverURLString) }
+                    }
+
                     LazyVerticalGrid(
+                        state = gridState,
                         columns = GridCells.Fixed(2),
                         contentPadding = PaddingValues(
                             start = 16.dp,
@@ -269,9 +270,15 @@ fun LibraryScreen(
                         ),
                         horizontalArrangement = Arrangement.spacedBy(16.dp),
                         verticalArrangement = Arrangement.spacedBy(28.dp),
-                        modifier = Modifier.fillMaxSize()
+                        modifier = Modifier
+                            .fillMaxSize()
+                            .testTag("library_grid")
                     ) {
-                        items(filteredBooks) { book ->
+                        items(
+                            count = filteredBooks.itemCount,
+                            key = filteredBooks.itemKey { it.id }
+                        ) { index ->
+                            val book = filteredBooks[index] ?: return@items
                             SavedBookGridCard(
                                 book = book,
                                 onClick = { onBookClick(book) }
@@ -289,9 +296,15 @@ fun LibraryScreen(
                             bottom = 18.dp
                         ),
                         verticalArrangement = Arrangement.spacedBy(14.dp),
-                        modifier = Modifier.fillMaxSize()
+                        modifier = Modifier
+                            .fillMaxSize()
+                            .testTag("library_list")
                     ) {
-                        items(filteredBooks) { book ->
+                        items(
+                            count = filteredBooks.itemCount,
+                            key = filteredBooks.itemKey { it.id }
+                        ) { index ->
+                            val book = filteredBooks[index] ?: return@items
                             SavedBookRow(
                                 book = book,
                                 onClick = { onBookClick(book) }
@@ -360,7 +373,7 @@ private fun SavedBookGridCard(
             // Cover image or placeholder
             if (book.coverURLString != null) {
                 AsyncImage(
-                    model = book.coverURLString,
+                    model = BookCover(book.id, book.coverURLString),
                     contentDescription = book.title,
                     modifier = Modifier.fillMaxSize(),
                     contentScale = ContentScale.Crop
@@ -446,7 +459,7 @@ private fun SavedBookRow(
         // Cover thumbnail
         if (book.coverURLString != null) {
             AsyncImage(
-                model = book.coverURLString,
+                model = BookCover(book.id, book.coverURLString),
                 contentDescription = book.title,
                 modifier = Modifier
                     .width(64.dp)
@@ -535,11 +548,3 @@ private fun SavedBookRow(
 private enum class ViewMode {
     GRID, LIST
 }
-
-private enum class Filter(val title: String) {
-    ALL("All"),
-    TBR("TBR"),
-    READING("Reading"),
-    FINISHED("Read"),
-    FAVORITES("Favourites")
-}
@@ -2,6 +2,8 @@ package com.librarix.presentation.ui.screens
 
 import android.content.Intent
 import android.net.Uri
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
 import androidx.compose.foundation.background
 import androidx.compose.foundation.clickable
 import com.librarix.presentation.ui.theme.LocalIsDarkTheme
@@ -28,6 +30,9 @@ import androidx.compose.material.icons.filled.ChevronRight
 import androidx.compose.material.icons.filled.DarkMode
 import androidx.compose.material.icons.filled.Delete
 import androidx.compose.material.icons.filled.Edit
+import androidx.compose.material.icons.filled.Backup
+import androidx.compose.material.icons.filled.FileUpload
+import androidx.compose.material.icons.filled.Restore
 import androidx.compose.material.icons.filled.Email
 import androidx.compose.material.icons.filled.OpenInNew
 import androidx.compose.material.icons.filled.Person
@@ -35,6 +40,7 @@ import androidx.compose.material.icons.filled.Shield
 import androidx.compose.material.icons.filled.Star
 import androidx.compose.material3.Card
 import androidx.compose.material3.CardDefaults
+import androidx.compose.material3.AlertDialog
 import androidx.compose.material3.CircularProgressIndicator
 import androidx.compose.material3.HorizontalDivider
 import androidx.compose.material3.Icon
@@ -42,7 +48,9 @@ import androidx.compose.material3.IconButton
 import androidx.compose.material3.Switch
 import androidx.compose.material3.SwitchDefaults
 import androidx.compose.material3.Text
+import androidx.compose.material3.TextButton
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
@@ -59,6 +67,7 @@ import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
+import androidx.hilt.navigation.compose.hiltViewModel
 import com.librarix.presentation.ui.theme.LocalDarkModePreference
 import com.librarix.presentation.ui.theme.LxAccentGold
 import com.librarix.presentation.ui.theme.LxBackgroundDark
@@ -67,14 +76,18 @@ import com.librarix.presentation.ui.theme.LxPrimary
 import com.librarix.presentation.ui.theme.LxSurfaceDark
 import com.librarix.presentation.ui.theme.LxSurfaceLight
 import com.librarix.presentation.ui.theme.LxTextSecondary
+import com.librarix.presentation.viewmodel.SettingsUiState
+import com.librarix.presentation.viewmodel.SettingsViewModel
 
 private const val PRIVACY_POLICY_URL = "https://tourmaline-snickerdoodle-c7b749.netlify.app"
 private const val SUPPORT_EMAIL = "ryantrumble1997@gmail.com"
 
 @Composable
 fun SettingsScreen(
-    onNavigateBack: () -> Unit
+    onNavigateBack: () -> Unit,
+    viewModel: SettingsViewModel = hiltViewModel()
 ) {
+    val uiState by viewModel.uiState.collectAsState()
     val isDark = LocalIsDarkTheme.current
     val background = if (isDark) LxBackgroundDark else LxBackgroundLight
     val surface = if (isDark) LxSurfaceDark else LxSurfaceLight
@@ -84,6 +97,37 @@ fun SettingsScreen(
 
     val scrollState = rememberScrollState()
     val context = LocalContext.current
+    val csvPicker = rememberLauncherForActivityResult(ActivityResultContracts.OpenDocument()) { uri ->
+        uri?.let(viewModel::importCsv)
+    }
+    val backupCreator = rememberLauncherForActivityResult(ActivityResultContracts.CreateDocument("application/json")) { uri ->
+        uri?.let(viewModel::exportBackup)
+    }
+    val backupPicker = rememberLauncherForActivityResult(ActivityResultContracts.OpenDocument()) { uri ->
+        uri?.let(viewModel::restoreBackup)
+    }
+    var showRestoreConfirm by remember { mutableStateOf(false) }
+
+    if (showRestoreConfirm) {
+        AlertDialog(
+            onDismissRequest = { showRestoreConfirm = false },
+            title = { Text("Restore from backup?") },
+            text = { Text("Your current library, notes, reading history and collections will be replaced by the backup.") },
+            confirmButton = {
+                TextButton(onClick = {
+                    showRestoreConfirm = false
+                    backupPicker.launch(arrayOf("application/json", "application/octet-stream"))
+                }) {
+                    Text("Choose File")
+                }
+            },
+            dismissButton = {
+                TextButton(onClick = { showRestoreConfirm = false }) {
+                    Text("Cancel")
+                }
+            }
+        )
+    }
 
     // Dark mode from shared preference
     val darkModePref = LocalDarkModePreference.current
@@ -339,6 +383,82 @@ fun SettingsScreen(
                 }
             }
 
+            // Library Section
+            SettingsGroup(
+                title = "Library",
+                isDark = isDark,
+                surface = surface,
+                border = border
+            ) {
+                SettingsRow(
+                    iconBg = LxPrimary.copy(alpha = if (isDark) 0.20f else 0.12f),
+                    icon = Icons.Default.FileUpload,
+                    iconTint = LxPrimary,
+                    title = "Import Goodreads / StoryGraph CSV",
+                    primaryText = primaryText,
+                    trailing = {
+                        ImportStatus(uiState = uiState, secondaryText = secondaryText)
+                    },
+                    onClick = {
+                        if (!uiState.isImporting) {
+                            csvPicker.launch(arrayOf("text/csv", "text/comma-separated-values", "text/plain"))
+                        }
+                    }
+                )
+
+                HorizontalDivider(
+                    color = if (isDark) Color.White.copy(alpha = 0.15f) else Color.Black.copy(alpha = 0.12f)
+                )
+
+                SettingsRow(
+                    iconBg = LxPrimary.copy(alpha = if (isDark) 0.20f else 0.12f),
+                    icon = Icons.Default.Backup,
+                    iconTint = LxPrimary,
+                    title = "Back Up Library",
+                    primaryText = primaryText,
+                    trailing = {
+                        if (uiState.isBackupRunning) {
+                            CircularProgressIndicator(
+                                modifier = Modifier.size(18.dp),
+                                color = LxPrimary,
+                                strokeWidth = 2.dp
+                            )
+                        }
+                    },
+                    onClick = {
+                        if (!uiState.isBackupRunning) {
+                            backupCreator.launch("librarix-backup-${java.time.LocalDate.now()}.json")
+                        }
+                    }
+                )
+
+                HorizontalDivider(
+                    color = if (isDark) Color.White.copy(alpha = 0.15f) else Color.Black.copy(alpha = 0.12f)
+                )
+
+                SettingsRow(
+                    iconBg = LxPrimary.copy(alpha = if (isDark) 0.20f else 0.12f),
+                    icon = Icons.Default.Restore,
+                    iconTint = LxPrimary,
+                    title = "Restore From Backup",
+                    primaryText = primaryText,
+                    trailing = { },
+                    onClick = {
+                        if (!uiState.isBackupRunning) showRestoreConfirm = true
+                    }
+                )
+
+                uiState.backupMessage?.let { message ->
+                    Text(
+                        text = message,
+                        fontSize = 12.sp,
+                        fontWeight = FontWeight.Medium,
+                        color = secondaryText,
+                        modifier = Modifier.padding(horizontal = 16.dp, vertical = 10.dp)
+                    )
+                }
+            }
+
             // Support Section
             SettingsGroup(
                 title = "Support",
@@ -439,6 +559,54 @@ fun SettingsScreen(
     }
 }
 
+// -- CSV Import Status --
+
+@Composable
+private fun ImportStatus(
+    uiState: SettingsUiState,
+    secondaryText: Color
+) {
+    val progress = uiState.importProgress
+    when {
+        uiState.isImporting -> Row(
+            verticalAlignment = Alignment.CenterVertically,
+            horizontalArrangement = Arrangement.spacedBy(8.dp)
+        ) {
+            if (progress != null) {
+                Text(
+                    text = "${progress.imported} added",
+                    fontSize = 12.sp,
+                    fontWeight = FontWeight.Medium,
+                    color = secondaryText
+                )
+            }
+            CircularProgressIndicator(
+                modifier = Modifier.size(18.dp),
+                color = LxPrimary,
+                strokeWidth = 2.dp
+            )
+        }
+        uiState.importError != null -> Text(
+            text = uiState.importError,
+            fontSize = 12.sp,
+            fontWeight = FontWeight.Medium,
+            color = Color.Red
+        )
+        progress != null -> Text(
+            text = "${progress.imported} added, ${progress.skipped} skipped",
+            fontSize = 12.sp,
+            fontWeight = FontWeight.Medium,
+            color = secondaryText
+        )
+        else -> Icon(
+            imageVector = Icons.Default.ChevronRight,
+            contentDescription = null,
+            tint = LxTextSecondary.copy(alpha = 0.8f),
+            modifier = Modifier.size(20.dp)
+        )
+    }
+}
+
 // -- Top Bar --
 
 @Composable
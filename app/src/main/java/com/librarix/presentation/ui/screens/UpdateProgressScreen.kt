@@ -43,6 +43,7 @@ import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import com.librarix.presentation.ui.theme.LocalIsDarkTheme
 import coil.compose.AsyncImage
+import com.librarix.data.image.BookCover
 import com.librarix.domain.model.BookStatus
 import com.librarix.domain.model.SavedBook
 import com.librarix.presentation.ui.theme.LxBackgroundDark
@@ -89,7 +90,7 @@ fun UpdateProgressView(
             verticalAlignment = Alignment.CenterVertically
         ) {
             AsyncImage(
-                model = book.coverURLString,
+                model = BookCover(book.id, book.coverURLString),
                 contentDescription = book.title,
                 modifier = Modifier
                     .size(width = 44.dp, height = 66.dp)
@@ -43,6 +43,7 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import coil.compose.AsyncImage
+import com.librarix.data.image.BookCover
 import com.librarix.domain.model.SavedBook
 import com.librarix.presentation.ui.theme.LxBorderLight
 import com.librarix.presentation.ui.theme.LxTextSecondary
@@ -246,7 +247,7 @@ private fun UserCollectionBookItem(
             shape = RoundedCornerShape(14.dp)
         ) {
             AsyncImage(
-                model = book.coverURLString,
+                model = BookCover(book.id, book.coverURLString),
                 contentDescription = book.title,
                 modifier = Modifier.fillMaxSize(),
                 contentScale = ContentScale.Crop
@@ -88,46 +88,4 @@ class AuthorDetailViewModel @Inject constructor(
                 .thenBy { it.displayTitle })
             .take(8)
     }
-
-    private fun deduplicateWorks(works: List<OpenLibraryAuthorWork>): List<OpenLibraryAuthorWork> {
-        val bestByTitle = mutableMapOf<String, OpenLibraryAuthorWork>()
-        for (work in works) {
-            val normalized = normalizeTitle(work.displayTitle)
-            if (normalized.isEmpty()) continue
-            val existing = bestByTitle[normalized]
-            if (existing == null) {
-                bestByTitle[normalized] = work
-            } else {
-                bestByTitle[normalized] = chooseBetter(existing, work)
-            }
-        }
-        return bestByTitle.values.toList()
-    }
-
-    private fun chooseBetter(existing: OpenLibraryAuthorWork, candidate: OpenLibraryAuthorWork): OpenLibraryAuthorWork {
-        val eHasCover = existing.covers?.isNotEmpty() == true
-        val cHasCover = candidate.covers?.isNotEmpty() == true
-        if (eHasCover != cHasCover) return if (cHasCover) candidate else existing
-
-        val eYear = existing.firstPublishYear?.take(4)?.toIntOrNull()
-        val cYear = candidate.firstPublishYear?.take(4)?.toIntOrNull()
-        if (eYear == null && cYear != null) return candidate
-        if (eYear != null && cYear == null) return existing
-        if (eYear != null && cYear != null && eYear != cYear) return if (cYear < eYear) candidate else existing
-
-        if (candidate.displayTitle.length != existing.displayTitle.length) {
-            return if (candidate.displayTitle.length < existing.displayTitle.length) candidate else existing
-        }
-        return if (candidate.key < existing.key) candidate else existing
-    }
-
-    private fun normalizeTitle(title: String): String {
-        var t = title.trim().lowercase()
-        val colonIdx = t.indexOf(':')
-        if (colonIdx >= 0) t = t.substring(0, colonIdx)
-        t = t.replace(Regex("\\([^)]*\\)"), "")
-        t = t.replace(Regex("[^a-z0-9\\s]"), " ")
-        t = t.trim().replace(Regex("\\s+"), " ")
-        return t
-    }
 }
@@ -0,0 +1,53 @@
+package com.librarix.presentation.viewmodel
+
+import com.librarix.data.remote.OpenLibraryAuthorWork
+
+// Work-list cleanup for AuthorDetailViewModel, kept free of Android types so
+// :microbenchmark can compile it.
+
+private val PARENTHETICAL = Regex("\\([^)]*\\)")
+private val NON_ALPHANUMERIC = Regex("[^a-z0-9\\s]")
+private val WHITESPACE = Regex("\\s+")
+
+/** Collapses editions of the same work (by normalized title) into the best-documented one. */
+internal fun deduplicateWorks(works: List<OpenLibraryAuthorWork>): List<OpenLibraryAuthorWork> {
+    val bestByTitle = mutableMapOf<String, OpenLibraryAuthorWork>()
+    for (work in works) {
+        val normalized = normalizeTitle(work.displayTitle)
+        if (normalized.isEmpty()) continue
+        val existing = bestByTitle[normalized]
+        if (existing == null) {
+            bestByTitle[normalized] = work
+        } else {
+            bestByTitle[normalized] = chooseBetter(existing, work)
+        }
+    }
+    return bestByTitle.values.toList()
+}
+
+private fun chooseBetter(existing: OpenLibraryAuthorWork, candidate: OpenLibraryAuthorWork): OpenLibraryAuthorWork {
+    val eHasCover = existing.covers?.isNotEmpty() == true
+    val cHasCover = candidate.covers?.isNotEmpty() == true
+    if (eHasCover != cHasCover) return if (cHasCover) candidate else existing
+
+    val eYear = existing.firstPublishYear?.take(4)?.toIntOrNull()
+    val cYear = candidate.firstPublishYear?.take(4)?.toIntOrNull()
+    if (eYear == null && cYear != null) return candidate
+    if (eYear != null && cYear == null) return existing
+    if (eYear != null && cYear != null && eYear != cYear) return if (cYear < eYear) candidate else existing
+
+    if (candidate.displayTitle.length != existing.displayTitle.length) {
+        return if (candidate.displayTitle.length < existing.displayTitle.length) candidate else existing
+    }
+    return if (candidate.key < existing.key) candidate else existing
+}
+
+internal fun normalizeTitle(title: String): String {
+    var t = title.trim().lowercase()
+    val colonIdx = t.indexOf(':')
+    if (colonIdx >= 0) t = t.substring(0, colonIdx)
+    t = t.replace(PARENTHETICAL, "")
+    t = t.replace(NON_ALPHANUMERIC, " ")
+    t = t.trim().replace(WHITESPACE, " ")
+    return t
+}
@@ -2,11 +2,12 @@ package com.librarix.presentation.viewmodel
 
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
-import com.librarix.data.remote.BookAPIClient
+import com.librarix.data.local.DiscoverFeedStore
 import com.librarix.data.remote.CuratedCollection
 import com.librarix.data.remote.OpenLibraryClient
 import com.librarix.data.remote.OpenLibraryDoc
 import com.librarix.data.remote.OpenLibrarySubjectWork
+import com.librarix.data.remote.TopSellerDoc
 import com.librarix.data.remote.TrendingBookData
 import dagger.hilt.android.lifecycle.HiltViewModel
 import kotlinx.coroutines.Job
@@ -39,7 +40,7 @@ data class DiscoverUiState(
 @HiltViewModel
 class DiscoverViewModel @Inject constructor(
     private val openLibraryClient: OpenLibraryClient,
-    private val bookAPIClient: BookAPIClient
+    private val discoverFeedStore: DiscoverFeedStore
 ) : ViewModel() {
 
     private val _uiState = MutableStateFlow(DiscoverUiState())
@@ -47,88 +48,58 @@ class DiscoverViewModel @Inject constructor(
 
     private var loadJob: Job? = null
     private var searchJob: Job? = null
-    private val subjectCache = mutableMapOf<String, List<OpenLibrarySubjectWork>>()
 
     init {
+        viewModelScope.launch {
+            discoverFeedStore.feed.collect { feed ->
+                _uiState.value = _uiState.value.copy(
+                    pickOfTheWeek = feed.pickOfTheWeek,
+                    trending = feed.trending,
+                    trendingWorks = feed.subjectWorks.drop(1).take(10),
+                    collections = feed.collections,
+                    topSellers = feed.topSellers.map { it.toDoc() }
+                )
+            }
+        }
         load()
     }
 
+    /**
+     * Cached sections are already on screen via the feed; this only refreshes
+     * them in the background, and shows an error if there is nothing to show.
+     */
     fun load(force: Boolean = false) {
         if (_uiState.value.selectedChip == DiscoverChip.MY_COLLECTIONS) {
             _uiState.value = _uiState.value.copy(isLoading = false, errorMessage = null)
             return
         }
-
-        if (!force && _uiState.value.trendingWorks.isNotEmpty()) return
+        if (loadJob?.isActive == true && !force) return
 
         loadJob?.cancel()
-        _uiState.value = _uiState.value.copy(isLoading = true, errorMessage = null)
+        _uiState.value = _uiState.value.copy(
+            isLoading = _uiState.value.trendingWorks.isEmpty(),
+            errorMessage = null
+        )
 
         loadJob = viewModelScope.launch {
-            try {
-                val slug = "fiction"
-                val works = subjectCache[slug] ?: run {
-                    val response = openLibraryClient.fetchSubjectWorks(slug, 18)
-                    response.getOrThrow().works.also { subjectCache[slug] = it }
-                }
-
-                _uiState.value = _uiState.value.copy(
-                    trendingWorks = works.drop(1).take(10),
-                    isLoading = false,
-                    errorMessage = null
-                )
-            } catch (e: Exception) {
-                _uiState.value = _uiState.value.copy(
-                    isLoading = false,
-                    errorMessage = "Couldn't load Discover right now."
-                )
-            }
-
-            // Load additional data in parallel
-            launch { loadPickOfTheWeek() }
-            launch { loadTrendingBooks() }
-            launch { loadCollections() }
-            launch { loadTopSellers() }
+            val result = discoverFeedStore.refresh(force)
+            val hasContent = _uiState.value.trendingWorks.isNotEmpty()
+            _uiState.value = _uiState.value.copy(
+                isLoading = false,
+                errorMessage = if (result.isFailure && !hasContent) "Couldn't load Discover right now." else null
+            )
         }
     }
 
-    private suspend fun loadPickOfTheWeek() {
-        if (_uiState.value.pickOfTheWeek != null) return
-        bookAPIClient.getPickOfTheWeek().onSuccess { response ->
-            _uiState.value = _uiState.value.copy(pickOfTheWeek = response.book)
-        }
-    }
-
-    private suspend fun loadTrendingBooks() {
-        if (_uiState.value.trending.isNotEmpty()) return
-        bookAPIClient.getTrending().onSuccess { response ->
-            _uiState.value = _uiState.value.copy(trending = response.books)
-        }
-    }
-
-    private suspend fun loadCollections() {
-        if (_uiState.value.collections.isNotEmpty()) return
-        bookAPIClient.getCollections().onSuccess { response ->
-            _uiState.value = _uiState.value.copy(collections = response.collections)
-        }
-    }
-
-    private suspend fun loadTopSellers() {
-        bookAPIClient.getTopSellers().onSuccess { response ->
-            val docs = response.docs.map { seller ->
-                OpenLibraryDoc(
-                    key = seller.key ?: "",
-                    title = seller.title,
-                    authorName = seller.authorName,
-                    coverI = seller.coverId,
-                    isbn = seller.isbn,
-                    firstPublishYear = seller.firstPublishYear,
-                    numberOfPagesMedian = seller.numberOfPagesMedian
-                )
-            }
-            _uiState.value = _uiState.value.copy(topSellers = docs)
-        }
-    }
+    private fun TopSellerDoc.toDoc(): OpenLibraryDoc = OpenLibraryDoc(
+        key = key ?: "",
+        title = title,
+        authorName = authorName,
+        coverI = coverId,
+        isbn = isbn,
+        firstPublishYear = firstPublishYear,
+        numberOfPagesMedian = numberOfPagesMedian
+    )
 
     fun onChipChanged(chip: DiscoverChip) {
         _uiState.value = _uiState.value.copy(selectedChip = chip)
@@ -2,19 +2,28 @@ package com.librarix.presentation.viewmodel
 
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import androidx.paging.PagingData
 import com.librarix.data.local.ReadingStatsStore
 import com.librarix.domain.model.BookNote
 import com.librarix.domain.model.BookStatus
+import com.librarix.domain.model.LibraryFilter
 import com.librarix.domain.model.NoteEntry
 import com.librarix.domain.model.SavedBook
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.launch
-import java.util.Calendar
+import java.time.Duration
+import java.time.Year
+import java.time.ZoneId
+import java.time.ZonedDateTime
 import javax.inject.Inject
 
 data class HomeUiState(
@@ -25,10 +34,10 @@ data class HomeUiState(
     val pagesThisWeek: Int = 0,
     val recentBooks: List<SavedBook> = emptyList(),
     val latestNotes: List<NoteEntry> = emptyList(),
-    val allBooks: List<SavedBook> = emptyList(),
     val isLoading: Boolean = true
 )
 
+@OptIn(ExperimentalCoroutinesApi::class)
 @HiltViewModel
 class HomeViewModel @Inject constructor(
     private val libraryRepository: LibraryRepository,
@@ -43,48 +52,62 @@ class HomeViewModel @Inject constructor(
     }
 
     private fun loadData() {
+        val zone = ZoneId.systemDefault()
         viewModelScope.launch {
-            libraryRepository.getAllBooks().collect { books ->
-                val currentYear = Calendar.getInstance().get(Calendar.YEAR)
-
-                val currentlyReading = books
-                    .filter { it.status == BookStatus.READING }
-                    .maxByOrNull { it.lastProgressUpdate ?: 0L }
-
-                val finishedThisYear = books.count { book ->
-                    book.status == BookStatus.FINISHED && book.finishedDate?.let { ts ->
-                        val cal = Calendar.getInstance().apply { timeInMillis = ts }
-                        cal.get(Calendar.YEAR) == currentYear
-                    } ?: false
+            currentYear(zone).flatMapLatest { year ->
+                val yearStart = year.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli()
+                val yearEnd = year.plusYears(1).atDay(1).atStartOfDay(zone).toInstant().toEpochMilli()
+
+                // Small indexed queries rather than one pass over every book. They all
+                // read `books`, so any book write re-runs all four; each stays cheap.
+                val library = combine(
+                    libraryRepository.getLatestReadingBook(),
+                    libraryRepository.getFinishedBooksCount(yearStart, yearEnd),
+                    libraryRepository.getRecentlyAddedBooks(limit = 10),
+                    libraryRepository.getLatestNotes(limit = 5)
+                ) { currentlyReading, finishedThisYear, recentBooks, latestNotes ->
+                    HomeUiState(
+                        currentlyReadingBook = currentlyReading,
+                        finishedBooksThisYear = finishedThisYear,
+                        recentBooks = recentBooks,
+                        latestNotes = latestNotes,
+                        isLoading = false
+                    )
                 }
 
-                val latestNotes = books.flatMap { book ->
-                    (book.notes ?: emptyList()).map { note ->
-                        NoteEntry(
-                            id = note.id,
-                            createdAt = note.createdAt,
-                            text = note.text,
-                            bookTitle = book.title,
-                            bookAuthor = book.author
-                        )
-                    }
-                }.sortedByDescending { it.createdAt }.take(5)
-
-                _uiState.value = HomeUiState(
-                    currentlyReadingBook = currentlyReading,
-                    finishedBooksThisYear = finishedThisYear,
-                    yearlyGoal = readingStatsStore.goal(forYear = currentYear),
-                    dayStreak = readingStatsStore.dayStreak(),
-                    pagesThisWeek = readingStatsStore.pagesThisWeek(),
-                    recentBooks = books.sortedByDescending { it.addedDate ?: 0L }.take(10),
-                    latestNotes = latestNotes,
-                    allBooks = books,
-                    isLoading = false
-                )
-            }
+                combine(
+                    library,
+                    readingStatsStore.dayStreak,
+                    readingStatsStore.pagesThisWeek,
+                    readingStatsStore.yearlyGoals
+                ) { state, dayStreak, pagesThisWeek, _ ->
+                    state.copy(
+                        yearlyGoal = readingStatsStore.goal(forYear = year.value),
+                        dayStreak = dayStreak,
+                        pagesThisWeek = pagesThisWeek
+                    )
+                }
+            }.collect { _uiState.value = it }
+        }
+    }
+
+    // The current year, emitted again at each New Year so the yearly stats roll over.
+    private fun currentYear(zone: ZoneId): Flow<Year> = flow {
+        while (true) {
+            val now = ZonedDateTime.now(zone)
+            val year = Year.from(now)
+            emit(year)
+            delay(Duration.between(now, year.plusYears(1).atDay(1).atStartOfDay(zone)).toMillis())
         }
     }
 
+    val finishedBooks: Flow<List<SavedBook>> = libraryRepository.getFinishedBooks()
+
+    fun isBookSaved(isbns: List<String>?, workKey: String?, title: String, author: String): Flow<Boolean> =
+        libraryRepository.isBookSaved(isbns ?: emptyList(), workKey, title, author)
+
+    suspend fun getBook(bookId: String): SavedBook? = libraryRepository.getBookById(bookId)
+
     fun updateProgress(book: SavedBook, newPage: Int, notes: String? = null) {
         viewModelScope.launch {
             val oldPage = book.currentPage ?: 0
@@ -108,8 +131,7 @@ class HomeViewModel @Inject constructor(
     }
 
     fun setYearlyGoal(goal: Int) {
-        val currentYear = Calendar.getInstance().get(Calendar.YEAR)
-        readingStatsStore.setGoal(currentYear, goal)
+        readingStatsStore.setGoal(Year.now().value, goal)
         _uiState.value = _uiState.value.copy(yearlyGoal = goal)
     }
 
@@ -119,6 +141,8 @@ class HomeViewModel @Inject constructor(
         }
     }
 
+    fun notesForBook(bookId: String): Flow<List<BookNote>> = libraryRepository.getNotesForBook(bookId)
+
     fun deleteBook(bookId: String) {
         viewModelScope.launch {
             libraryRepository.deleteBook(bookId)
@@ -163,8 +187,20 @@ class HomeViewModel @Inject constructor(
 
 interface LibraryRepository {
     fun getAllBooks(): Flow<List<SavedBook>>
+    fun getLatestReadingBook(): Flow<SavedBook?>
+    fun getFinishedBooks(): Flow<List<SavedBook>>
+    fun getFinishedBooksCount(fromMillis: Long, untilMillis: Long): Flow<Int>
+    fun getRecentlyAddedBooks(limit: Int): Flow<List<SavedBook>>
+    fun isBookSaved(isbns: List<String>, workKey: String?, title: String, author: String): Flow<Boolean>
+    fun getBooks(filter: LibraryFilter, query: String): Flow<PagingData<SavedBook>>
+    fun searchBooks(query: String): Flow<PagingData<SavedBook>>
     suspend fun getBookById(bookId: String): SavedBook?
     suspend fun updateBook(book: SavedBook)
     suspend fun addBook(book: SavedBook)
     suspend fun deleteBook(bookId: String)
+    fun getNotesForBook(bookId: String): Flow<List<BookNote>>
+    fun getLatestNotes(limit: Int): Flow<List<NoteEntry>>
+    suspend fun addNote(bookId: String, note: BookNote)
+    suspend fun updateNote(bookId: String, note: BookNote)
+    suspend fun deleteNote(noteId: String)
 }
@@ -0,0 +1,52 @@
+package com.librarix.presentation.viewmodel
+
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
+import com.librarix.domain.model.LibraryFilter
+import com.librarix.domain.model.SavedBook
+import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.map
+import javax.inject.Inject
+
+@OptIn(FlowPreview::class, ExperimentalCoroutinesApi::class)
+@HiltViewModel
+class LibraryViewModel @Inject constructor(
+    private val libraryRepository: LibraryRepository
+) : ViewModel() {
+
+    private val _searchText = MutableStateFlow("")
+    val searchText: StateFlow<String> = _searchText.asStateFlow()
+
+    private val _selectedFilter = MutableStateFlow(LibraryFilter.ALL)
+    val selectedFilter: StateFlow<LibraryFilter> = _selectedFilter.asStateFlow()
+
+    // Typing is debounced; clearing the field or switching filters applies immediately.
+    private val query = _searchText
+        .debounce { if (it.isBlank()) 0L else 300L }
+        .map { it.trim() }
+        .distinctUntilChanged()
+
+    val books: Flow<PagingData<SavedBook>> = combine(_selectedFilter, query) { filter, q -> filter to q }
+        .flatMapLatest { (filter, q) -> libraryRepository.getBooks(filter, q) }
+        .cachedIn(viewModelScope)
+
+    fun onSearchTextChanged(text: String) {
+        _searchText.value = text
+    }
+
+    fun onFilterSelected(filter: LibraryFilter) {
+        _selectedFilter.value = filter
+    }
+}
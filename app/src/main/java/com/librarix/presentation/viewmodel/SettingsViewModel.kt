@@ -0,0 +1,75 @@
+package com.librarix.presentation.viewmodel
+
+import android.net.Uri
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.librarix.data.io.BackupSummary
+import com.librarix.data.io.CsvImportProgress
+import com.librarix.data.io.LibraryBackup
+import com.librarix.data.io.LibraryCsvImporter
+import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+data class SettingsUiState(
+    val importProgress: CsvImportProgress? = null,
+    val isImporting: Boolean = false,
+    val importError: String? = null,
+    val isBackupRunning: Boolean = false,
+    val backupMessage: String? = null
+)
+
+@HiltViewModel
+class SettingsViewModel @Inject constructor(
+    private val csvImporter: LibraryCsvImporter,
+    private val libraryBackup: LibraryBackup
+) : ViewModel() {
+
+    private val _uiState = MutableStateFlow(SettingsUiState())
+    val uiState: StateFlow<SettingsUiState> = _uiState.asStateFlow()
+
+    private var importJob: Job? = null
+
+    fun importCsv(uri: Uri) {
+        if (importJob?.isActive == true) return
+        _uiState.value = _uiState.value.copy(importProgress = null, isImporting = true, importError = null)
+        importJob = viewModelScope.launch {
+            csvImporter.import(uri)
+                .catch { e ->
+                    _uiState.value = _uiState.value.copy(
+                        isImporting = false,
+                        importError = e.message ?: "Couldn't read that file."
+                    )
+                }
+                .collect { progress ->
+                    _uiState.value = _uiState.value.copy(
+                        importProgress = progress,
+                        isImporting = !progress.isComplete
+                    )
+                }
+        }
+    }
+
+    fun exportBackup(uri: Uri) = runBackup("Backed up") { libraryBackup.export(uri) }
+
+    fun restoreBackup(uri: Uri) = runBackup("Restored") { libraryBackup.restore(uri) }
+
+    private fun runBackup(verb: String, action: suspend () -> BackupSummary) {
+        if (_uiState.value.isBackupRunning) return
+        _uiState.value = _uiState.value.copy(isBackupRunning = true, backupMessage = null)
+        viewModelScope.launch {
+            val message = try {
+                val summary = action()
+                "$verb ${summary.books} books and ${summary.notes} notes"
+            } catch (e: Exception) {
+                e.message ?: "Backup failed."
+            }
+            _uiState.value = _uiState.value.copy(isBackupRunning = false, backupMessage = message)
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.librarix.data.io
+
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.local.entity.BookNoteEntity
+import com.librarix.data.local.entity.CollectionEntity
+import com.librarix.data.local.entity.CollectionMemberEntity
+import com.librarix.data.local.entity.ReadingGoalEntity
+import com.librarix.data.local.entity.ReadingSessionEntity
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.Moshi
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class BackupModelsTest {
+
+    private val moshi = Moshi.Builder().build()
+    private val bookAdapter = moshi.adapter(BackupBook::class.java)
+
+    @Test
+    fun bookKeepsItsSyncStamp() {
+        val book = book().copy(updatedAt = 9_000L, version = 7)
+        val restored = bookAdapter.fromJson(bookAdapter.toJson(book.toBackup()))!!.toEntity()
+        assertEquals(book, restored)
+    }
+
+    @Test(expected = JsonDataException::class)
+    fun bookWithoutSyncStampIsRejected() {
+        bookAdapter.fromJson(
+            """{"id":"b1","title":"Dune","author":"Frank Herbert","status":"READING","isFavorite":false}"""
+        )
+    }
+
+    @Test
+    fun bookFieldNamesArePinned() {
+        val json = moshi.adapter(Map::class.java).fromJson(bookAdapter.toJson(book().toBackup()))!!
+        assertEquals(
+            setOf(
+                "id", "title", "author", "description", "coverURLString", "pageCount", "currentPage",
+                "progressFraction", "status", "genre", "rating", "isFavorite", "lastProgressDeltaPercent",
+                "lastSessionMinutes", "lastSessionNotes", "lastProgressUpdate", "finishedDate", "addedDate",
+                "openLibraryWorkKey", "isbn", "remoteId", "enrichedAt", "updatedAt", "version"
+            ),
+            json.keys
+        )
+    }
+
+    @Test
+    fun otherRowsRoundTrip() {
+        val note = BookNoteEntity("n1", "b1", "Spice must flow", 12, 1_000L, 2_000L)
+        val session = ReadingSessionEntity("s1", 3_000L, pagesDelta = 20, minutes = 35)
+        val goal = ReadingGoalEntity(year = 2024, goal = 30)
+        val collection = CollectionEntity("c1", null, "Favourites", "Best of", "private", null, 4_000L)
+        val member = CollectionMemberEntity("c1", "b1", 5_000L)
+
+        assertEquals(note, roundTrip(note.toBackup()).toEntity())
+        assertEquals(session, roundTrip(session.toBackup()).toEntity())
+        assertEquals(goal, roundTrip(goal.toBackup()).toEntity())
+        assertEquals(collection, roundTrip(collection.toBackup()).toEntity())
+        assertEquals(member, roundTrip(member.toBackup()).toEntity())
+    }
+
+    private inline fun <reified T> roundTrip(value: T): T {
+        val adapter: JsonAdapter<T> = moshi.adapter(T::class.java)
+        return adapter.fromJson(adapter.toJson(value))!!
+    }
+
+    private fun book() = BookEntity(
+        id = "b1",
+        title = "Dune",
+        author = "Frank Herbert",
+        description = "Desert planet",
+        coverURLString = "https://covers.openlibrary.org/b/id/1-L.jpg",
+        pageCount = 412,
+        currentPage = 100,
+        progressFraction = 0.25,
+        status = "READING",
+        genre = "Science fiction",
+        rating = 4.5,
+        isFavorite = true,
+        lastProgressDeltaPercent = 5,
+        lastSessionMinutes = 30,
+        lastSessionNotes = "Arrakis",
+        lastProgressUpdate = 500L,
+        finishedDate = 600L,
+        addedDate = 100L,
+        openLibraryWorkKey = "/works/OL1W",
+        isbn = "9780441013593",
+        remoteId = "r1",
+        enrichedAt = 42L,
+        updatedAt = 500L,
+        version = 3
+    )
+}
@@ -0,0 +1,77 @@
+package com.librarix.data.io
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.io.InputStreamReader
+import java.io.StringReader
+
+class CsvReaderTest {
+
+    @Test
+    fun leadingBomIsStripped() {
+        val records = readAll("\uFEFFTitle,Author\r\nDune,Frank Herbert\r\n")
+        assertEquals(listOf(listOf("Title", "Author"), listOf("Dune", "Frank Herbert")), records)
+    }
+
+    @Test
+    fun bomDecodedFromUtf8BytesIsStripped() {
+        val bytes = byteArrayOf(0xEF.toByte(), 0xBB.toByte(), 0xBF.toByte()) + "Title,Author\n".toByteArray()
+        val reader = CsvReader(InputStreamReader(bytes.inputStream(), Charsets.UTF_8))
+        assertEquals(listOf("Title", "Author"), reader.readRecord())
+    }
+
+    @Test
+    fun bomBeforeQuotedHeaderIsStripped() {
+        assertEquals(listOf(listOf("Title", "Author")), readAll("\uFEFF\"Title\",\"Author\""))
+    }
+
+    @Test
+    fun bomOutsideTheFirstCharacterIsKept() {
+        assertEquals(listOf(listOf("Title", "\uFEFFAuthor")), readAll("Title,\uFEFFAuthor"))
+    }
+
+    @Test
+    fun inputWithoutBomIsUnchanged() {
+        assertEquals(listOf(listOf("Title", "Author")), readAll("Title,Author\n"))
+    }
+
+    @Test
+    fun quotedFieldsSpanLines() {
+        val csv = "Title,Review\n" +
+            "Dune,\"First line\nsecond line\r\nthird line\"\n" +
+            "Emma,short\n"
+        assertEquals(
+            listOf(
+                listOf("Title", "Review"),
+                listOf("Dune", "First line\nsecond line\r\nthird line"),
+                listOf("Emma", "short")
+            ),
+            readAll(csv)
+        )
+    }
+
+    @Test
+    fun quotedFieldsKeepCommasAndDoubledQuotes() {
+        val records = readAll("\"Herbert, Frank\",\"He said \"\"spice\"\"\",\"\"\n")
+        assertEquals(listOf(listOf("Herbert, Frank", "He said \"spice\"", "")), records)
+    }
+
+    @Test
+    fun lineEndingsAndMissingFinalNewline() {
+        assertEquals(
+            listOf(listOf("a", "b"), listOf("c", ""), listOf("d")),
+            readAll("a,b\rc,\r\nd")
+        )
+    }
+
+    @Test
+    fun longFieldsAreTruncated() {
+        val reader = CsvReader(StringReader("\"${"x".repeat(20)}\",next\n"), maxFieldChars = 5)
+        assertEquals(listOf("xxxxx", "next"), reader.readRecord())
+    }
+
+    private fun readAll(csv: String): List<List<String>> {
+        val reader = CsvReader(StringReader(csv))
+        return generateSequence { reader.readRecord() }.toList()
+    }
+}
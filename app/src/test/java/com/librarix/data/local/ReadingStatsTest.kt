@@ -0,0 +1,82 @@
+package com.librarix.data.local
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.util.Locale
+
+class ReadingStatsTest {
+
+    @Test
+    fun springForwardDayIsOneDay() {
+        // 2024-03-10 in New York skips 02:00-03:00, so the day is 23 hours long.
+        val beforeGap = millis("2024-03-10T01:59", NEW_YORK)
+        val afterGap = millis("2024-03-10T03:01", NEW_YORK)
+        val lateEvening = millis("2024-03-10T23:59", NEW_YORK)
+        val day = LocalDate.parse("2024-03-10").toEpochDay()
+
+        assertEquals(day, epochDayOf(beforeGap, NEW_YORK))
+        assertEquals(day, epochDayOf(afterGap, NEW_YORK))
+        assertEquals(day, epochDayOf(lateEvening, NEW_YORK))
+        assertEquals(day + 1, epochDayOf(millis("2024-03-11T00:00", NEW_YORK), NEW_YORK))
+    }
+
+    @Test
+    fun fallBackDayIsOneDay() {
+        // 2024-11-03 in New York repeats 01:00-02:00, so the day is 25 hours long.
+        val day = LocalDate.parse("2024-11-03").toEpochDay()
+        val firstOneThirty = millis("2024-11-03T01:30", NEW_YORK)
+        val secondOneThirty = firstOneThirty + 3_600_000L
+
+        assertEquals(day, epochDayOf(firstOneThirty, NEW_YORK))
+        assertEquals(day, epochDayOf(secondOneThirty, NEW_YORK))
+        assertEquals(day, epochDayOf(millis("2024-11-03T23:59", NEW_YORK), NEW_YORK))
+    }
+
+    @Test
+    fun sessionsEitherSideOfDstGapShareADay() {
+        val totals = HashMap<Long, ReadingDay>()
+        totals.addSession(millis("2024-03-10T01:30", NEW_YORK), pages = 10, minutes = 15, zone = NEW_YORK)
+        totals.addSession(millis("2024-03-10T03:30", NEW_YORK), pages = 5, minutes = 10, zone = NEW_YORK)
+        totals.addSession(millis("2024-03-10T23:59", NEW_YORK), pages = 1, minutes = 2, zone = NEW_YORK)
+        totals.addSession(millis("2024-03-11T00:00", NEW_YORK), pages = 7, minutes = 4, zone = NEW_YORK)
+
+        val day = LocalDate.parse("2024-03-10").toEpochDay()
+        assertEquals(
+            mapOf(day to ReadingDay(day, pages = 16, minutes = 27), day + 1 to ReadingDay(day + 1, pages = 7, minutes = 4)),
+            totals
+        )
+    }
+
+    @Test
+    fun sessionIsBucketedInTheGivenZone() {
+        // 08:00 on 06-06 in Tokyo is still 06-05 in New York.
+        val morningInTokyo = millis("2024-06-06T08:00", TOKYO)
+        val inTokyo = HashMap<Long, ReadingDay>().apply { addSession(morningInTokyo, 10, 5, TOKYO) }
+        val inNewYork = HashMap<Long, ReadingDay>().apply { addSession(morningInTokyo, 10, 5, NEW_YORK) }
+
+        assertEquals(setOf(LocalDate.parse("2024-06-06").toEpochDay()), inTokyo.keys)
+        assertEquals(setOf(LocalDate.parse("2024-06-05").toEpochDay()), inNewYork.keys)
+    }
+
+    @Test
+    fun weekStartFollowsLocale() {
+        val wednesday = LocalDate.parse("2024-06-05").toEpochDay()
+        assertEquals(LocalDate.parse("2024-06-02").toEpochDay(), weekStartOf(wednesday, Locale.US))
+        assertEquals(LocalDate.parse("2024-06-03").toEpochDay(), weekStartOf(wednesday, Locale.GERMANY))
+
+        val sunday = LocalDate.parse("2024-06-09").toEpochDay()
+        assertEquals(sunday, weekStartOf(sunday, Locale.US))
+        assertEquals(LocalDate.parse("2024-06-03").toEpochDay(), weekStartOf(sunday, Locale.GERMANY))
+    }
+
+    private fun millis(localDateTime: String, zone: ZoneId): Long =
+        LocalDateTime.parse(localDateTime).atZone(zone).toInstant().toEpochMilli()
+
+    private companion object {
+        val NEW_YORK: ZoneId = ZoneId.of("America/New_York")
+        val TOKYO: ZoneId = ZoneId.of("Asia/Tokyo")
+    }
+}
@@ -0,0 +1,121 @@
+package com.librarix.data.remote
+
+import com.librarix.data.local.ResponseCache
+import com.squareup.moshi.Moshi
+import kotlinx.coroutines.test.runTest
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.fail
+import org.junit.Test
+import retrofit2.HttpException
+import retrofit2.Retrofit
+import retrofit2.converter.moshi.MoshiConverterFactory
+
+/**
+ * The lookups the enrichment pass makes, through Retrofit against
+ * [MockWebServer]: work keys from ISBN responses, and which failures
+ * [withRetry] asks again for.
+ */
+class EnrichmentLookupTest {
+
+    private val server = MockWebServer()
+    private val moshi = Moshi.Builder().add(TextValueAdapter).build()
+    private val client = OpenLibraryClient(
+        Retrofit.Builder()
+            .baseUrl(server.url("/"))
+            .addConverterFactory(MoshiConverterFactory.create(moshi))
+            .build()
+            .create(OpenLibraryApi::class.java),
+        ResponseCache(FakeCachedResponseDao(), moshi)
+    )
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    // --- Work keys ---
+
+    @Test
+    fun isbnBookWithoutWorksHasNoWorkKey() = runTest {
+        server.enqueue(json("""{"ISBN:9780441013593":{"key":"/books/OL1M","title":"Dune","number_of_pages":412}}"""))
+
+        val book = client.fetchBooksByISBN(listOf("9780441013593")).getOrThrow().getValue("9780441013593")
+
+        assertNull(book.workKey)
+        assertEquals(412, book.pageCount)
+    }
+
+    @Test
+    fun isbnBookTakesItsWorkKeyFromWorks() = runTest {
+        server.enqueue(json("""{"ISBN:9780441013593":{"key":"/books/OL1M","works":[{"key":"/works/OL1W"}]}}"""))
+
+        assertEquals("/works/OL1W", client.resolveWorkKey("9780441013593").getOrThrow())
+    }
+
+    @Test
+    fun editionKeysInWorksAreIgnored() = runTest {
+        server.enqueue(json("""{"ISBN:9780441013593":{"key":"/books/OL1M","works":[{"key":"/books/OL1M"},{"key":" /works/OL2W "}]}}"""))
+
+        assertEquals("/works/OL2W", client.resolveWorkKey("9780441013593").getOrThrow())
+    }
+
+    // --- Retries ---
+
+    @Test
+    fun notFoundIsNotRetried() = runTest {
+        server.enqueue(MockResponse().setResponseCode(404))
+
+        try {
+            describe("/works/OL1W")
+            fail("Expected the 404 to be rethrown")
+        } catch (e: HttpException) {
+            assertEquals(404, e.code())
+        }
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun serverErrorsAndRateLimitsAreRetried() = runTest {
+        server.enqueue(MockResponse().setResponseCode(503))
+        server.enqueue(MockResponse().setResponseCode(429))
+        server.enqueue(json("""{"title":"Dune","description":"Desert planet"}"""))
+
+        assertEquals("Desert planet", describe("/works/OL1W"))
+        assertEquals(3, server.requestCount)
+    }
+
+    @Test
+    fun droppedConnectionsAreRetried() = runTest {
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START))
+        server.enqueue(json("""{"title":"Dune","description":{"type":"/type/text","value":"Desert planet"}}"""))
+
+        assertEquals("Desert planet", describe("/works/OL1W"))
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun retriesStopAfterMaxAttempts() = runTest {
+        repeat(3) { server.enqueue(MockResponse().setResponseCode(500)) }
+        server.enqueue(json("""{"title":"Dune","description":"Desert planet"}"""))
+
+        try {
+            describe("/works/OL1W")
+            fail("Expected the last 500 to be rethrown")
+        } catch (e: HttpException) {
+            assertEquals(500, e.code())
+        }
+        assertEquals(3, server.requestCount)
+    }
+
+    private suspend fun describe(workKey: String): String? =
+        withRetry(maxAttempts = 3, initialBackoffMillis = 1_000L) {
+            client.fetchWorkDescription(workKey).getOrThrow()
+        }
+
+    private fun json(body: String) = MockResponse().setHeader("Content-Type", "application/json").setBody(body)
+}
@@ -0,0 +1,18 @@
+package com.librarix.data.remote
+
+import com.librarix.data.local.dao.CachedResponseDao
+import com.librarix.data.local.entity.CachedResponseEntity
+import java.util.concurrent.ConcurrentHashMap
+
+/** In-memory [CachedResponseDao] for running a real ResponseCache off-device. */
+class FakeCachedResponseDao : CachedResponseDao {
+    val rows = ConcurrentHashMap<String, CachedResponseEntity>()
+
+    override suspend fun get(key: String) = rows[key]
+    override suspend fun put(entry: CachedResponseEntity) { rows[entry.key] = entry }
+    override suspend fun totalSizeBytes() = rows.values.sumOf { it.sizeBytes.toLong() }
+    override suspend fun deleteOldest(count: Int) {
+        rows.values.sortedBy { it.storedAt }.take(count).forEach { rows.remove(it.key) }
+    }
+    override suspend fun clear() = rows.clear()
+}
@@ -0,0 +1,218 @@
+package com.librarix.data.remote
+
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.Network
+import android.net.NetworkCapabilities
+import io.mockk.every
+import io.mockk.mockk
+import okhttp3.Cache
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody.Companion.toRequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.net.SocketTimeoutException
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.TimeZone
+import java.util.concurrent.TimeUnit
+
+class NetworkInterceptorsTest {
+
+    @get:Rule
+    val tempDir = TemporaryFolder()
+
+    private val server = MockWebServer()
+    private var online = true
+
+    private val context = mockk<Context> {
+        val network = mockk<Network>()
+        val capabilities = mockk<NetworkCapabilities> {
+            every { hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET) } answers { online }
+        }
+        every { getSystemService(ConnectivityManager::class.java) } returns mockk {
+            every { activeNetwork } answers { if (online) network else null }
+            every { getNetworkCapabilities(any()) } answers { if (online) capabilities else null }
+        }
+    }
+
+    @Before
+    fun setUp() {
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    // --- OfflineCacheInterceptor ---
+
+    @Test
+    fun offlineGetIsServedFromCache() {
+        val client = cachingClient()
+        server.enqueue(cacheable("fresh", servedDaysAgo = 0))
+
+        assertEquals("fresh", client.get("/works/OL1W.json").body!!.string())
+        online = false
+        client.get("/works/OL1W.json").use { response ->
+            assertEquals(200, response.code)
+            assertEquals("fresh", response.body!!.string())
+            assertNotNull(response.cacheResponse)
+            assertNull(response.networkResponse)
+        }
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun offlineServesEntriesWithinMaxStale() {
+        val client = cachingClient(maxStaleDays = 7)
+        server.enqueue(cacheable("six days old", servedDaysAgo = 6))
+        client.get("/subjects/fantasy.json").close()
+
+        online = false
+        client.get("/subjects/fantasy.json").use { response ->
+            assertEquals(200, response.code)
+            assertEquals("six days old", response.body!!.string())
+        }
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun offlineRejectsEntriesPastMaxStale() {
+        val client = cachingClient(maxStaleDays = 7)
+        server.enqueue(cacheable("eight days old", servedDaysAgo = 8))
+        client.get("/subjects/fantasy.json").close()
+
+        online = false
+        client.get("/subjects/fantasy.json").use { response ->
+            // OkHttp's answer to an only-if-cached request it cannot satisfy.
+            assertEquals(504, response.code)
+        }
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun offlineMissDoesNotTouchTheNetwork() {
+        online = false
+        cachingClient().get("/search.json?q=dune").use { response ->
+            assertEquals(504, response.code)
+        }
+        assertEquals(0, server.requestCount)
+    }
+
+    @Test
+    fun onlineRequestsFollowServerFreshness() {
+        val client = cachingClient()
+        server.enqueue(cacheable("first", servedDaysAgo = 0))
+        server.enqueue(cacheable("second", servedDaysAgo = 0))
+
+        assertEquals("first", client.get("/search.json?q=dune").body!!.string())
+        // max-age=0, so online the stale entry is revalidated rather than reused.
+        assertEquals("second", client.get("/search.json?q=dune").body!!.string())
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun offlineNonGetGoesToTheNetwork() {
+        online = false
+        server.enqueue(MockResponse().setBody("ok"))
+        val request = Request.Builder().url(server.url("/sync")).post("{}".toRequestBody()).build()
+
+        cachingClient().newCall(request).execute().use { response ->
+            assertEquals(200, response.code)
+        }
+        assertEquals(1, server.requestCount)
+    }
+
+    // --- HostTimeoutInterceptor ---
+
+    @Test
+    fun configuredHostGetsItsTimeouts() {
+        val seen = recordTimeouts(
+            mapOf(server.hostName to HostTimeouts(connectMillis = 1_000, readMillis = 2_000, writeMillis = 3_000))
+        )
+        assertEquals(Triple(1_000, 2_000, 3_000), seen)
+    }
+
+    @Test
+    fun writeTimeoutDefaultsToReadTimeout() {
+        val seen = recordTimeouts(mapOf(server.hostName to HostTimeouts(connectMillis = 1_000, readMillis = 2_000)))
+        assertEquals(Triple(1_000, 2_000, 2_000), seen)
+    }
+
+    @Test
+    fun otherHostsKeepClientDefaults() {
+        val seen = recordTimeouts(mapOf("openlibrary.org" to HostTimeouts(connectMillis = 1_000, readMillis = 2_000)))
+        assertEquals(Triple(15_000, 30_000, 30_000), seen)
+    }
+
+    @Test(expected = SocketTimeoutException::class)
+    fun slowConfiguredHostTimesOut() {
+        server.enqueue(MockResponse().setBody("late").setHeadersDelay(1, TimeUnit.SECONDS))
+        val client = timeoutClient(mapOf(server.hostName to HostTimeouts(connectMillis = 1_000, readMillis = 100)))
+
+        client.get("/slow").close()
+    }
+
+    @Test
+    fun slowUnconfiguredHostStillSucceeds() {
+        server.enqueue(MockResponse().setBody("late").setHeadersDelay(300, TimeUnit.MILLISECONDS))
+        val client = timeoutClient(mapOf("openlibrary.org" to HostTimeouts(connectMillis = 1_000, readMillis = 100)))
+
+        assertEquals("late", client.get("/slow").body!!.string())
+    }
+
+    private fun cachingClient(maxStaleDays: Int = 7) = OkHttpClient.Builder()
+        .cache(Cache(tempDir.newFolder(), CACHE_BYTES))
+        .addInterceptor(OfflineCacheInterceptor(context, maxStaleDays))
+        .build()
+
+    private fun timeoutClient(timeouts: Map<String, HostTimeouts>, extra: Interceptor? = null) = OkHttpClient.Builder()
+        .addInterceptor(HostTimeoutInterceptor(timeouts))
+        .apply { if (extra != null) addInterceptor(extra) }
+        // Same defaults as NetworkModule.
+        .connectTimeout(15, TimeUnit.SECONDS)
+        .readTimeout(30, TimeUnit.SECONDS)
+        .writeTimeout(30, TimeUnit.SECONDS)
+        .build()
+
+    private fun recordTimeouts(timeouts: Map<String, HostTimeouts>): Triple<Int, Int, Int> {
+        var seen: Triple<Int, Int, Int>? = null
+        val recorder = Interceptor { chain ->
+            seen = Triple(chain.connectTimeoutMillis(), chain.readTimeoutMillis(), chain.writeTimeoutMillis())
+            chain.proceed(chain.request())
+        }
+        server.enqueue(MockResponse().setBody("ok"))
+        timeoutClient(timeouts, recorder).get("/").close()
+        return checkNotNull(seen)
+    }
+
+    private fun OkHttpClient.get(path: String) =
+        newCall(Request.Builder().url(server.url(path)).build()).execute()
+
+    private fun cacheable(body: String, servedDaysAgo: Long) = MockResponse()
+        .setBody(body)
+        .setHeader("Cache-Control", "max-age=0")
+        .setHeader("Date", httpDate(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(servedDaysAgo)))
+
+    private fun httpDate(millis: Long): String =
+        SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .apply { timeZone = TimeZone.getTimeZone("GMT") }
+            .format(Date(millis))
+
+    private companion object {
+        const val CACHE_BYTES = 1L * 1024 * 1024
+    }
+}
@@ -0,0 +1,127 @@
+package com.librarix.data.remote
+
+import com.librarix.data.local.ResponseCache
+import com.squareup.moshi.Moshi
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicInteger
+
+class OpenLibraryClientTest {
+
+    private val api = CountingOpenLibraryApi()
+    private val dao = FakeCachedResponseDao()
+    private val client = OpenLibraryClient(
+        api,
+        ResponseCache(dao, Moshi.Builder().add(TextValueAdapter).build())
+    )
+
+    @Test
+    fun concurrentIdenticalCallsShareOneRequest() = runBlocking {
+        val results = List(CALLERS) {
+            async(start = CoroutineStart.UNDISPATCHED) { client.searchBooks("dune") }
+        }
+        api.gate.complete(Unit)
+
+        val responses = results.awaitAll().map { it.getOrThrow() }
+        assertEquals(1, api.searchCalls.get())
+        assertTrue(responses.all { it == responses.first() })
+    }
+
+    @Test
+    fun workDetailsAndAuthorLookupShareOneRequest() = runBlocking {
+        val details = async(start = CoroutineStart.UNDISPATCHED) { client.fetchWorkDetails("/works/OL1W") }
+        val authorKey = async(start = CoroutineStart.UNDISPATCHED) {
+            client.resolveAuthorKey("Frank Herbert", workKey = "/works/OL1W")
+        }
+        api.gate.complete(Unit)
+
+        assertEquals("Dune", details.await().getOrThrow().title)
+        assertEquals("/authors/OL1A", authorKey.await().getOrThrow())
+        assertEquals(1, api.workCalls.get())
+    }
+
+    @Test
+    fun differentKeysAreNotCoalesced() = runBlocking {
+        val results = listOf("dune", "emma").map { query ->
+            async(start = CoroutineStart.UNDISPATCHED) { client.searchBooks(query) }
+        }
+        api.gate.complete(Unit)
+
+        results.awaitAll().forEach { it.getOrThrow() }
+        assertEquals(2, api.searchCalls.get())
+    }
+
+    @Test
+    fun completedCallIsServedFromCache() = runBlocking {
+        api.gate.complete(Unit)
+        client.searchBooks("dune").getOrThrow()
+        client.searchBooks("dune").getOrThrow()
+
+        assertEquals(1, api.searchCalls.get())
+        assertEquals(1, dao.rows.size)
+    }
+
+    @Test
+    fun failureIsSharedButNotCached() = runBlocking {
+        api.failNext.set(1)
+        val results = List(CALLERS) {
+            async(start = CoroutineStart.UNDISPATCHED) { client.searchBooks("dune") }
+        }
+        api.gate.complete(Unit)
+
+        assertTrue(results.awaitAll().all { it.isFailure })
+        assertEquals(1, api.searchCalls.get())
+        assertTrue(dao.rows.isEmpty())
+
+        // The failed Deferred is dropped, so the next caller goes to the network again.
+        assertTrue(client.searchBooks("dune").isSuccess)
+        assertEquals(2, api.searchCalls.get())
+    }
+
+    private class CountingOpenLibraryApi : OpenLibraryApi {
+        // Held closed while callers pile up, so they are all in flight together.
+        val gate = CompletableDeferred<Unit>()
+        val searchCalls = AtomicInteger()
+        val workCalls = AtomicInteger()
+        val failNext = AtomicInteger()
+
+        override suspend fun search(q: String, limit: Int, fields: String): OpenLibrarySearchResponse {
+            searchCalls.incrementAndGet()
+            gate.await()
+            if (failNext.getAndUpdate { maxOf(it - 1, 0) } > 0) throw IOException("offline")
+            return OpenLibrarySearchResponse(
+                numFound = 1,
+                docs = listOf(OpenLibraryDoc("/works/OL1W", q, listOf("Frank Herbert"), null, null, 1965, 412))
+            )
+        }
+
+        override suspend fun getWork(workId: String): OpenLibraryWorkDetail {
+            workCalls.incrementAndGet()
+            gate.await()
+            return OpenLibraryWorkDetail(
+                title = "Dune",
+                description = null,
+                covers = null,
+                authors = listOf(OpenLibraryWorkAuthorRef(OpenLibraryKeyRef("/authors/OL1A")))
+            )
+        }
+
+        override suspend fun getWorkEditions(workId: String, limit: Int) = throw UnsupportedOperationException()
+        override suspend fun searchAuthors(q: String, limit: Int, fields: String) = throw UnsupportedOperationException()
+        override suspend fun getAuthor(authorId: String) = throw UnsupportedOperationException()
+        override suspend fun getAuthorWorks(authorId: String, limit: Int) = throw UnsupportedOperationException()
+        override suspend fun getSubjectWorks(subject: String, limit: Int) = throw UnsupportedOperationException()
+        override suspend fun getBooksByISBN(bibkeys: String, format: String, jscmd: String) = throw UnsupportedOperationException()
+    }
+
+    private companion object {
+        const val CALLERS = 8
+    }
+}
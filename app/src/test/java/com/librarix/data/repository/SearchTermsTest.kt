@@ -0,0 +1,44 @@
+package com.librarix.data.repository
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class SearchTermsTest {
+
+    @Test
+    fun splitsOnPunctuationAndLowercases() {
+        assertEquals(listOf("tolkien", "the", "hobbit"), searchTerms("  Tolkien: The HOBBIT "))
+        assertEquals(listOf("ender", "s", "game"), searchTerms("Ender's Game"))
+    }
+
+    @Test
+    fun ftsSyntaxIsDropped() {
+        assertEquals(listOf("dune", "herbert", "title", "emma"), searchTerms("\"dune\" -herbert* title:emma"))
+        assertEquals(listOf("sci", "fi"), searchTerms("sci-fi"))
+        assertEquals(listOf("a", "b"), searchTerms("(a) ^b"))
+    }
+
+    @Test
+    fun operatorsBecomePlainWords() {
+        // FTS4 only treats OR and NEAR as operators in upper case.
+        assertEquals(listOf("dune", "or", "emma", "near", "x"), searchTerms("Dune OR Emma NEAR x"))
+    }
+
+    @Test
+    fun likeWildcardsAreDropped() {
+        // Terms are also the LIKE prefix used for ranking.
+        assertEquals(listOf("50", "x"), searchTerms("50% _x"))
+    }
+
+    @Test
+    fun nonLatinLettersAreKept() {
+        assertEquals(listOf("café", "東京"), searchTerms("Café 東京"))
+    }
+
+    @Test
+    fun blankOrPunctuationOnlyHasNoTerms() {
+        assertEquals(emptyList<String>(), searchTerms(""))
+        assertEquals(emptyList<String>(), searchTerms("  "))
+        assertEquals(emptyList<String>(), searchTerms("\"*-\""))
+    }
+}
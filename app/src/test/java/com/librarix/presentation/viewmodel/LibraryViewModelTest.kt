@@ -0,0 +1,118 @@
+package com.librarix.presentation.viewmodel
+
+import androidx.paging.PagingData
+import com.librarix.domain.model.LibraryFilter
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.test.setMain
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+
+/** When [LibraryViewModel] asks the repository for a new query, in virtual time. */
+@OptIn(ExperimentalCoroutinesApi::class)
+class LibraryViewModelTest {
+
+    private val dispatcher = StandardTestDispatcher()
+    private val repository = mockk<LibraryRepository>()
+    private val requests = mutableListOf<Pair<LibraryFilter, String>>()
+
+    @Before
+    fun setUp() {
+        Dispatchers.setMain(dispatcher)
+        every { repository.getBooks(any(), any()) } answers {
+            requests += firstArg<LibraryFilter>() to secondArg<String>()
+            flowOf(PagingData.empty())
+        }
+    }
+
+    @After
+    fun tearDown() {
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun blankQueryLoadsImmediately() = runTest(dispatcher) {
+        observe(LibraryViewModel(repository))
+        runCurrent()
+
+        assertEquals(listOf(LibraryFilter.ALL to ""), requests)
+    }
+
+    @Test
+    fun typingQueriesOnce300msAfterLastKeystroke() = runTest(dispatcher) {
+        val viewModel = observe(LibraryViewModel(repository))
+        runCurrent()
+        requests.clear()
+
+        viewModel.onSearchTextChanged("d")
+        advanceTimeBy(100)
+        viewModel.onSearchTextChanged("du")
+        advanceTimeBy(100)
+        viewModel.onSearchTextChanged("dune ")
+        advanceTimeBy(299)
+        assertEquals(emptyList<Pair<LibraryFilter, String>>(), requests)
+
+        advanceTimeBy(2)
+        assertEquals(listOf(LibraryFilter.ALL to "dune"), requests)
+
+        advanceUntilIdle()
+        assertEquals(1, requests.size)
+    }
+
+    @Test
+    fun whitespaceOnlyEditDoesNotQueryAgain() = runTest(dispatcher) {
+        val viewModel = observe(LibraryViewModel(repository))
+        viewModel.onSearchTextChanged("dune")
+        advanceTimeBy(301)
+        requests.clear()
+
+        viewModel.onSearchTextChanged("dune ")
+        advanceUntilIdle()
+
+        assertEquals(emptyList<Pair<LibraryFilter, String>>(), requests)
+    }
+
+    @Test
+    fun clearingSearchAppliesImmediately() = runTest(dispatcher) {
+        val viewModel = observe(LibraryViewModel(repository))
+        viewModel.onSearchTextChanged("dune")
+        advanceTimeBy(301)
+        requests.clear()
+
+        viewModel.onSearchTextChanged("   ")
+        runCurrent()
+
+        assertEquals(listOf(LibraryFilter.ALL to ""), requests)
+    }
+
+    @Test
+    fun filterChangeAppliesImmediately() = runTest(dispatcher) {
+        val viewModel = observe(LibraryViewModel(repository))
+        viewModel.onSearchTextChanged("dune")
+        advanceTimeBy(301)
+        requests.clear()
+
+        viewModel.onFilterSelected(LibraryFilter.FINISHED)
+        runCurrent()
+
+        assertEquals(listOf(LibraryFilter.FINISHED to "dune"), requests)
+    }
+
+    private fun TestScope.observe(viewModel: LibraryViewModel): LibraryViewModel {
+        backgroundScope.launch { viewModel.books.collect {} }
+        return viewModel
+    }
+}
@@ -0,0 +1,38 @@
+plugins {
+    id("com.android.test")
+    id("org.jetbrains.kotlin.android")
+    id("androidx.baselineprofile")
+}
+
+android {
+    namespace = "com.librarix.baselineprofile"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 34
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+
+    kotlinOptions {
+        jvmTarget = "17"
+    }
+
+    targetProjectPath = ":app"
+}
+
+// Generate with ./gradlew :app:generateBaselineProfile on a connected API 33+ device or emulator.
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(project(":benchmark-common"))
+    implementation("androidx.test.ext:junit:1.1.5")
+}
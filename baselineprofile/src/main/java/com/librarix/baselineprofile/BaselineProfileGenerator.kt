@@ -0,0 +1,43 @@
+package com.librarix.baselineprofile
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.librarix.benchmark.TARGET_PACKAGE
+import com.librarix.benchmark.openBookDetail
+import com.librarix.benchmark.scrollLibraryGrid
+import com.librarix.benchmark.scrollLibraryList
+import com.librarix.benchmark.searchDiscover
+import com.librarix.benchmark.seedLibrary
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Records the startup path and the journeys :macrobenchmark measures. The
+ * resulting profile is merged into :app's main source set and ships with
+ * release builds via profileinstaller.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class BaselineProfileGenerator {
+
+    @get:Rule
+    val rule = BaselineProfileRule()
+
+    @Test
+    fun generate() = rule.collect(
+        packageName = TARGET_PACKAGE,
+        includeInStartupProfile = true
+    ) {
+        seedLibrary()
+
+        pressHome()
+        startActivityAndWait()
+
+        scrollLibraryGrid()
+        openBookDetail()
+        scrollLibraryList()
+        searchDiscover()
+    }
+}
@@ -0,0 +1,28 @@
+plugins {
+    id("com.android.library")
+    id("org.jetbrains.kotlin.android")
+}
+
+// User journeys shared by :macrobenchmark and :baselineprofile.
+android {
+    namespace = "com.librarix.benchmark.common"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 28
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+
+    kotlinOptions {
+        jvmTarget = "17"
+    }
+}
+
+dependencies {
+    api("androidx.benchmark:benchmark-macro-junit4:1.3.4")
+    api("androidx.test.uiautomator:uiautomator:2.3.0")
+}
@@ -0,0 +1,90 @@
+package com.librarix.benchmark
+
+import android.content.Intent
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.BySelector
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiDevice
+import androidx.test.uiautomator.UiObject2
+import androidx.test.uiautomator.Until
+
+const val TARGET_PACKAGE = "com.librarix"
+const val SEEDED_BOOK_COUNT = 5_000
+
+private const val SEED_ACTIVITY = "com.librarix.benchmark.BenchmarkSeedActivity"
+private const val UI_TIMEOUT_MILLIS = 10_000L
+private const val SEED_TIMEOUT_MILLIS = 120_000L
+private const val NETWORK_TIMEOUT_MILLIS = 30_000L
+
+/**
+ * Fills the library through the benchmark-only seed activity and waits for it
+ * to finish. Safe to call before every iteration; existing rows are kept.
+ */
+fun MacrobenchmarkScope.seedLibrary(count: Int = SEEDED_BOOK_COUNT) {
+    val intent = Intent().apply {
+        setClassName(TARGET_PACKAGE, SEED_ACTIVITY)
+        putExtra("count", count)
+    }
+    startActivityAndWait(intent)
+    check(device.wait(Until.hasObject(By.text("Seeded $count books")), SEED_TIMEOUT_MILLIS)) {
+        "Library seeding didn't finish"
+    }
+    killProcess()
+}
+
+fun MacrobenchmarkScope.openTab(title: String) {
+    device.waitForObject(By.desc(title)).click()
+    device.waitForIdle()
+}
+
+fun MacrobenchmarkScope.openLibraryList() {
+    openTab("Library")
+    device.waitForObject(By.text("☰")).click()
+    device.waitForObject(By.res("library_list"))
+}
+
+/** Flings [list] down and back up a few times; each fling is a separate frame burst. */
+fun MacrobenchmarkScope.flingList(list: UiObject2, times: Int = 3) {
+    // Keep gestures off the system navigation area.
+    list.setGestureMargin(device.displayWidth / 5)
+    repeat(times) {
+        list.fling(Direction.DOWN)
+        device.waitForIdle()
+    }
+    repeat(times) {
+        list.fling(Direction.UP)
+        device.waitForIdle()
+    }
+}
+
+fun MacrobenchmarkScope.scrollLibraryGrid() {
+    openTab("Library")
+    flingList(device.waitForObject(By.res("library_grid")))
+}
+
+fun MacrobenchmarkScope.scrollLibraryList() {
+    openLibraryList()
+    flingList(device.waitForObject(By.res("library_list")))
+}
+
+/** Opens the first book in the library grid, then returns to the grid. */
+fun MacrobenchmarkScope.openBookDetail() {
+    openTab("Library")
+    val grid = device.waitForObject(By.res("library_grid"))
+    grid.children.first().click()
+    device.waitForObject(By.desc("Back")).click()
+    device.waitForObject(By.res("library_grid"))
+}
+
+fun MacrobenchmarkScope.searchDiscover(query: String = "dune") {
+    openTab("Discover")
+    device.waitForObject(By.res("discover_search")).text = query
+    check(device.wait(Until.hasObject(By.res("discover_result_row")), NETWORK_TIMEOUT_MILLIS)) {
+        "No Discover results for \"$query\""
+    }
+    device.waitForIdle()
+}
+
+fun UiDevice.waitForObject(selector: BySelector): UiObject2 =
+    wait(Until.findObject(selector), UI_TIMEOUT_MILLIS) ?: error("Timed out waiting for $selector")
@@ -2,9 +2,13 @@
 plugins {
     id("com.android.application") version "8.13.2" apply false
     id("com.android.library") version "8.13.2" apply false
+    id("com.android.test") version "8.13.2" apply false
     id("org.jetbrains.kotlin.android") version "1.9.22" apply false
+    id("org.jetbrains.kotlin.jvm") version "1.9.22" apply false
     id("com.google.dagger.hilt.android") version "2.50" apply false
     id("com.google.devtools.ksp") version "1.9.22-1.0.17" apply false
+    id("androidx.baselineprofile") version "1.3.4" apply false
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
 
 tasks.register("clean", Delete::class) {
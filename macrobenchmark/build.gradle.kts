@@ -0,0 +1,40 @@
+plugins {
+    id("com.android.test")
+    id("org.jetbrains.kotlin.android")
+    id("androidx.baselineprofile")
+}
+
+android {
+    namespace = "com.librarix.macrobenchmark"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 34
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        // Results land as *-benchmarkData.json under build/outputs/connected_android_test_additional_output.
+        testInstrumentationRunnerArguments["androidx.benchmark.output.enable"] = "true"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+
+    kotlinOptions {
+        jvmTarget = "17"
+    }
+
+    targetProjectPath = ":app"
+}
+
+// Runs against :app's benchmarkRelease variant (release + installed baseline profile).
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(project(":benchmark-common"))
+    implementation("androidx.test.ext:junit:1.1.5")
+}
@@ -0,0 +1,73 @@
+package com.librarix.macrobenchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.uiautomator.By
+import com.librarix.benchmark.TARGET_PACKAGE
+import com.librarix.benchmark.flingList
+import com.librarix.benchmark.openBookDetail
+import com.librarix.benchmark.openLibraryList
+import com.librarix.benchmark.openTab
+import com.librarix.benchmark.searchDiscover
+import com.librarix.benchmark.seedLibrary
+import com.librarix.benchmark.waitForObject
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/** Frame timing for the library, book detail and Discover search journeys. */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class JourneyBenchmarks {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun scrollLibraryGrid() = measureFrames(setup = { openTab("Library") }) {
+        flingList(device.waitForObject(By.res("library_grid")))
+    }
+
+    @Test
+    fun scrollLibraryList() = measureFrames(setup = { openLibraryList() }) {
+        flingList(device.waitForObject(By.res("library_list")))
+    }
+
+    @Test
+    fun openBookDetail() = measureFrames {
+        openBookDetail()
+    }
+
+    @Test
+    fun searchDiscover() = measureFrames {
+        searchDiscover()
+    }
+
+    private fun measureFrames(
+        setup: MacrobenchmarkScope.() -> Unit = {},
+        measure: MacrobenchmarkScope.() -> Unit
+    ) = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.Partial(BaselineProfileMode.Require),
+        startupMode = StartupMode.COLD,
+        iterations = ITERATIONS,
+        setupBlock = {
+            if (iteration == 0) seedLibrary()
+            pressHome()
+            startActivityAndWait()
+            setup()
+        },
+        measureBlock = measure
+    )
+
+    private companion object {
+        const val ITERATIONS = 5
+    }
+}
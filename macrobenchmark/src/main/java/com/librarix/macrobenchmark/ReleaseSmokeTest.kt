@@ -0,0 +1,52 @@
+package com.librarix.macrobenchmark
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.uiautomator.By
+import com.librarix.benchmark.TARGET_PACKAGE
+import com.librarix.benchmark.openBookDetail
+import com.librarix.benchmark.scrollLibraryGrid
+import com.librarix.benchmark.scrollLibraryList
+import com.librarix.benchmark.searchDiscover
+import com.librarix.benchmark.seedLibrary
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * One pass through every journey on the R8-shrunk release build, to catch
+ * missing keep rules: Room and Hilt at startup, Moshi and Retrofit on the
+ * Discover feed and search, paging in the library. Any crash or missing
+ * screen fails the run.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class ReleaseSmokeTest {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun journeys() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(StartupTimingMetric()),
+        compilationMode = CompilationMode.None(),
+        startupMode = StartupMode.COLD,
+        iterations = 1,
+        setupBlock = {
+            seedLibrary()
+            pressHome()
+        }
+    ) {
+        startActivityAndWait()
+        scrollLibraryGrid()
+        openBookDetail()
+        scrollLibraryList()
+        searchDiscover()
+        check(device.hasObject(By.pkg(TARGET_PACKAGE))) { "$TARGET_PACKAGE is no longer in the foreground" }
+    }
+}
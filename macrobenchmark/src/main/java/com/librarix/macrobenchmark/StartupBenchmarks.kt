@@ -0,0 +1,58 @@
+package com.librarix.macrobenchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.librarix.benchmark.TARGET_PACKAGE
+import com.librarix.benchmark.seedLibrary
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Time to first frame of MainActivity with a seeded library. The `None`
+ * runs are the no-profile baseline the `BaselineProfile` runs are compared to.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class StartupBenchmarks {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun coldStartupNoCompilation() = startup(StartupMode.COLD, CompilationMode.None())
+
+    @Test
+    fun coldStartupBaselineProfile() =
+        startup(StartupMode.COLD, CompilationMode.Partial(BaselineProfileMode.Require))
+
+    @Test
+    fun warmStartupNoCompilation() = startup(StartupMode.WARM, CompilationMode.None())
+
+    @Test
+    fun warmStartupBaselineProfile() =
+        startup(StartupMode.WARM, CompilationMode.Partial(BaselineProfileMode.Require))
+
+    private fun startup(startupMode: StartupMode, compilationMode: CompilationMode) = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(StartupTimingMetric()),
+        compilationMode = compilationMode,
+        startupMode = startupMode,
+        iterations = ITERATIONS,
+        setupBlock = {
+            if (iteration == 0) seedLibrary()
+            pressHome()
+        }
+    ) {
+        startActivityAndWait()
+    }
+
+    private companion object {
+        const val ITERATIONS = 10
+    }
+}
@@ -0,0 +1,55 @@
+plugins {
+    id("org.jetbrains.kotlin.jvm")
+    id("com.google.devtools.ksp")
+    id("me.champeau.jmh")
+}
+
+// JVM microbenchmarks for the pure parts of :app. :app is an Android
+// application module, so rather than depending on it this compiles the
+// handful of Android-free source files it needs straight from app/src.
+val appSources = "../app/src/main/java"
+
+sourceSets {
+    main {
+        kotlin {
+            srcDir(appSources)
+            include(
+                "com/librarix/domain/model/SavedBook.kt",
+                "com/librarix/data/local/entity/BookEntity.kt",
+                "com/librarix/data/local/ReadingStats.kt",
+                "com/librarix/data/repository/BookMappers.kt",
+                "com/librarix/data/remote/OpenLibraryModels.kt",
+                "com/librarix/data/remote/TextValueAdapter.kt",
+                "com/librarix/presentation/viewmodel/AuthorWorks.kt",
+                // The filter also applies to KSP output, which covers every model in app/src.
+                "com/librarix/data/remote/OpenLibrary*JsonAdapter.kt"
+            )
+        }
+    }
+}
+
+kotlin {
+    jvmToolchain(17)
+    // Benchmarks call the internal mappers and stats helpers directly.
+    target.compilations.getByName("jmh").associateWith(target.compilations.getByName("main"))
+}
+
+jmh {
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("ns")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // Reports gc.alloc.rate.norm (bytes/op) next to the timings.
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+}
+
+dependencies {
+    // Room annotations on BookEntity; only the annotation classes are needed off-device.
+    implementation("androidx.room:room-common:2.6.1")
+    implementation("com.squareup.moshi:moshi:1.15.0")
+    ksp("com.squareup.moshi:moshi-kotlin-codegen:1.15.0")
+    // Adapters for the pre-TextValueAdapter baseline models in src/jmh.
+    "kspJmh"("com.squareup.moshi:moshi-kotlin-codegen:1.15.0")
+}
@@ -0,0 +1,33 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.remote.OpenLibraryAuthorWork
+import com.librarix.presentation.viewmodel.deduplicateWorks
+import com.librarix.presentation.viewmodel.normalizeTitle
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+
+/** Cleanup of an author's works list before AuthorDetailScreen shows it. */
+@State(Scope.Benchmark)
+open class AuthorWorksBenchmark {
+    @Param("100", "1000", "10000")
+    var size = 0
+
+    private lateinit var works: List<OpenLibraryAuthorWork>
+
+    @Setup
+    fun setUp() {
+        works = Fixtures.authorWorks(size)
+    }
+
+    @Benchmark
+    fun deduplicate(): List<OpenLibraryAuthorWork> = deduplicateWorks(works)
+
+    @Benchmark
+    fun normalize(blackhole: Blackhole) {
+        for (work in works) blackhole.consume(normalizeTitle(work.displayTitle))
+    }
+}
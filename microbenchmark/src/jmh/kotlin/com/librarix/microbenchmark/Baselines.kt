@@ -0,0 +1,27 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.remote.OpenLibraryWorkAuthorRef
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
+
+/**
+ * [com.librarix.data.remote.OpenLibraryWorkDetail] as it was before
+ * TextValueAdapter: `description` typed `Any?`, so Moshi's Object adapter
+ * decodes an object-shaped description into a Map first.
+ */
+@JsonClass(generateAdapter = true)
+data class UntypedWorkDetail(
+    @Json(name = "title") val title: String?,
+    @Json(name = "description") val description: Any?,
+    @Json(name = "covers") val covers: List<Int>?,
+    @Json(name = "authors") val authors: List<OpenLibraryWorkAuthorRef>?
+) {
+    val descriptionValue: String?
+        get() {
+            return when (description) {
+                is String -> description.trim().takeIf { it.isNotEmpty() }
+                is Map<*, *> -> (description["value"] as? String)?.trim()?.takeIf { it.isNotEmpty() }
+                else -> null
+            }
+        }
+}
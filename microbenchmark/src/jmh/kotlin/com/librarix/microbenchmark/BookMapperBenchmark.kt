@@ -0,0 +1,33 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.repository.toDomain
+import com.librarix.data.repository.toEntity
+import com.librarix.domain.model.SavedBook
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/** Row mapping as done for every Room page and every library write. */
+@State(Scope.Benchmark)
+open class BookMapperBenchmark {
+    @Param("100", "1000", "10000")
+    var size = 0
+
+    private lateinit var entities: List<BookEntity>
+    private lateinit var books: List<SavedBook>
+
+    @Setup
+    fun setUp() {
+        entities = Fixtures.books(size)
+        books = entities.map { it.toDomain() }
+    }
+
+    @Benchmark
+    fun mapToDomain(): List<SavedBook> = entities.map { it.toDomain() }
+
+    @Benchmark
+    fun mapToEntity(): List<BookEntity> = books.map { it.toEntity() }
+}
@@ -0,0 +1,67 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.local.entity.BookEntity
+import com.librarix.data.remote.OpenLibraryAuthorWork
+import kotlin.random.Random
+
+/** Deterministic datasets, so runs on different machines and commits are comparable. */
+internal object Fixtures {
+    private const val SEED = 42
+    private val STATUSES = listOf("reading", "want_to_read", "finished")
+    private const val DAY_MILLIS = 86_400_000L
+    private const val NOW = 1_760_000_000_000L
+
+    fun books(count: Int): List<BookEntity> {
+        val random = Random(SEED)
+        return List(count) { i ->
+            val status = STATUSES[random.nextInt(STATUSES.size)]
+            val pageCount = random.nextInt(80, 900).takeIf { random.nextInt(10) > 0 }
+            BookEntity(
+                id = "book-$i",
+                title = "Title $i",
+                author = "Author ${random.nextInt(count / 4 + 1)}",
+                description = if (random.nextBoolean()) "A description of book $i. ".repeat(8) else null,
+                coverURLString = "https://covers.openlibrary.org/b/id/${random.nextInt(1_000_000)}-L.jpg",
+                pageCount = pageCount,
+                currentPage = pageCount?.let { random.nextInt(it) },
+                progressFraction = random.nextDouble(),
+                status = status,
+                genre = if (random.nextBoolean()) "Fiction" else null,
+                rating = if (status == "finished") random.nextInt(1, 6).toDouble() else null,
+                isFavorite = random.nextInt(8) == 0,
+                lastProgressDeltaPercent = random.nextInt(0, 20),
+                lastSessionMinutes = random.nextInt(5, 120),
+                lastSessionNotes = null,
+                lastProgressUpdate = NOW - random.nextLong(365 * DAY_MILLIS),
+                finishedDate = if (status == "finished") NOW - random.nextLong(365 * DAY_MILLIS) else null,
+                addedDate = NOW - random.nextLong(730 * DAY_MILLIS),
+                openLibraryWorkKey = "/works/OL${i}W",
+                isbn = (9_780_000_000_000L + i).toString(),
+                remoteId = null,
+                updatedAt = NOW,
+                version = 1
+            )
+        }
+    }
+
+    /** [count] session timestamps spread over the past three years. */
+    fun sessionDates(count: Int): LongArray {
+        val random = Random(SEED)
+        return LongArray(count) { NOW - random.nextLong(3 * 365 * DAY_MILLIS) }
+    }
+
+    /** Author works where roughly half are extra editions of an earlier title. */
+    fun authorWorks(count: Int): List<OpenLibraryAuthorWork> {
+        val random = Random(SEED)
+        val variants = listOf("", ": A Novel", " (Illustrated Edition)", " - Anniversary Edition", "!")
+        return List(count) { i ->
+            val base = if (i > 0 && random.nextBoolean()) random.nextInt(i) else i
+            OpenLibraryAuthorWork(
+                key = "/works/OL${i}W",
+                title = "The Collected Work Number $base${variants[random.nextInt(variants.size)]}",
+                covers = if (random.nextInt(3) == 0) null else listOf(random.nextInt(1_000_000)),
+                firstPublishDate = if (random.nextInt(4) == 0) null else "${random.nextInt(1850, 2025)}"
+            )
+        }
+    }
+}
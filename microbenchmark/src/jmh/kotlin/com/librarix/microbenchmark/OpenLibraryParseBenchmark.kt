@@ -0,0 +1,77 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.remote.OpenLibraryEditionsResponse
+import com.librarix.data.remote.OpenLibrarySearchResponse
+import com.librarix.data.remote.TextValueAdapter
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.Moshi
+import okio.Buffer
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Decoding the largest Open Library responses with the same Moshi setup as
+ * NetworkModule. Bodies are encoded once in [setUp]; each call parses from a
+ * fresh buffer. Each `*Baseline` decodes the same body untyped, through
+ * Moshi's Object adapter into Maps: the path `description` and `bio` took
+ * before TextValueAdapter, applied to the whole response.
+ *
+ * Search bodies hold only the projected `fields`. The editions endpoint
+ * ignores `fields`, so its entries carry everything Open Library sends,
+ * including `{"type": "/type/text", ...}` descriptions and notes that the
+ * typed adapter skips without decoding. `editions` at size 50 is
+ * getWorkEditions(limit = 50), the call behind every work detail screen.
+ */
+@State(Scope.Benchmark)
+open class OpenLibraryParseBenchmark {
+    /** Entries per search or editions response. */
+    @Param("10", "50", "100")
+    var size = 0
+
+    private val moshi = Moshi.Builder()
+        .add(TextValueAdapter)
+        .build()
+    private val searchAdapter: JsonAdapter<OpenLibrarySearchResponse> = moshi.adapter(OpenLibrarySearchResponse::class.java)
+    private val editionsAdapter: JsonAdapter<OpenLibraryEditionsResponse> = moshi.adapter(OpenLibraryEditionsResponse::class.java)
+    private val untypedAdapter: JsonAdapter<Any> = moshi.adapter(Any::class.java)
+
+    private lateinit var searchBody: ByteArray
+    private lateinit var editionsBody: ByteArray
+
+    @Setup
+    fun setUp() {
+        searchBody = (0 until size).joinToString(",", """{"numFound":$size,"docs":[""", "]}") { i ->
+            """{"key":"/works/OL${i}W","title":"Title $i","author_name":["Author $i","Co-author $i"],""" +
+                """"cover_i":${100_000 + i},"isbn":["978000000${"%04d".format(i)}","000000${"%04d".format(i)}"],""" +
+                """"first_publish_year":${1900 + i % 120},"number_of_pages_median":${100 + i}}"""
+        }.toByteArray()
+
+        val description = "A description of this edition, as the publisher wrote it. ".repeat(6)
+        editionsBody = (0 until size).joinToString(",", """{"size":$size,"entries":[""", "]}") { i ->
+            """{"key":"/books/OL${i}M","title":"Edition $i","number_of_pages":${100 + i},""" +
+                """"isbn_10":["000000${"%04d".format(i)}"],"isbn_13":["978000000${"%04d".format(i)}"],""" +
+                """"description":{"type":"/type/text","value":"$description"},""" +
+                """"notes":{"type":"/type/text","value":"Includes index."},""" +
+                """"publishers":["Publisher ${i % 7}"],"publish_date":"${1950 + i % 70}","covers":[${200_000 + i}],""" +
+                """"works":[{"key":"/works/OL1W"}],"languages":[{"key":"/languages/eng"}],""" +
+                """"identifiers":{"goodreads":["${1_000_000 + i}"],"librarything":["${2_000_000 + i}"]},""" +
+                """"physical_format":"Paperback","type":{"key":"/type/edition"},"revision":${i % 9 + 1},""" +
+                """"created":{"type":"/type/datetime","value":"2009-10-15T11:34:21.437031"}}"""
+        }.toByteArray()
+    }
+
+    @Benchmark
+    fun search(): OpenLibrarySearchResponse? = searchAdapter.fromJson(Buffer().write(searchBody))
+
+    @Benchmark
+    fun searchBaseline(): Any? = untypedAdapter.fromJson(Buffer().write(searchBody))
+
+    @Benchmark
+    fun editions(): OpenLibraryEditionsResponse? = editionsAdapter.fromJson(Buffer().write(editionsBody))
+
+    @Benchmark
+    fun editionsBaseline(): Any? = untypedAdapter.fromJson(Buffer().write(editionsBody))
+}
@@ -0,0 +1,37 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.local.ReadingDay
+import com.librarix.data.local.addSession
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.time.ZoneId
+
+/**
+ * Bucketing sessions into day totals, as ReadingStatsDao.rebuildDays does after
+ * a restore or legacy import. Streak and weekly pages are bounded Room queries
+ * now, so they need a device rather than JMH.
+ */
+@State(Scope.Benchmark)
+open class ReadingStatsBenchmark {
+    /** Number of logged sessions. */
+    @Param("1000", "10000", "100000")
+    var size = 0
+
+    private val zone = ZoneId.of("America/New_York")
+    private lateinit var dates: LongArray
+
+    @Setup
+    fun setUp() {
+        dates = Fixtures.sessionDates(size)
+    }
+
+    @Benchmark
+    fun dayTotals(): Map<Long, ReadingDay> {
+        val totals = HashMap<Long, ReadingDay>()
+        for (date in dates) totals.addSession(date, pages = 12, minutes = 20, zone = zone)
+        return totals
+    }
+}
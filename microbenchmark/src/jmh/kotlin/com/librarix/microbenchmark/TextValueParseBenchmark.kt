@@ -0,0 +1,46 @@
+package com.librarix.microbenchmark
+
+import com.librarix.data.remote.OpenLibraryWorkDetail
+import com.librarix.data.remote.TextValueAdapter
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.Moshi
+import okio.Buffer
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Decoding a work description in both shapes Open Library sends, through
+ * [TextValueAdapter] and, as the baseline, through Moshi's Object adapter as
+ * [UntypedWorkDetail] did before it.
+ */
+@State(Scope.Benchmark)
+open class TextValueParseBenchmark {
+    /** A plain string, or a `{"type": "/type/text", "value": ...}` object. */
+    @Param("string", "object")
+    var shape = ""
+
+    private val moshi = Moshi.Builder()
+        .add(TextValueAdapter)
+        .build()
+    private val adapter: JsonAdapter<OpenLibraryWorkDetail> = moshi.adapter(OpenLibraryWorkDetail::class.java)
+    private val baselineAdapter: JsonAdapter<UntypedWorkDetail> = moshi.adapter(UntypedWorkDetail::class.java)
+
+    private lateinit var body: ByteArray
+
+    @Setup
+    fun setUp() {
+        val text = "A long description of the work, as Open Library returns it. ".repeat(20)
+        val description = if (shape == "object") """{"type":"/type/text","value":"$text"}""" else "\"$text\""
+        body = ("""{"title":"The Work","description":$description,"covers":[1,2,3],""" +
+            """"authors":[{"author":{"key":"/authors/OL1A"}}]}""").toByteArray()
+    }
+
+    @Benchmark
+    fun workDetail(): String? = adapter.fromJson(Buffer().write(body))?.descriptionValue
+
+    @Benchmark
+    fun workDetailBaseline(): String? = baselineAdapter.fromJson(Buffer().write(body))?.descriptionValue
+}
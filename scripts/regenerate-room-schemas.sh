@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+#
+# Regenerates every exported Room schema in app/schemas with the real Room KSP
+# processor. Version N is built from the last commit before the bump to N + 1
+# (the schema that actually shipped as N); the current version is built from
+# the working tree. MigrationTestHelper loads these files, so they must be
+# exactly what Room writes: never edit them by hand.
+#
+# Usage: scripts/regenerate-room-schemas.sh [first-version]
+set -euo pipefail
+
+root=$(git rev-parse --show-toplevel)
+db_file=app/src/main/java/com/librarix/data/local/LibrarixDatabase.kt
+schema_dir=app/schemas/com.librarix.data.local.LibrarixDatabase
+first=${1:-2}
+current=$(grep -o 'version = [0-9]*' "$root/$db_file" | grep -o '[0-9]*$')
+work=$(mktemp -d)
+
+cleanup() {
+    for tree in "$work"/v*; do
+        [ -d "$tree" ] && git -C "$root" worktree remove --force "$tree"
+    done
+    rm -rf "$work"
+}
+trap cleanup EXIT
+
+# Oldest commit whose LibrarixDatabase declares version $1.
+bump_commit() {
+    git -C "$root" log --reverse --format=%H -G "version = $1\b" -- "$db_file" | head -n 1
+}
+
+# Builds the schema for version $2 in tree $1 and copies it into the repo.
+export_schema() {
+    local tree=$1 version=$2
+    sed -i.bak 's/exportSchema = false/exportSchema = true/' "$tree/$db_file" && rm -f "$tree/$db_file.bak"
+    if ! grep -q 'room.schemaLocation' "$tree/app/build.gradle.kts"; then
+        printf '\nksp {\n    arg("room.schemaLocation", "$projectDir/schemas")\n}\n' >> "$tree/app/build.gradle.kts"
+    fi
+    rm -f "$tree/$schema_dir/$version.json"
+    (cd "$tree" && ./gradlew -q --rerun-tasks :app:kspDebugKotlin)
+    mkdir -p "$root/$schema_dir"
+    if [ "$tree" != "$root" ]; then
+        cp "$tree/$schema_dir/$version.json" "$root/$schema_dir/$version.json"
+    fi
+    echo "Exported schema $version"
+}
+
+for ((version = first; version < current; version++)); do
+    next=$(bump_commit $((version + 1)))
+    if [ -z "$next" ]; then
+        echo "No commit bumps the database to version $((version + 1))" >&2
+        exit 1
+    fi
+    tree="$work/v$version"
+    git -C "$root" worktree add --quiet --detach "$tree" "$next^"
+    export_schema "$tree" "$version"
+done
+
+export_schema "$root" "$current"
+
+echo "Now run MigrationTest on a device or emulator:"
+echo "  ./gradlew :app:connectedDebugAndroidTest \\"
+echo "      -Pandroid.testInstrumentationRunnerArguments.class=com.librarix.data.local.MigrationTest"
@@ -15,4 +15,8 @@ dependencyResolutionManagement {
 }
 
 rootProject.name = "Librarix"
-include(":app")
\ No newline at end of file
+include(":app")
+include(":benchmark-common")
+include(":macrobenchmark")
+include(":baselineprofile")
+include(":microbenchmark")